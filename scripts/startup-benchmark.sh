@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+#
+# Measures time from launch to the first successful GET /api/devices/{id} and the resident
+# memory (RSS) of the process at that point.
+#
+# Usage: scripts/startup-benchmark.sh [jvm|fast|native] [device-id] [runs]
+#   jvm    - plain fat jar from `mvn package`
+#   fast   - extracted jar with AOT + CDS archive from `mvn -Pfast-startup package`
+#   native - GraalVM executable from `mvn -Pnative native:compile`
+#
+# The target database must already contain the device id. Extra JVM options can be passed
+# through JAVA_OPTS and Spring profiles through SPRING_PROFILES_ACTIVE (default: prod). RSS is
+# read from /proc, so it is only reported on Linux. The prod profile needs a node id, taken
+# from DEVICES_ID_NODEID (default: 0).
+
+set -euo pipefail
+
+MODE="${1:-jvm}"
+DEVICE_ID="${2:-1}"
+RUNS="${3:-5}"
+PORT="${PORT:-8080}"
+API_KEY="${API_KEY:-3fa85f64-5717-4562-b3fc-2c963f66afa6-DEVKEY-92A7D1}"
+PROFILES="${SPRING_PROFILES_ACTIVE:-prod}"
+NODE_ID="${DEVICES_ID_NODEID:-0}"
+TARGET_DIR="$(cd "$(dirname "$0")/.." && pwd)/target"
+
+case "$MODE" in
+  jvm)
+    JAR="$(ls "$TARGET_DIR"/devices-api-*.jar | grep -v original | head -1)"
+    CMD=(java ${JAVA_OPTS:-} -jar "$JAR" --spring.profiles.active="$PROFILES" --devices.id.node-id="$NODE_ID")
+    ;;
+  fast)
+    JAR="$(ls "$TARGET_DIR"/cds/devices-api-*.jar | head -1)"
+    CMD=(java ${JAVA_OPTS:-} -XX:SharedArchiveFile="$TARGET_DIR/cds/application.jsa"
+         -Dspring.aot.enabled=true -jar "$JAR" --spring.profiles.active="$PROFILES,fast-startup" --devices.id.node-id="$NODE_ID")
+    ;;
+  native)
+    CMD=("$TARGET_DIR/devices-api" --spring.profiles.active="$PROFILES" --devices.id.node-id="$NODE_ID")
+    ;;
+  *)
+    echo "Unknown mode: $MODE (expected jvm, fast or native)" >&2
+    exit 1
+    ;;
+esac
+
+URL="http://localhost:$PORT/api/devices/$DEVICE_ID"
+total=0
+total_rss=0
+
+for run in $(seq 1 "$RUNS"); do
+  start=$(date +%s%N)
+  "${CMD[@]}" --server.port="$PORT" > "$TARGET_DIR/startup-benchmark-$MODE-$run.log" 2>&1 &
+  pid=$!
+
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' -H "X-API-KEY: $API_KEY" "$URL")" = "200" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Application exited during startup, see $TARGET_DIR/startup-benchmark-$MODE-$run.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  total=$(( total + elapsed ))
+  rss=$(awk '/^VmRSS:/ { print int($2 / 1024) }' "/proc/$pid/status" 2>/dev/null || echo 0)
+  total_rss=$(( total_rss + rss ))
+  echo "run $run: first successful GET after ${elapsed} ms, RSS ${rss} MB"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
+
+echo "mode=$MODE runs=$RUNS average=$(( total / RUNS )) ms rss=$(( total_rss / RUNS )) MB"
@@ -18,6 +18,12 @@ import java.util.List;
 @Component
 public class ApiKeyFilter extends OncePerRequestFilter {
 
+    /**
+     * Actuator endpoints that change the running process or expose its internals (metric names
+     * and tags include paths, cache regions and pool sizes) still need the API key.
+     */
+    public static final List<String> PROTECTED_ACTUATOR_PATHS = List.of("/actuator/jfr", "/actuator/metrics");
+
     @Value("${api.key}")
     private String apiKey;
 
@@ -32,7 +38,7 @@ public class ApiKeyFilter extends OncePerRequestFilter {
                 || path.startsWith("/swagger-ui")
                 || path.startsWith("/v3/api-docs")
                 || path.startsWith("/swagger-ui.html")
-                || path.startsWith("/actuator")) {
+                || (path.startsWith("/actuator") && !isProtectedActuatorPath(path))) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -51,4 +57,8 @@ public class ApiKeyFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private static boolean isProtectedActuatorPath(final String path) {
+        return PROTECTED_ACTUATOR_PATHS.stream().anyMatch(path::startsWith);
+    }
 }
\ No newline at end of file
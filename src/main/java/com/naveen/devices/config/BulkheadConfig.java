@@ -0,0 +1,109 @@
+package com.naveen.devices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Read/write connection bulkheads and the database circuit breaker
+ * ({@code devices.bulkhead.*}, {@code devices.circuit-breaker.*}). Unless configured, the
+ * permits follow the connection pool: reads may use all of it, writes three fifths. An
+ * explicit {@code write-permits} must stay below the pool size so reads always find a free
+ * connection; startup fails otherwise.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            final EntityManagerFactory entityManagerFactory,
+            final ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        final BulkheadJpaTransactionManager transactionManager = new BulkheadJpaTransactionManager(entityManagerFactory);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor() {
+        return new BulkheadDataSourcePostProcessor();
+    }
+
+    /**
+     * Wraps inside the {@link DeadlineDataSource}, so an expired request never waits for a permit.
+     */
+    static class BulkheadDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware, Ordered {
+
+        /**
+         * Hikari's default, for data sources that are not a Hikari pool.
+         */
+        static final int DEFAULT_POOL_SIZE = 10;
+
+        private Environment environment;
+
+        @Override
+        public void setEnvironment(final Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource
+                    || bean instanceof DeadlineDataSource) {
+                return bean;
+            }
+            final boolean bulkhead = environment.getProperty("devices.bulkhead.enabled", Boolean.class, true);
+            final boolean breaker = environment.getProperty("devices.circuit-breaker.enabled", Boolean.class, true);
+            final int poolSize = bulkhead ? poolSize(dataSource) : Integer.MAX_VALUE;
+            final int writePermits = bulkhead
+                    ? environment.getProperty("devices.bulkhead.write-permits", Integer.class, defaultWritePermits(poolSize))
+                    : Integer.MAX_VALUE;
+            if (bulkhead && writePermits >= poolSize) {
+                throw new IllegalStateException("devices.bulkhead.write-permits (" + writePermits
+                        + ") must be below the connection pool size (" + poolSize + ")");
+            }
+            return new BulkheadDataSource(dataSource,
+                    bulkhead ? environment.getProperty("devices.bulkhead.read-permits", Integer.class, poolSize) : Integer.MAX_VALUE,
+                    writePermits,
+                    environment.getProperty("devices.bulkhead.acquire-timeout-ms", Long.class, 1000L),
+                    new DatabaseCircuitBreaker(
+                            breaker ? environment.getProperty("devices.circuit-breaker.failure-threshold", Integer.class, 5)
+                                    : Integer.MAX_VALUE,
+                            environment.getProperty("devices.circuit-breaker.open-ms", Long.class, 5000L)));
+        }
+
+        /**
+         * Size of the Hikari pool behind {@code dataSource}; with sharding, of the first shard's,
+         * which all share {@code devices.sharding.pool-size}.
+         */
+        static int poolSize(final DataSource dataSource) {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot determine the connection pool size", e);
+            }
+            return DEFAULT_POOL_SIZE;
+        }
+
+        static int defaultWritePermits(final int poolSize) {
+            return Math.max(1, poolSize * 3 / 5);
+        }
+    }
+}
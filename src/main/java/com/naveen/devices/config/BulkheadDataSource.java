@@ -0,0 +1,195 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.repository.RequestDeadline;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.OptionalLong;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits the connections in use into a read and a write partition, so slow bulk writes
+ * holding every write permit cannot keep cheap reads from a connection. A connection is
+ * counted against the read partition when it is taken for a read-only transaction; anything
+ * else, including background jobs, uses the write partition. A full partition fails after
+ * {@code acquire-timeout-ms} (or the request deadline, if sooner) instead of queueing.
+ * A thread that already holds a permit takes further connections, such as the one of a
+ * {@code REQUIRES_NEW} transaction nested in its own, without another: waiting for a second
+ * permit while holding the first deadlocks once every permit is held that way.
+ * Failures of the pool itself feed a {@link DatabaseCircuitBreaker}; while it is open no
+ * connection is requested at all.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    static final String CIRCUIT_OPEN_MESSAGE = "Database circuit open";
+
+    enum Lane { READ, WRITE }
+
+    private static final ThreadLocal<Lane> LANE = new ThreadLocal<>();
+    private static final ThreadLocal<AtomicInteger> HELD = ThreadLocal.withInitial(AtomicInteger::new);
+
+    private final Semaphore readPermits;
+    private final Semaphore writePermits;
+    private final long acquireTimeoutMs;
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    BulkheadDataSource(final DataSource target, final int readPermits, final int writePermits,
+                       final long acquireTimeoutMs, final DatabaseCircuitBreaker circuitBreaker) {
+        super(target);
+        this.readPermits = new Semaphore(readPermits);
+        this.writePermits = new Semaphore(writePermits);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Runs {@code work}, typically a transaction begin, with connections counted against
+     * {@code lane}. Needed where the connection is taken before the transaction's read-only
+     * flag is exposed to the thread.
+     */
+    static void runInLane(final Lane lane, final Runnable work) {
+        final Lane previous = LANE.get();
+        LANE.set(lane);
+        try {
+            work.run();
+        } finally {
+            if (previous == null) {
+                LANE.remove();
+            } else {
+                LANE.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final AtomicInteger held = HELD.get();
+        final Semaphore permits;
+        if (held.get() > 0) {
+            permits = null;
+        } else {
+            final Lane lane = currentLane();
+            permits = lane == Lane.READ ? readPermits : writePermits;
+            acquire(lane, permits);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            release(permits);
+            throw new SQLTransientConnectionException(CIRCUIT_OPEN_MESSAGE);
+        }
+        final Connection connection;
+        try {
+            connection = super.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            release(permits);
+            circuitBreaker.onFailure();
+            throw e;
+        }
+        circuitBreaker.onSuccess();
+        if (permits != null) {
+            held.incrementAndGet();
+        }
+        return (Connection) Proxy.newProxyInstance(BulkheadDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new PermitReleasingHandler(connection, permits, held));
+    }
+
+    int availablePermits(final Lane lane) {
+        return (lane == Lane.READ ? readPermits : writePermits).availablePermits();
+    }
+
+    DatabaseCircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private void acquire(final Lane lane, final Semaphore permits) throws SQLException {
+        final OptionalLong remaining = RequestDeadline.remainingMillis();
+        final long waitMs = remaining.isPresent()
+                ? Math.max(0, Math.min(acquireTimeoutMs, remaining.getAsLong()))
+                : acquireTimeoutMs;
+        try {
+            if (!permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No " + lane.name().toLowerCase()
+                        + " connection available within " + waitMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a connection", e);
+        }
+    }
+
+    private static void release(final Semaphore permits) {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    private static Lane currentLane() {
+        final Lane lane = LANE.get();
+        if (lane != null) {
+            return lane;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Lane.READ : Lane.WRITE;
+    }
+
+    private static final class PermitReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final Semaphore permits;
+        private final AtomicInteger held;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * @param permits where to return the permit on close, {@code null} for a connection
+         *                taken under a permit the thread already held
+         * @param held    permits held by the thread that took the connection, which may not be
+         *                the one closing it
+         */
+        private PermitReleasingHandler(final Connection target, final Semaphore permits, final AtomicInteger held) {
+            this.target = target;
+            this.permits = permits;
+            this.held = held;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if ("close".equals(method.getName()) && permits != null && released.compareAndSet(false, true)) {
+                    held.decrementAndGet();
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.naveen.devices.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Hibernate takes its connection while the transaction begins, before Spring exposes the
+ * read-only flag to the thread, so the {@link BulkheadDataSource} partition is chosen from the
+ * transaction definition here.
+ */
+public class BulkheadJpaTransactionManager extends JpaTransactionManager {
+
+    public BulkheadJpaTransactionManager(final EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+        BulkheadDataSource.runInLane(definition.isReadOnly() ? BulkheadDataSource.Lane.READ : BulkheadDataSource.Lane.WRITE,
+                () -> super.doBegin(transaction, definition));
+    }
+}
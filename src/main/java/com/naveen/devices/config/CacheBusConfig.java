@@ -0,0 +1,37 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.repository.CacheInvalidationRepository;
+import com.naveen.devices.service.CacheInvalidationBus;
+import com.naveen.devices.service.InMemoryCacheInvalidationBus;
+import com.naveen.devices.service.JdbcCacheInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the {@link CacheInvalidationBus} by {@code devices.cache-bus.type}: {@code jdbc}
+ * (default) polls a table in the shared database, {@code in-memory} only reaches buses in the
+ * same JVM. The bus stays idle unless {@code devices.cache-bus.enabled} subscribes to it.
+ */
+@Configuration
+public class CacheBusConfig {
+
+    static final String TYPE_PROPERTY = "devices.cache-bus.type";
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = TYPE_PROPERTY, havingValue = "jdbc", matchIfMissing = true)
+    public JdbcCacheInvalidationBus jdbcCacheInvalidationBus(
+            final CacheInvalidationRepository repository,
+            @Value("${devices.cache-bus.poll-interval-ms:500}") final long pollIntervalMs,
+            @Value("${devices.cache-bus.commit-lag-ms:1000}") final long commitLagMs,
+            @Value("${devices.cache-bus.retention-ms:600000}") final long retentionMs) {
+        return new JdbcCacheInvalidationBus(repository, pollIntervalMs, commitLagMs, retentionMs);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = TYPE_PROPERTY, havingValue = "in-memory")
+    public InMemoryCacheInvalidationBus inMemoryCacheInvalidationBus() {
+        return new InMemoryCacheInvalidationBus();
+    }
+}
@@ -0,0 +1,114 @@
+package com.naveen.devices.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds {@code /api} requests beyond an {@link AdaptiveConcurrencyLimiter adaptive limit}
+ * with {@code 503} and {@code Retry-After}, instead of letting them queue in Tomcat while
+ * the database is slow. Reads ({@code GET}/{@code HEAD} and the batch lookup) and writes have
+ * separate limits so a burst of one cannot starve the other. Limits, in-flight requests and rejections are
+ * exported as {@code devices.concurrency.*}; shed requests get a problem body and also count as
+ * {@code unavailable} in {@value GlobalExceptionHandler#ERRORS_METRIC}.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_METRIC = "devices.concurrency.limit";
+    static final String IN_FLIGHT_METRIC = "devices.concurrency.in-flight";
+    static final String REJECTED_METRIC = "devices.concurrency.rejected";
+    static final String LOOKUP_PATH = "/api/devices/lookup";
+    static final String OVERLOADED_DETAIL = "Server overloaded, retry later";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final Counter readsRejected;
+    private final Counter writesRejected;
+    private final Counter unavailable;
+
+    public ConcurrencyLimitFilter(final MeterRegistry meterRegistry,
+                                  final ObjectMapper objectMapper,
+                                  @Value("${devices.concurrency-limit.enabled:true}") final boolean enabled,
+                                  @Value("${devices.concurrency-limit.min-limit:4}") final int minLimit,
+                                  @Value("${devices.concurrency-limit.read.initial-limit:50}") final int readInitialLimit,
+                                  @Value("${devices.concurrency-limit.read.max-limit:500}") final int readMaxLimit,
+                                  @Value("${devices.concurrency-limit.write.initial-limit:20}") final int writeInitialLimit,
+                                  @Value("${devices.concurrency-limit.write.max-limit:200}") final int writeMaxLimit,
+                                  @Value("${devices.concurrency-limit.retry-after-seconds:1}") final int retryAfterSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+        this.reads = new AdaptiveConcurrencyLimiter(readInitialLimit, minLimit, readMaxLimit);
+        this.writes = new AdaptiveConcurrencyLimiter(writeInitialLimit, minLimit, writeMaxLimit);
+        this.readsRejected = register(meterRegistry, "read", reads);
+        this.writesRejected = register(meterRegistry, "write", writes);
+        this.unavailable = GlobalExceptionHandler.errorCounter(meterRegistry, "unavailable");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final boolean read = isRead(request);
+        final AdaptiveConcurrencyLimiter limiter = read ? reads : writes;
+
+        if (!limiter.tryAcquire()) {
+            (read ? readsRejected : writesRejected).increment();
+            unavailable.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            ProblemResponses.write(response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE, OVERLOADED_DETAIL);
+            return;
+        }
+
+        final long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - started);
+        }
+    }
+
+    static boolean isRead(final HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                || LOOKUP_PATH.equals(request.getRequestURI());
+    }
+
+    private static Counter register(final MeterRegistry meterRegistry, final String type,
+                                    final AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder(LIMIT_METRIC, limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests currently admitted")
+                .tag("type", type)
+                .register(meterRegistry);
+        return Counter.builder(REJECTED_METRIC)
+                .description("Requests shed with 503 because the concurrency limit was reached")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
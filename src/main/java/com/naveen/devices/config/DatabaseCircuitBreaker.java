@@ -0,0 +1,87 @@
+package com.naveen.devices.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Opens after {@code failureThreshold} consecutive failures to obtain a connection and then
+ * refuses every attempt for {@code openMs}, so requests fail fast instead of each waiting out
+ * the pool timeout against a database that is down or saturated. After that one probe per
+ * {@code openMs} is let through; its success closes the breaker, its failure keeps it open.
+ */
+@Slf4j
+class DatabaseCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long probeStartedAt;
+
+    DatabaseCircuitBreaker(final int failureThreshold, final long openMs) {
+        this(failureThreshold, openMs, System::nanoTime);
+    }
+
+    DatabaseCircuitBreaker(final int failureThreshold, final long openMs, final LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return whether a connection may be requested; the outcome must be reported to
+     * {@link #onSuccess()} or {@link #onFailure()}
+     */
+    synchronized boolean tryAcquire() {
+        final long now = nanoClock.getAsLong();
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (now - openedAt < openNanos) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                probeStartedAt = now;
+                yield true;
+            }
+            case HALF_OPEN -> {
+                // a probe that never reported back must not keep the breaker shut for good
+                if (now - probeStartedAt < openNanos) {
+                    yield false;
+                }
+                probeStartedAt = now;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            log.info("Database circuit closed");
+            state = State.CLOSED;
+        }
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("Database circuit opened after {} consecutive connection failures", consecutiveFailures);
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,99 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.repository.RequestDeadline;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.OptionalLong;
+
+/**
+ * Applies the {@link RequestDeadline} to every statement, transactional or not, whether
+ * issued by Hibernate or a {@code JdbcTemplate}: each statement gets the remaining time as
+ * its query timeout, so the driver cancels it on the server once the client has given up.
+ * Once the deadline has passed no connection is handed out and no statement is created.
+ * Hibernate and Spring only ever lower a timeout set here, from a transaction timeout.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    static final String EXPIRED_MESSAGE = "Request deadline exceeded";
+
+    public DeadlineDataSource(final DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(final Connection connection) throws SQLException {
+        if (RequestDeadline.isExpired()) {
+            // waited too long for the pool; give the connection straight back
+            connection.close();
+            throw new SQLTimeoutException(EXPIRED_MESSAGE);
+        }
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new StatementTimeoutHandler(connection));
+    }
+
+    private record StatementTimeoutHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            final Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (result instanceof Statement statement) {
+                applyTimeout(statement);
+            }
+            return result;
+        }
+
+        private static void applyTimeout(final Statement statement) throws SQLException {
+            final OptionalLong remaining = RequestDeadline.remainingMillis();
+            if (remaining.isEmpty()) {
+                return;
+            }
+            if (remaining.getAsLong() <= 0) {
+                statement.close();
+                throw new SQLTimeoutException(EXPIRED_MESSAGE);
+            }
+            // JDBC timeouts are whole seconds; round up so a short deadline is not 0 = unlimited
+            statement.setQueryTimeout((int) Math.ceilDiv(remaining.getAsLong(), 1000L));
+        }
+    }
+}
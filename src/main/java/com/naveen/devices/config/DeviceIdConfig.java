@@ -0,0 +1,30 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.domain.DeviceIdGenerator;
+import com.naveen.devices.domain.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * Device ids are generated in the application rather than by an IDENTITY column, so inserts
+ * can be batched. The generator bean is shared by Hibernate and the JDBC batch writers;
+ * {@code devices.id.node-id} must differ between instances sharing a database. The prod and
+ * reactive profiles blank it, so those instances refuse to start until it is set for each.
+ */
+@Configuration
+public class DeviceIdConfig {
+
+    static final String NODE_ID_PROPERTY = "devices.id.node-id";
+
+    @Bean
+    public DeviceIdGenerator deviceIdGenerator(@Value("${" + NODE_ID_PROPERTY + ":0}") final String nodeId) {
+        if (nodeId.isBlank()) {
+            throw new IllegalStateException(NODE_ID_PROPERTY + " must be set, to a different value (0-"
+                    + SnowflakeIdGenerator.MAX_NODE_ID + ") on every instance sharing a database");
+        }
+        return new SnowflakeIdGenerator(Integer.parseInt(nodeId.trim()), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,65 @@
+package com.naveen.devices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool from the available cores unless a size is configured explicitly.
+ * With virtual threads enabled Tomcat no longer caps request concurrency, so the pool is
+ * the real limit and is kept at a fixed size to avoid connection churn under bursts.
+ */
+@Slf4j
+@Component
+@Profile("prod")
+public class HikariPoolCustomizer implements BeanPostProcessor, EnvironmentAware, Ordered {
+
+    static final String MAX_POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+    static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(final Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Before {@link DeadlineDataSourcePostProcessor} hides the pool behind a wrapper.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            customize(dataSource, Runtime.getRuntime().availableProcessors());
+        }
+        return bean;
+    }
+
+    void customize(final HikariDataSource dataSource, final int cores) {
+        if (!environment.containsProperty(MAX_POOL_SIZE_PROPERTY)) {
+            dataSource.setMaximumPoolSize(poolSizeFor(cores));
+        }
+        if (environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false)) {
+            dataSource.setMinimumIdle(dataSource.getMaximumPoolSize());
+        }
+        log.info("Hikari pool '{}' sized to {} connections (min idle {})",
+                dataSource.getPoolName(), dataSource.getMaximumPoolSize(), dataSource.getMinimumIdle());
+    }
+
+    /**
+     * HikariCP's guideline of {@code cores * 2 + 1} connections for a single SSD-backed database.
+     */
+    static int poolSizeFor(final int cores) {
+        return cores * 2 + 1;
+    }
+}
@@ -0,0 +1,41 @@
+package com.naveen.devices.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks OpenAPI/springdoc beans lazy so documentation scanning is paid on the first
+ * {@code /v3/api-docs} or Swagger UI hit instead of during startup.
+ */
+@Component
+@Profile("fast-startup")
+public class LazyDocsBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+    private static final String OPEN_API_CONFIG_BEAN = "openApiConfig";
+
+    @Override
+    public void postProcessBeanFactory(final ConfigurableListableBeanFactory beanFactory) {
+        for (final String beanName : beanFactory.getBeanDefinitionNames()) {
+            final BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (isDocumentationBean(definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    static boolean isDocumentationBean(final BeanDefinition definition) {
+        return isDocumentationType(definition.getBeanClassName())
+                || isDocumentationType(definition.getFactoryBeanName());
+    }
+
+    private static boolean isDocumentationType(final String name) {
+        return name != null
+                && (name.startsWith(SPRINGDOC_PACKAGE)
+                || name.equals(OpenApiConfig.class.getName())
+                || name.equals(OPEN_API_CONFIG_BEAN));
+    }
+}
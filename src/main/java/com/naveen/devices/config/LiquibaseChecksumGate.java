@@ -0,0 +1,135 @@
+package com.naveen.devices.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Skips the Liquibase run entirely when the changelog files hash to the fingerprint recorded
+ * after the last successful migration. Liquibase would find nothing to apply anyway, but only
+ * after taking its lock and reading every changeset, which is a noticeable part of cold start.
+ */
+@Slf4j
+@Component
+@Profile("fast-startup")
+public class LiquibaseChecksumGate implements BeanPostProcessor, EnvironmentAware {
+
+    static final String CHANGELOG_PATTERN = "classpath*:db/changelog/**/*.y*ml";
+    private static final String CHANGELOG_ROOT = "db/changelog/";
+    private static final String SELECT_FINGERPRINT = "select fingerprint from schema_fingerprint where id = 1";
+    private static final String UPDATE_FINGERPRINT = "update schema_fingerprint set fingerprint = ?, applied_at = ? where id = 1";
+    private static final String INSERT_FINGERPRINT = "insert into schema_fingerprint (id, fingerprint, applied_at) values (1, ?, ?)";
+
+    static final String LIQUIBASE_ENABLED_PROPERTY = "spring.liquibase.enabled";
+
+    private Environment environment;
+    private String pendingFingerprint;
+
+    @Override
+    public void setEnvironment(final Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+        if (bean instanceof SpringLiquibase liquibase && liquibaseEnabled()) {
+            final String fingerprint = changelogFingerprint();
+            if (fingerprint.equals(storedFingerprint(liquibase.getDataSource()))) {
+                log.info("Changelog fingerprint {} unchanged, skipping Liquibase", fingerprint);
+                liquibase.setShouldRun(false);
+            } else {
+                pendingFingerprint = fingerprint;
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof SpringLiquibase liquibase && pendingFingerprint != null) {
+            storeFingerprint(new JdbcTemplate(liquibase.getDataSource()), pendingFingerprint);
+            pendingFingerprint = null;
+        }
+        return bean;
+    }
+
+    private boolean liquibaseEnabled() {
+        return environment.getProperty(LIQUIBASE_ENABLED_PROPERTY, Boolean.class, true);
+    }
+
+    static String changelogFingerprint() {
+        try {
+            final Resource[] resources = new PathMatchingResourcePatternResolver().getResources(CHANGELOG_PATTERN);
+            final List<Resource> sorted = Arrays.stream(resources)
+                    .sorted(Comparator.comparing(LiquibaseChecksumGate::relativePath))
+                    .toList();
+
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (final Resource resource : sorted) {
+                digest.update(relativePath(resource).getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = resource.getInputStream()) {
+                    digest.update(in.readAllBytes());
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read Liquibase changelogs", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String relativePath(final Resource resource) {
+        final String description = resource.getDescription();
+        final int rootIndex = description.lastIndexOf(CHANGELOG_ROOT);
+        return rootIndex < 0 ? description : description.substring(rootIndex);
+    }
+
+    private static String storedFingerprint(final DataSource dataSource) {
+        try {
+            return new JdbcTemplate(dataSource).queryForList(SELECT_FINGERPRINT, String.class)
+                    .stream()
+                    .findFirst()
+                    .orElse(null);
+        } catch (DataAccessException e) {
+            // First start on an empty schema: the fingerprint table does not exist yet
+            log.debug("No stored changelog fingerprint: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    static void storeFingerprint(final JdbcTemplate jdbcTemplate, final String fingerprint) {
+        final Timestamp now = Timestamp.from(Instant.now());
+        if (jdbcTemplate.update(UPDATE_FINGERPRINT, fingerprint, now) == 0) {
+            try {
+                jdbcTemplate.update(INSERT_FINGERPRINT, fingerprint, now);
+            } catch (DuplicateKeyException e) {
+                // Another instance migrating the same schema inserted the row first
+                jdbcTemplate.update(UPDATE_FINGERPRINT, fingerprint, now);
+            }
+        }
+    }
+}
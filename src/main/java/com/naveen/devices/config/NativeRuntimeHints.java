@@ -0,0 +1,39 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.domain.DeviceIdentifierGenerator;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.dto.PurgeJobRequest;
+import com.naveen.devices.dto.StateChangeJobRequest;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.Connection;
+
+/**
+ * What a native image needs beyond the hints Spring AOT and the GraalVM reachability metadata
+ * already contribute. Only what happens outside Spring's view is listed: the Ehcache config
+ * file, Hibernate creating the id generator and {@code select new} projections, bulk job
+ * parameters read back from JSON, and the JDK {@link Connection} proxies of the deadline and
+ * bulkhead data sources. Controller bodies, entities, Spring Data repositories, the Liquibase
+ * changelogs, springdoc and the injected fields of filters such as {@link ApiKeyFilter} are
+ * covered by AOT; Lombok output is plain bytecode and needs nothing.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final String EHCACHE_CONFIG = "ehcache.xml";
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(final RuntimeHints hints, final ClassLoader classLoader) {
+        hints.resources().registerPattern(EHCACHE_CONFIG);
+
+        hints.reflection().registerType(DeviceIdentifierGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(DeviceResponse.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        bindingHints.registerReflectionHints(hints.reflection(), StateChangeJobRequest.class, PurgeJobRequest.class);
+
+        hints.proxies().registerJdkProxy(Connection.class);
+    }
+}
@@ -0,0 +1,27 @@
+package com.naveen.devices.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.exception.GlobalExceptionHandler;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+
+import java.io.IOException;
+
+/**
+ * Writes the RFC 7807 bodies {@link GlobalExceptionHandler} would return for responses that
+ * filters send before a request reaches a controller.
+ */
+final class ProblemResponses {
+
+    private ProblemResponses() {
+    }
+
+    static void write(final HttpServletResponse response, final ObjectMapper objectMapper,
+                      final HttpStatus status, final String detail) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ProblemDetail.forStatusAndDetail(status, detail));
+    }
+}
@@ -0,0 +1,118 @@
+package com.naveen.devices.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.exception.GlobalExceptionHandler;
+import com.naveen.devices.repository.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds a {@link RequestDeadline} for {@code /api} requests from {@code X-Request-Timeout}
+ * (milliseconds from now) or {@code X-Request-Deadline} (epoch milliseconds), capped at
+ * {@code devices.deadline.max-timeout-ms}; without either header
+ * {@code devices.deadline.default-timeout-ms} applies, 0 meaning none. A request whose
+ * deadline passed while it was queued is answered {@code 504} without touching the database.
+ * Both that and a malformed header get a problem body and count in
+ * {@value GlobalExceptionHandler#ERRORS_METRIC}.
+ */
+@Slf4j
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    static final String DEADLINE_HEADER = "X-Request-Deadline";
+
+    private final ObjectMapper objectMapper;
+    private final long defaultTimeoutMs;
+    private final long maxTimeoutMs;
+    private final Counter badRequestCounter;
+    private final Counter deadlineCounter;
+
+    public RequestDeadlineFilter(final MeterRegistry meterRegistry,
+                                 final ObjectMapper objectMapper,
+                                 @Value("${devices.deadline.default-timeout-ms:0}") final long defaultTimeoutMs,
+                                 @Value("${devices.deadline.max-timeout-ms:30000}") final long maxTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.badRequestCounter = GlobalExceptionHandler.errorCounter(meterRegistry, "bad_request");
+        this.deadlineCounter = GlobalExceptionHandler.errorCounter(meterRegistry, "deadline");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final long timeoutMs;
+        try {
+            timeoutMs = timeoutMs(request);
+        } catch (IllegalArgumentException e) {
+            badRequestCounter.increment();
+            ProblemResponses.write(response, objectMapper, HttpStatus.BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (timeoutMs == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (timeoutMs < 0) {
+            log.debug("Dropping request past its deadline: {}", request.getRequestURI());
+            deadlineCounter.increment();
+            ProblemResponses.write(response, objectMapper, HttpStatus.GATEWAY_TIMEOUT,
+                    GlobalExceptionHandler.DEADLINE_DETAIL);
+            return;
+        }
+
+        RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(timeoutMs, maxTimeoutMs)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    /**
+     * @return milliseconds left, 0 for no deadline, negative when already past
+     */
+    private long timeoutMs(final HttpServletRequest request) {
+        final String timeout = request.getHeader(TIMEOUT_HEADER);
+        if (timeout != null) {
+            final long value = parse(TIMEOUT_HEADER, timeout);
+            if (value <= 0) {
+                throw new IllegalArgumentException(TIMEOUT_HEADER + " must be positive");
+            }
+            return value;
+        }
+        final String deadline = request.getHeader(DEADLINE_HEADER);
+        if (deadline != null) {
+            final long remaining = parse(DEADLINE_HEADER, deadline) - System.currentTimeMillis();
+            return remaining > 0 ? remaining : -1;
+        }
+        return defaultTimeoutMs;
+    }
+
+    private static long parse(final String header, final String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(header + " must be a number of milliseconds");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.repository.ShardContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Picks the shard from {@link ShardContext}; connections taken with no shard bound go to
+ * shard 0, which also holds the tables that are not partitioned.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,29 @@
+package com.naveen.devices.config;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Applies the changelog to every shard in turn, so all shards share one schema.
+ */
+class ShardedSpringLiquibase extends SpringLiquibase {
+
+    private final List<? extends DataSource> shards;
+
+    ShardedSpringLiquibase(final List<? extends DataSource> shards) {
+        this.shards = shards;
+        setDataSource(shards.get(0));
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        for (final DataSource shard : shards) {
+            setDataSource(shard);
+            super.afterPropertiesSet();
+        }
+        setDataSource(shards.get(0));
+    }
+}
@@ -0,0 +1,141 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.repository.DeviceShardRouter;
+import com.naveen.devices.repository.ShardIdAllocator;
+import com.naveen.devices.repository.ShardedDeviceRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional horizontal partitioning of {@code devices} ({@code devices.sharding.enabled}).
+ * Each URL in {@code devices.sharding.urls} is a shard with the full schema; the application
+ * sees one data source that routes every connection to the shard bound in
+ * {@link com.naveen.devices.repository.ShardContext}. The routing source hands out connections
+ * lazily so a transaction can be routed by the device id it is about to touch.
+ *
+ * <p>Only the device endpoints and their history are shard-aware. The snapshot, membership
+ * index, write-behind, archiver, sync, CSV import, bulk jobs and claims assume a single
+ * database and must be disabled.
+ */
+@Configuration
+public class ShardingConfig {
+
+    static final String ENABLED_PROPERTY = "devices.sharding.enabled";
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED_PROPERTY, havingValue = "false", matchIfMissing = true)
+    public DeviceShardRouter deviceShardRouter() {
+        return DeviceShardRouter.SINGLE;
+    }
+
+    @Slf4j
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = ENABLED_PROPERTY, havingValue = "true")
+    static class Sharded {
+
+        @Bean(destroyMethod = "close")
+        ShardDataSources shardDataSources(@Value("${devices.sharding.urls}") final List<String> urls,
+                                          @Value("${devices.sharding.username:}") final String username,
+                                          @Value("${devices.sharding.password:}") final String password,
+                                          @Value("${devices.sharding.pool-size:10}") final int poolSize,
+                                          @Value("${devices.snapshot.enabled:false}") final boolean snapshot,
+                                          @Value("${devices.write-behind.enabled:false}") final boolean writeBehind,
+                                          @Value("${devices.archive.enabled:false}") final boolean archive,
+                                          @Value("${devices.membership-index.enabled:false}") final boolean membershipIndex,
+                                          @Value("${devices.import.enabled:true}") final boolean csvImport,
+                                          @Value("${devices.jobs.enabled:true}") final boolean jobs,
+                                          @Value("${devices.claim.enabled:true}") final boolean claim,
+                                          @Value("${devices.sync.enabled:true}") final boolean sync) {
+            if (snapshot || writeBehind || archive || membershipIndex) {
+                throw new IllegalStateException("devices.snapshot, devices.write-behind, devices.archive and"
+                        + " devices.membership-index are not supported with " + ENABLED_PROPERTY);
+            }
+            if (csvImport || jobs || claim || sync) {
+                // these read, write or lock through shard 0 only: devices written would not be found
+                // by id, and sync would hand out an incomplete replica
+                throw new IllegalStateException("devices.import, devices.jobs, devices.claim and devices.sync"
+                        + " must be disabled with " + ENABLED_PROPERTY);
+            }
+            final List<HikariDataSource> shards = new ArrayList<>(urls.size());
+            for (int i = 0; i < urls.size(); i++) {
+                final HikariDataSource shard = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(urls.get(i))
+                        .username(username)
+                        .password(password)
+                        .build();
+                shard.setPoolName("shard-" + i);
+                shard.setMaximumPoolSize(poolSize);
+                shards.add(shard);
+            }
+            log.info("Devices sharded across {} databases", shards.size());
+            return new ShardDataSources(List.copyOf(shards));
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(final ShardDataSources shardDataSources) {
+            final ShardRoutingDataSource routing = new ShardRoutingDataSource();
+            final Map<Object, Object> targets = new HashMap<>();
+            for (int i = 0; i < shardDataSources.shards().size(); i++) {
+                targets.put(i, shardDataSources.shards().get(i));
+            }
+            routing.setTargetDataSources(targets);
+            routing.setDefaultTargetDataSource(shardDataSources.shards().get(0));
+            routing.afterPropertiesSet();
+            return new LazyConnectionDataSourceProxy(routing);
+        }
+
+        @Bean
+        SpringLiquibase liquibase(final ShardDataSources shardDataSources,
+                                  @Value("${spring.liquibase.change-log:classpath:db/changelog/db.changelog-master.yaml}")
+                                  final String changeLog,
+                                  @Value("${spring.liquibase.enabled:true}") final boolean enabled) {
+            final SpringLiquibase liquibase = new ShardedSpringLiquibase(shardDataSources.shards());
+            liquibase.setChangeLog(changeLog);
+            liquibase.setShouldRun(enabled);
+            return liquibase;
+        }
+
+        /**
+         * Query cache keys do not include the shard, so a cached list from one shard would be
+         * served for all of them.
+         */
+        @Bean
+        HibernatePropertiesCustomizer shardedHibernateProperties() {
+            return properties -> properties.put("hibernate.cache.use_query_cache", false);
+        }
+
+        @Bean
+        DeviceShardRouter deviceShardRouter(final ShardDataSources shardDataSources,
+                                            final PlatformTransactionManager transactionManager,
+                                            @Value("${devices.sharding.id-block-size:100}") final int idBlockSize) {
+            return new ShardedDeviceRouter(shardDataSources.shards().size(),
+                    new ShardIdAllocator(shardDataSources.shards(), idBlockSize), transactionManager);
+        }
+    }
+
+    record ShardDataSources(List<HikariDataSource> shards) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            shards.forEach(HikariDataSource::close);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.naveen.devices.controller;
+
+import com.naveen.devices.dto.BulkJobResponse;
+import com.naveen.devices.dto.PurgeJobRequest;
+import com.naveen.devices.dto.StateChangeJobRequest;
+import com.naveen.devices.service.BulkJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Bulk jobs", description = "Long-running bulk operations on devices")
+public class BulkJobController {
+
+    private final BulkJobService bulkJobService;
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Start a bulk CSV import",
+            description = "Same CSV format as /api/devices/import; the file is spooled and imported in the background")
+    @ApiResponse(responseCode = "202", description = "Job accepted")
+    public ResponseEntity<BulkJobResponse> submitImport(final InputStream body) {
+        return accepted(bulkJobService.submitImport(body));
+    }
+
+    @PostMapping("/state-change")
+    @Operation(summary = "Start a mass state change")
+    @ApiResponse(responseCode = "202", description = "Job accepted")
+    @ApiResponse(responseCode = "400", description = "Invalid request")
+    public ResponseEntity<BulkJobResponse> submitStateChange(@RequestBody final StateChangeJobRequest request) {
+        return accepted(bulkJobService.submitStateChange(request));
+    }
+
+    @PostMapping("/purge")
+    @Operation(summary = "Start a purge of devices in a state")
+    @ApiResponse(responseCode = "202", description = "Job accepted")
+    @ApiResponse(responseCode = "400", description = "Invalid request")
+    public ResponseEntity<BulkJobResponse> submitPurge(@RequestBody final PurgeJobRequest request) {
+        return accepted(bulkJobService.submitPurge(request));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get the status and progress of a job")
+    @ApiResponse(responseCode = "200", description = "Job retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Job not found")
+    public ResponseEntity<BulkJobResponse> getJob(@PathVariable final String id) {
+        return ResponseEntity.ok(bulkJobService.getJob(id));
+    }
+
+    private static ResponseEntity<BulkJobResponse> accepted(final BulkJobResponse job) {
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.id())).body(job);
+    }
+}
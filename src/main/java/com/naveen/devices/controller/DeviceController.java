@@ -1,19 +1,35 @@
 package com.naveen.devices.controller;
 
 import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceClaimRequest;
+import com.naveen.devices.dto.DeviceCountResponse;
+import com.naveen.devices.dto.DeviceHistoryPage;
+import com.naveen.devices.dto.DeviceImportResult;
+import com.naveen.devices.dto.DeviceLookupRequest;
+import com.naveen.devices.dto.DeviceLookupResponse;
 import com.naveen.devices.dto.DeviceRequest;
 import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.dto.DeviceSyncResponse;
 import com.naveen.devices.converter.DeviceConverter;
+import com.naveen.devices.service.DeviceHistoryService;
+import com.naveen.devices.service.DeviceImportService;
 import com.naveen.devices.service.DeviceService;
+import com.naveen.devices.service.DeviceSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +40,9 @@ public class DeviceController {
 
     private final DeviceService deviceService;
     private final DeviceConverter deviceConverter;
+    private final DeviceHistoryService deviceHistoryService;
+    private final DeviceSyncService deviceSyncService;
+    private final DeviceImportService deviceImportService;
 
     @PostMapping
     @Operation(summary = "Create a new device")
@@ -35,6 +54,26 @@ public class DeviceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Bulk import devices from a CSV request body",
+            description = "Header row with name, brand and state columns; the body is streamed, not buffered")
+    @ApiResponse(responseCode = "200", description = "Import finished; rejected rows are listed in errors")
+    @ApiResponse(responseCode = "400", description = "Missing or invalid header")
+    public ResponseEntity<DeviceImportResult> importDevices(final InputStream body) {
+        return ResponseEntity.ok(deviceImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Bulk import devices from an uploaded CSV file")
+    @ApiResponse(responseCode = "200", description = "Import finished; rejected rows are listed in errors")
+    @ApiResponse(responseCode = "400", description = "Missing or invalid header")
+    public ResponseEntity<DeviceImportResult> importDevicesFile(@RequestParam("file") final MultipartFile file)
+            throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(deviceImportService.importCsv(input));
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing device")
     @ApiResponse(responseCode = "200", description = "Device updated successfully")
@@ -52,41 +91,97 @@ public class DeviceController {
     @ApiResponse(responseCode = "200", description = "Device retrieved successfully")
     @ApiResponse(responseCode = "404", description = "Device not found")
     public ResponseEntity<DeviceResponse> getDevice(@PathVariable Long id) {
-        final DeviceResponse response = deviceConverter.toResponse(deviceService.getDevice(id));
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(deviceService.getDevice(id));
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Get many devices by ID in one call",
+            description = "Up to 1000 ids; devices come back in request order and unknown ids are listed in missing")
+    @ApiResponse(responseCode = "200", description = "Devices retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "No ids, too many ids or a null id")
+    public ResponseEntity<DeviceLookupResponse> lookupDevices(@RequestBody final DeviceLookupRequest request) {
+        return ResponseEntity.ok(deviceService.lookupDevices(request.ids()));
+    }
+
+    @PostMapping("/claim")
+    @Operation(summary = "Claim available devices",
+            description = "Atomically moves up to count (default 1, at most 100) AVAILABLE devices, optionally of one"
+                    + " brand, to IN_USE; concurrent claims never get the same device. Fewer or none come back when"
+                    + " fewer are free")
+    @ApiResponse(responseCode = "200", description = "Devices claimed")
+    @ApiResponse(responseCode = "400", description = "Invalid count")
+    public ResponseEntity<List<DeviceResponse>> claimDevices(
+            @RequestBody(required = false) final DeviceClaimRequest request) {
+        return ResponseEntity.ok(request == null
+                ? deviceService.claimDevices(null, null)
+                : deviceService.claimDevices(request.brand(), request.count()));
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get the state change history of a device, newest first")
+    @ApiResponse(responseCode = "200", description = "History retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid page or size")
+    public ResponseEntity<DeviceHistoryPage> getDeviceHistory(
+            @PathVariable final Long id,
+            @RequestParam(defaultValue = "0") final int page,
+            @RequestParam(defaultValue = "50") final int size) {
+        return ResponseEntity.ok(deviceHistoryService.getHistory(id, page, size));
     }
 
     @GetMapping
     @Operation(summary = "Get all devices")
     @ApiResponse(responseCode = "200", description = "Devices retrieved successfully")
     public ResponseEntity<List<DeviceResponse>> getAllDevices() {
-        List<DeviceResponse> responses = deviceService.getAllDevices()
-                .stream()
-                .map(deviceConverter::toResponse)
-                .toList();
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(deviceService.getAllDevices());
     }
 
     @GetMapping("/brand/{brand}")
     @Operation(summary = "Get devices by brand")
     @ApiResponse(responseCode = "200", description = "Devices retrieved successfully")
     public ResponseEntity<List<DeviceResponse>> getDevicesByBrand(@PathVariable final String brand) {
-        List<DeviceResponse> responses = deviceService.getDevicesByBrand(brand)
-                .stream()
-                .map(deviceConverter::toResponse)
-                .toList();
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(deviceService.getDevicesByBrand(brand));
     }
 
     @GetMapping("/state/{state}")
     @Operation(summary = "Get devices by state")
     @ApiResponse(responseCode = "200", description = "Devices retrieved successfully")
     public ResponseEntity<List<DeviceResponse>> getDevicesByState(@PathVariable final DeviceState state) {
-        final List<DeviceResponse> responses = deviceService.getDevicesByState(state)
-                .stream()
-                .map(deviceConverter::toResponse)
-                .toList();
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok(deviceService.getDevicesByState(state));
+    }
+
+    @GetMapping("/brand/{brand}/count")
+    @Operation(summary = "Count devices of a brand")
+    @ApiResponse(responseCode = "200", description = "Devices counted successfully")
+    public ResponseEntity<DeviceCountResponse> countDevicesByBrand(@PathVariable final String brand) {
+        return ResponseEntity.ok(new DeviceCountResponse(deviceService.countDevicesByBrand(brand)));
+    }
+
+    @GetMapping("/state/{state}/count")
+    @Operation(summary = "Count devices in a state")
+    @ApiResponse(responseCode = "200", description = "Devices counted successfully")
+    public ResponseEntity<DeviceCountResponse> countDevicesByState(@PathVariable final DeviceState state) {
+        return ResponseEntity.ok(new DeviceCountResponse(deviceService.countDevicesByState(state)));
+    }
+
+    @GetMapping("/changed-since")
+    @Operation(summary = "Get devices changed at or after a timestamp, oldest change first")
+    @ApiResponse(responseCode = "200", description = "Devices retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid timestamp or limit")
+    public ResponseEntity<List<DeviceResponse>> getDevicesChangedSince(
+            @RequestParam("ts") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final OffsetDateTime since,
+            @RequestParam(defaultValue = "500") final int limit) {
+        return ResponseEntity.ok(deviceService.getDevicesChangedSince(since, limit));
+    }
+
+    @GetMapping("/sync")
+    @Operation(summary = "Get devices changed and deleted since a sync token",
+            description = "Omit the token for a full initial sync, then pass back nextToken on each call")
+    @ApiResponse(responseCode = "200", description = "Changes retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid token or limit")
+    public ResponseEntity<DeviceSyncResponse> syncDevices(
+            @RequestParam(required = false) final String token,
+            @RequestParam(defaultValue = "500") final int limit) {
+        return ResponseEntity.ok(deviceSyncService.sync(token, limit));
     }
 
     @PatchMapping("/{id}")
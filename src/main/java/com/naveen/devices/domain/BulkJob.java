@@ -0,0 +1,22 @@
+package com.naveen.devices.domain;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A row of {@code bulk_jobs}. {@code cursor} is the handler-specific resume point committed
+ * together with each chunk.
+ */
+public record BulkJob(
+        String id,
+        BulkJobType type,
+        BulkJobStatus status,
+        String parameters,
+        String cursor,
+        long processed,
+        long failed,
+        String lastError,
+        OffsetDateTime createdAt,
+        OffsetDateTime startedAt,
+        OffsetDateTime updatedAt,
+        OffsetDateTime finishedAt
+) {}
@@ -0,0 +1,8 @@
+package com.naveen.devices.domain;
+
+public enum BulkJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
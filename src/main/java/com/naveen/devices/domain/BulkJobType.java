@@ -0,0 +1,7 @@
+package com.naveen.devices.domain;
+
+public enum BulkJobType {
+    IMPORT,
+    STATE_CHANGE,
+    PURGE
+}
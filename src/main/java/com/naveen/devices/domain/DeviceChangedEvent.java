@@ -0,0 +1,22 @@
+package com.naveen.devices.domain;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by write paths after a device is created or updated. Carries a copy of the
+ * committed values so listeners never touch the (possibly detached) entity.
+ */
+public record DeviceChangedEvent(
+        Long id,
+        String name,
+        String brand,
+        DeviceState state,
+        OffsetDateTime creationTime,
+        OffsetDateTime updateTime
+) {
+
+    public static DeviceChangedEvent of(final Device device) {
+        return new DeviceChangedEvent(device.getId(), device.getName(), device.getBrand(), device.getState(),
+                device.getCreationTime(), device.getUpdateTime());
+    }
+}
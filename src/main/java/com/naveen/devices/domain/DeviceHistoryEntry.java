@@ -0,0 +1,13 @@
+package com.naveen.devices.domain;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One {@link DeviceState} transition of a device, as stored in {@code device_history}.
+ */
+public record DeviceHistoryEntry(
+        Long deviceId,
+        DeviceState fromState,
+        DeviceState toState,
+        OffsetDateTime changedAt
+) {}
@@ -0,0 +1,12 @@
+package com.naveen.devices.domain;
+
+/**
+ * Source of new device ids, assigned in the application before the insert so Hibernate and
+ * the JDBC batch writers can batch inserts. Both use the one bean, so replacing it plugs in
+ * another scheme everywhere.
+ */
+@FunctionalInterface
+public interface DeviceIdGenerator {
+
+    long nextId();
+}
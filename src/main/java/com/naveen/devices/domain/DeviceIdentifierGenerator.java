@@ -0,0 +1,40 @@
+package com.naveen.devices.domain;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate side of {@link GeneratedDeviceId}. Hibernate creates it through Spring's bean
+ * container, which injects the {@link DeviceIdGenerator} bean. Ids are generated before the
+ * insert, so Hibernate can batch device inserts; an id already set on the entity, e.g. by
+ * the shard router, is kept.
+ */
+public class DeviceIdentifierGenerator implements BeforeExecutionGenerator {
+
+    private final transient DeviceIdGenerator ids;
+
+    public DeviceIdentifierGenerator(final DeviceIdGenerator ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public Object generate(final SharedSessionContractImplementor session, final Object owner,
+                           final Object currentValue, final EventType eventType) {
+        final Object assigned = session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return assigned != null ? assigned : ids.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
@@ -0,0 +1,8 @@
+package com.naveen.devices.domain;
+
+import java.util.List;
+
+/**
+ * Published when devices leave the {@code devices} table, by deletion or archival.
+ */
+public record DevicesRemovedEvent(List<Long> ids) {}
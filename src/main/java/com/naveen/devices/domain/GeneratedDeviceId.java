@@ -0,0 +1,17 @@
+package com.naveen.devices.domain;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id taken from the application's {@link DeviceIdGenerator} unless one is already set.
+ */
+@IdGeneratorType(DeviceIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedDeviceId {
+}
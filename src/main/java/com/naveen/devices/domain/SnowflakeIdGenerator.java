@@ -0,0 +1,66 @@
+package com.naveen.devices.domain;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node id
+ * and 12 bits of per-millisecond sequence, good for 69 years and 4096 ids per millisecond
+ * per node. Allocation is one compare-and-set on the last issued timestamp and sequence.
+ *
+ * <p>When a millisecond's sequence runs out, or the clock steps backwards, the sequence
+ * simply carries into the timestamp: ids borrow from the next millisecond instead of
+ * waiting, stay unique and increasing, and fall back in step once the clock catches up.
+ * Every instance writing to the same database needs its own node id.
+ */
+public class SnowflakeIdGenerator implements DeviceIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TIMESTAMP = (1L << 41) - 1;
+
+    private final long node;
+    private final Clock clock;
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(final int nodeId, final Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            final long previous = last.get();
+            final long now = (clock.millis() - epochMillis) << SEQUENCE_BITS;
+            final long next = now > previous ? now : previous + 1;
+            if (last.compareAndSet(previous, next)) {
+                return compose(next);
+            }
+        }
+    }
+
+    private long compose(final long timeAndSequence) {
+        final long timestamp = timeAndSequence >>> SEQUENCE_BITS;
+        if (timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException("Snowflake timestamp space exhausted");
+        }
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (timeAndSequence & SEQUENCE_MASK);
+    }
+
+    static long timestampOf(final long id) {
+        return id >>> (NODE_BITS + SEQUENCE_BITS);
+    }
+
+    static int nodeOf(final long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,21 @@
+package com.naveen.devices.dto;
+
+import com.naveen.devices.domain.BulkJobStatus;
+import com.naveen.devices.domain.BulkJobType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.OffsetDateTime;
+
+@Schema(description = "Status and progress of a bulk job")
+public record BulkJobResponse(
+        @Schema(description = "Job ID", example = "0b0f5e0c-3a5e-4c8e-9d0e-3c1f1f0e2a11") String id,
+        @Schema(description = "Job type", example = "IMPORT") BulkJobType type,
+        @Schema(description = "Job status", example = "RUNNING") BulkJobStatus status,
+        @Schema(description = "Items processed in committed chunks", example = "42000") long processed,
+        @Schema(description = "Items rejected", example = "3") long failed,
+        @Schema(description = "Processed items per second since the job started", example = "8400.0")
+        double itemsPerSecond,
+        @Schema(description = "Most recent error, if any") String lastError,
+        @Schema(description = "Submission time") OffsetDateTime createdAt,
+        @Schema(description = "Time the job first started") OffsetDateTime startedAt,
+        @Schema(description = "Completion time") OffsetDateTime finishedAt
+) {}
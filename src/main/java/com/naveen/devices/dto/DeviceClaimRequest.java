@@ -0,0 +1,9 @@
+package com.naveen.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Available devices to claim for the caller")
+public record DeviceClaimRequest(
+        @Schema(description = "Only devices of this brand; any brand when omitted", example = "BrandA") String brand,
+        @Schema(description = "How many devices to claim, 1 to 100; 1 when omitted", example = "1") Integer count
+) {}
@@ -0,0 +1,8 @@
+package com.naveen.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Number of devices matching a filter")
+public record DeviceCountResponse(
+        @Schema(description = "Matching devices", example = "42") long count
+) {}
@@ -0,0 +1,15 @@
+package com.naveen.devices.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Page of device state changes, newest first")
+public record DeviceHistoryPage(
+        @Schema(description = "Device ID", example = "1", type = "string")
+        @JsonFormat(shape = JsonFormat.Shape.STRING) Long deviceId,
+        @Schema(description = "Zero-based page number", example = "0") int page,
+        @Schema(description = "Page size", example = "50") int size,
+        @Schema(description = "Whether a further page exists") boolean hasNext,
+        @Schema(description = "State changes on this page") List<DeviceHistoryResponse> content
+) {}
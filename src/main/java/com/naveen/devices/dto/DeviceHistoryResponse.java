@@ -0,0 +1,11 @@
+package com.naveen.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.OffsetDateTime;
+
+@Schema(description = "Device state change")
+public record DeviceHistoryResponse(
+        @Schema(description = "Previous state, null for the creation entry", example = "AVAILABLE") String fromState,
+        @Schema(description = "New state", example = "IN_USE") String toState,
+        @Schema(description = "Change time", example = "2025-12-04T12:30:00Z") OffsetDateTime changedAt
+) {}
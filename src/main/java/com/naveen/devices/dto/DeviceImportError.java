@@ -0,0 +1,9 @@
+package com.naveen.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A CSV row rejected during import")
+public record DeviceImportError(
+        @Schema(description = "Line the row starts on, counting the header as line 1", example = "42") long line,
+        @Schema(description = "Why the row was rejected", example = "brand is required") String message
+) {}
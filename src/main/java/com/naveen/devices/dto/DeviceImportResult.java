@@ -0,0 +1,14 @@
+package com.naveen.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk CSV import")
+public record DeviceImportResult(
+        @Schema(description = "Data rows read, excluding the header", example = "100000") long rowsRead,
+        @Schema(description = "Rows inserted", example = "99990") long imported,
+        @Schema(description = "Rows rejected by validation", example = "10") long rejected,
+        @Schema(description = "Rejected rows, up to devices.import.max-reported-errors") List<DeviceImportError> errors,
+        @Schema(description = "Whether more rows were rejected than are listed") boolean errorsTruncated,
+        @Schema(description = "Wall-clock duration in milliseconds", example = "5321") long elapsedMs
+) {}
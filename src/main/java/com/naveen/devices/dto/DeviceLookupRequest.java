@@ -0,0 +1,11 @@
+package com.naveen.devices.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Devices to fetch in one call")
+public record DeviceLookupRequest(
+        @Schema(description = "Device ids as strings (numbers are accepted too), at most 1000",
+                example = "[\"3\", \"1\", \"2\"]") List<Long> ids
+) {}
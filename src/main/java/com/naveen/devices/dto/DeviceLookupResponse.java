@@ -0,0 +1,13 @@
+package com.naveen.devices.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Devices found for a lookup, in request order")
+public record DeviceLookupResponse(
+        @Schema(description = "Found devices, in the order their ids were requested") List<DeviceResponse> devices,
+        @Schema(description = "Requested ids with no device, as strings", example = "[\"2\"]")
+        @JsonFormat(shape = JsonFormat.Shape.STRING) List<Long> missing
+) {}
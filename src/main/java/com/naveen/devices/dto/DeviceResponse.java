@@ -1,14 +1,27 @@
 package com.naveen.devices.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.naveen.devices.domain.DeviceState;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.OffsetDateTime;
 
 @Schema(description = "Device response DTO")
 public record DeviceResponse(
-        @Schema(description = "Device ID", example = "1") Long id,
+        @Schema(description = "Device ID, as a string since ids exceed 2^53", example = "1", type = "string")
+        @JsonFormat(shape = JsonFormat.Shape.STRING) Long id,
         @Schema(description = "Device name", example = "Device1") String name,
         @Schema(description = "Device brand", example = "BrandA") String brand,
         @Schema(description = "Device state", example = "AVAILABLE") String state,
         @Schema(description = "Creation time", example = "2025-12-04T12:00:00") OffsetDateTime creationTime,
         @Schema(description = "Last update time", example = "2025-12-04T12:30:00") OffsetDateTime updateTime
-) {}
\ No newline at end of file
+) {
+
+    /**
+     * Used by JPQL constructor expressions in {@code DeviceRepository} to project rows
+     * straight into responses without hydrating managed entities.
+     */
+    public DeviceResponse(final Long id, final String name, final String brand, final DeviceState state,
+                          final OffsetDateTime creationTime, final OffsetDateTime updateTime) {
+        this(id, name, brand, state.name(), creationTime, updateTime);
+    }
+}
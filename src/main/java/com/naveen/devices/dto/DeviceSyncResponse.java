@@ -0,0 +1,14 @@
+package com.naveen.devices.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Changes since a sync token")
+public record DeviceSyncResponse(
+        @Schema(description = "Devices created or updated since the token, oldest change first") List<DeviceResponse> changed,
+        @Schema(description = "IDs of devices deleted or archived since the token, as strings")
+        @JsonFormat(shape = JsonFormat.Shape.STRING) List<Long> deleted,
+        @Schema(description = "Opaque token to pass on the next sync call") String nextToken,
+        @Schema(description = "Whether more changes are available right away") boolean hasMore
+) {}
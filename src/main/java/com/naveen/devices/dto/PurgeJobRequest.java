@@ -0,0 +1,11 @@
+package com.naveen.devices.dto;
+
+import com.naveen.devices.domain.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Deletes every device in a state, optionally of one brand")
+public record PurgeJobRequest(
+        @Schema(description = "Only devices of this brand; all brands when omitted", example = "BrandA") String brand,
+        @Schema(description = "State of the devices to delete; IN_USE is not allowed", example = "INACTIVE")
+        DeviceState state
+) {}
@@ -0,0 +1,12 @@
+package com.naveen.devices.dto;
+
+import com.naveen.devices.domain.DeviceState;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Moves every matching device to a new state")
+public record StateChangeJobRequest(
+        @Schema(description = "Only devices of this brand; all brands when omitted", example = "BrandA") String brand,
+        @Schema(description = "Only devices currently in this state; any state when omitted", example = "AVAILABLE")
+        DeviceState fromState,
+        @Schema(description = "Target state", example = "INACTIVE") DeviceState toState
+) {}
@@ -0,0 +1,16 @@
+package com.naveen.devices.exception;
+
+/**
+ * Thrown when a bulk job id is unknown. Stackless for the same reason as
+ * {@link DeviceNotFoundException}.
+ */
+public class BulkJobNotFoundException extends RuntimeException {
+    public BulkJobNotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
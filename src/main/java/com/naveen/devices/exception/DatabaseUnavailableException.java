@@ -0,0 +1,33 @@
+package com.naveen.devices.exception;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown when the database cannot be reached and no stale copy of the answer exists.
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+    public DatabaseUnavailableException(final Throwable cause) {
+        super("Database unavailable", cause);
+    }
+
+    /**
+     * @return whether {@code failure} was caused by not getting or losing a connection, as
+     * opposed to a problem with the statement itself
+     */
+    public static boolean isCause(final Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseUnavailableException
+                    || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package com.naveen.devices.exception;
+
+/**
+ * Thrown when a change is rejected because the device is currently in use.
+ * Stackless for the same reason as {@link DeviceNotFoundException}.
+ */
+public class DeviceInUseException extends IllegalStateException {
+    public DeviceInUseException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,7 +1,16 @@
 package com.naveen.devices.exception;
 
+/**
+ * Thrown when a device lookup misses. Stack traces are not captured: a 404 is an expected
+ * outcome and the trace would only cost CPU and allocation under a flood of bad lookups.
+ */
 public class DeviceNotFoundException extends RuntimeException {
     public DeviceNotFoundException(String message) {
         super(message);
     }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
@@ -0,0 +1,16 @@
+package com.naveen.devices.exception;
+
+/**
+ * Thrown when a request breaks a device business rule that maps to a bad request.
+ * Stackless for the same reason as {@link DeviceNotFoundException}.
+ */
+public class DeviceValidationException extends IllegalArgumentException {
+    public DeviceValidationException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
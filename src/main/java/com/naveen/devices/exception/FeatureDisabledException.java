@@ -0,0 +1,16 @@
+package com.naveen.devices.exception;
+
+/**
+ * Thrown when an endpoint's feature is switched off in configuration, e.g. CSV import with
+ * sharding. Stackless for the same reason as {@link DeviceNotFoundException}.
+ */
+public class FeatureDisabledException extends RuntimeException {
+    public FeatureDisabledException(String property) {
+        super("Disabled by " + property);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,25 +1,142 @@
 package com.naveen.devices.exception;
 
+import com.naveen.devices.repository.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+/**
+ * Maps exceptions to RFC 7807 bodies. Client errors, including Spring's own (unknown paths,
+ * malformed bodies, unconvertible path variables), get their 4xx status without a stack trace
+ * in the log, so floods of bad requests stay cheap; only unexpected failures are logged at
+ * ERROR. Shared with the reactive application, so it does not extend the MVC-only
+ * {@code ResponseEntityExceptionHandler}.
+ */
+@Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    public static final String ERRORS_METRIC = "devices.api.errors";
+    static final String INTERNAL_ERROR_DETAIL = "An unexpected error occurred";
+    static final String MALFORMED_REQUEST_DETAIL = "Malformed request";
+    public static final String DEADLINE_DETAIL = "Request deadline exceeded";
+    static final String UNAVAILABLE_DETAIL = "Database temporarily unavailable";
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Counter notFoundCounter;
+    private final Counter badRequestCounter;
+    private final Counter conflictCounter;
+    private final Counter clientErrorCounter;
+    private final Counter internalErrorCounter;
+    private final Counter deadlineCounter;
+    private final Counter unavailableCounter;
+
+    public GlobalExceptionHandler(final MeterRegistry meterRegistry) {
+        this.notFoundCounter = errorCounter(meterRegistry, "not_found");
+        this.badRequestCounter = errorCounter(meterRegistry, "bad_request");
+        this.conflictCounter = errorCounter(meterRegistry, "conflict");
+        this.clientErrorCounter = errorCounter(meterRegistry, "client_error");
+        this.internalErrorCounter = errorCounter(meterRegistry, "internal");
+        this.deadlineCounter = errorCounter(meterRegistry, "deadline");
+        this.unavailableCounter = errorCounter(meterRegistry, "unavailable");
+    }
+
     @ExceptionHandler(DeviceNotFoundException.class)
-    public ResponseEntity<String> handleDeviceNotFound(DeviceNotFoundException ex) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    public ResponseEntity<ProblemDetail> handleDeviceNotFound(DeviceNotFoundException ex) {
+        notFoundCounter.increment();
+        return problem(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(BulkJobNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleBulkJobNotFound(BulkJobNotFoundException ex) {
+        notFoundCounter.increment();
+        return problem(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(FeatureDisabledException.class)
+    public ResponseEntity<ProblemDetail> handleFeatureDisabled(FeatureDisabledException ex) {
+        notFoundCounter.increment();
+        return problem(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    public ResponseEntity<ProblemDetail> handleIllegalArgument(IllegalArgumentException ex) {
+        badRequestCounter.increment();
+        return problem(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(DeviceInUseException.class)
+    public ResponseEntity<ProblemDetail> handleDeviceInUse(DeviceInUseException ex) {
+        conflictCounter.increment();
+        return problem(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler({TypeMismatchException.class, HttpMessageNotReadableException.class})
+    public ResponseEntity<ProblemDetail> handleMalformedRequest(Exception ex) {
+        badRequestCounter.increment();
+        log.debug("Malformed request: {}", ex.getMessage());
+        return problem(HttpStatus.BAD_REQUEST, MALFORMED_REQUEST_DETAIL);
+    }
+
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleDatabaseUnavailable(DatabaseUnavailableException ex) {
+        return unavailable();
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleGeneral(Exception ex) {
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+    public ResponseEntity<ProblemDetail> handleGeneral(Exception ex) {
+        if (ex instanceof ErrorResponse errorResponse && errorResponse.getStatusCode().is4xxClientError()) {
+            // Spring's own request errors (no handler, wrong method, missing parameter, ...)
+            clientErrorCounter.increment();
+            log.debug("Client error: {}", ex.getMessage());
+            return ResponseEntity.status(errorResponse.getStatusCode())
+                    .headers(errorResponse.getHeaders())
+                    .body(errorResponse.getBody());
+        }
+        if (RequestDeadline.isExpired()) {
+            // most likely a statement cancelled by its timeout; the client has stopped waiting
+            deadlineCounter.increment();
+            log.debug("Request failed after its deadline", ex);
+            return problem(HttpStatus.GATEWAY_TIMEOUT, DEADLINE_DETAIL);
+        }
+        if (DatabaseUnavailableException.isCause(ex)) {
+            // writes reach here wrapped in whatever the transaction or Hibernate made of it
+            log.warn("Database unavailable: {}", ex.getMessage());
+            return unavailable();
+        }
+        internalErrorCounter.increment();
+        log.error("Unhandled exception", ex);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_ERROR_DETAIL);
+    }
+
+    private ResponseEntity<ProblemDetail> unavailable() {
+        unavailableCounter.increment();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, UNAVAILABLE_DETAIL));
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(final HttpStatus status, final String detail) {
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detail));
+    }
+
+    /**
+     * The {@value #ERRORS_METRIC} counter of {@code type}, also used by filters that answer
+     * before a request reaches a controller.
+     */
+    public static Counter errorCounter(final MeterRegistry meterRegistry, final String type) {
+        return Counter.builder(ERRORS_METRIC)
+                .description("Errors returned by the API, by type")
+                .tag("type", type)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,121 @@
+package com.naveen.devices.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@code /actuator/jfr}: starts and stops a JFR recording on a running pod. Recordings use
+ * the JDK's {@code profile} settings plus {@link StageEvent}, stop by themselves after
+ * {@code devices.jfr.max-duration-seconds} at most, are capped at
+ * {@code devices.jfr.max-size-mb} and are written to {@code devices.jfr.directory}. Only one
+ * recording runs at a time.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    static final String RECORDING_NAME = "devices-api";
+
+    private final Path directory;
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private Recording recording;
+
+    public record RecordingStatus(String state, String file, Instant startedAt, long durationSeconds) {}
+
+    public JfrRecordingEndpoint(@Value("${devices.jfr.directory:${java.io.tmpdir}/devices-jfr}") final Path directory,
+                                @Value("${devices.jfr.default-duration-seconds:60}") final long defaultDurationSeconds,
+                                @Value("${devices.jfr.max-duration-seconds:600}") final long maxDurationSeconds,
+                                @Value("${devices.jfr.max-size-mb:100}") final long maxSizeMb) {
+        this.directory = directory;
+        this.defaultDuration = Duration.ofSeconds(defaultDurationSeconds);
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @ReadOperation
+    public synchronized RecordingStatus status() {
+        return recording == null ? new RecordingStatus("NONE", null, null, 0) : toStatus(recording);
+    }
+
+    /**
+     * Starts a recording for {@code durationSeconds}, capped at the configured maximum.
+     */
+    @WriteOperation
+    public synchronized RecordingStatus start(@Nullable final Integer durationSeconds) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        closePrevious();
+        final Duration duration = durationSeconds == null
+                ? defaultDuration
+                : Duration.ofSeconds(Math.max(1, Math.min(durationSeconds, maxDuration.toSeconds())));
+        try {
+            Files.createDirectories(directory);
+            final Recording started = new Recording(Configuration.getConfiguration("profile"));
+            started.setName(RECORDING_NAME);
+            started.enable(StageEvent.NAME);
+            started.setDuration(duration);
+            started.setMaxSize(maxSizeBytes);
+            started.setToDisk(true);
+            started.setDestination(directory.resolve(RECORDING_NAME + "-" + Instant.now().toEpochMilli() + ".jfr"));
+            started.start();
+            recording = started;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("JDK profile settings are unreadable", e);
+        }
+        log.info("Started JFR recording to {} for {}", recording.getDestination(), duration);
+        return toStatus(recording);
+    }
+
+    /**
+     * Stops the running recording early; its file is written to the destination.
+     */
+    @DeleteOperation
+    public synchronized RecordingStatus stop() {
+        if (recording == null) {
+            return status();
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording, written to {}", recording.getDestination());
+        }
+        return toStatus(recording);
+    }
+
+    private void closePrevious() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static RecordingStatus toStatus(final Recording recording) {
+        final Duration duration = recording.getDuration();
+        return new RecordingStatus(recording.getState().name(),
+                recording.getDestination() != null ? recording.getDestination().toString() : null,
+                recording.getStartTime(),
+                duration != null ? duration.toSeconds() : 0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.naveen.devices.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call through a controller, service, converter or repository. The event's duration is
+ * the call's wall time and {@link #allocatedBytes} what the calling thread allocated during
+ * it; both include nested stages. The JVM does not track allocation per virtual thread, so
+ * calls on one report {@code -1}.
+ */
+@Name(StageEvent.NAME)
+@Label("Devices API Stage")
+@Category("Devices API")
+@Description("A controller, service, converter or repository call with its heap allocation")
+@StackTrace(false)
+class StageEvent extends Event {
+
+    static final String NAME = "com.naveen.devices.Stage";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the calling thread, or -1 on a virtual thread")
+    @DataAmount
+    long allocatedBytes;
+}
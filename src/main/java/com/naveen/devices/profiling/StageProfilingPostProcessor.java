@@ -0,0 +1,95 @@
+package com.naveen.devices.profiling;
+
+import jdk.jfr.EventType;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Wraps controllers, services, converters and repositories in an interceptor that emits a
+ * {@link StageEvent} per call. Nothing is measured, or even allocated, unless a JFR
+ * recording has the event enabled, so the cost outside a recording is one enabled check per
+ * call. Added in front of existing advisors so service events include the transaction.
+ * Allocation is only tracked for platform threads; on virtual threads (the prod profile
+ * serves requests on them) {@link StageEvent#allocatedBytes} is {@value #UNKNOWN_ALLOCATION}.
+ */
+@Component
+public class StageProfilingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    static final String BASE_PACKAGE = "com.naveen.devices.";
+    static final long UNKNOWN_ALLOCATION = -1;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final EventType STAGE_EVENT_TYPE = EventType.getEventType(StageEvent.class);
+
+    public StageProfilingPostProcessor() {
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(stageFilter()),
+                (MethodInterceptor) StageProfilingPostProcessor::profile);
+        this.beforeExistingAdvisors = true;
+    }
+
+    static String stageOf(final Class<?> type) {
+        if (Repository.class.isAssignableFrom(type)) {
+            return "repository";
+        }
+        if (!type.getName().startsWith(BASE_PACKAGE)) {
+            return null;
+        }
+        if (type.getName().startsWith(BASE_PACKAGE + "converter.")) {
+            return "converter";
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, RestController.class)) {
+            return "controller";
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, Service.class)) {
+            return "service";
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, org.springframework.stereotype.Repository.class)) {
+            return "repository";
+        }
+        return null;
+    }
+
+    private static ClassFilter stageFilter() {
+        return type -> stageOf(type) != null;
+    }
+
+    private static long allocatedBytesSince(final long allocatedBefore) {
+        final long allocatedAfter = allocatedBefore < 0 ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+        return allocatedAfter < 0 ? UNKNOWN_ALLOCATION : allocatedAfter - allocatedBefore;
+    }
+
+    private static Object profile(final MethodInvocation invocation) throws Throwable {
+        if (!STAGE_EVENT_TYPE.isEnabled()) {
+            return invocation.proceed();
+        }
+        final StageEvent event = new StageEvent();
+        // -1 where the JVM does not track the thread, which includes every virtual thread
+        final long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        event.begin();
+        try {
+            return invocation.proceed();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                final Class<?> target = invocation.getThis() != null
+                        ? invocation.getThis().getClass() : invocation.getMethod().getDeclaringClass();
+                event.stage = stageOf(target);
+                event.operation = invocation.getMethod().getDeclaringClass().getSimpleName()
+                        + "." + invocation.getMethod().getName();
+                event.allocatedBytes = allocatedBytesSince(allocatedBefore);
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.naveen.devices.reactive;
+
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.dto.DeviceResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The device endpoints of {@link com.naveen.devices.controller.DeviceController} with the same
+ * paths, bodies and status codes. Lists are written element by element as rows arrive, as a
+ * JSON array or, for {@code Accept: application/x-ndjson}, one device per line.
+ */
+@RestController
+@RequestMapping("/api/devices")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDeviceController {
+
+    private final ReactiveDeviceService deviceService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<DeviceResponse> createDevice(@RequestBody final DeviceRequest request) {
+        return deviceService.createDevice(request);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<DeviceResponse> updateDevice(@PathVariable final Long id, @RequestBody final DeviceRequest request) {
+        return deviceService.updateDevice(id, request);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<DeviceResponse> partialUpdateDevice(@PathVariable final Long id,
+                                                    @RequestBody final DeviceRequest request) {
+        return deviceService.partialUpdateDevice(id, request);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<DeviceResponse> getDevice(@PathVariable final Long id) {
+        return deviceService.getDevice(id);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<DeviceResponse> getAllDevices() {
+        return deviceService.getAllDevices();
+    }
+
+    @GetMapping(value = "/brand/{brand}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<DeviceResponse> getDevicesByBrand(@PathVariable final String brand) {
+        return deviceService.getDevicesByBrand(brand);
+    }
+
+    @GetMapping(value = "/state/{state}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<DeviceResponse> getDevicesByState(@PathVariable final DeviceState state) {
+        return deviceService.getDevicesByState(state);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteDevice(@PathVariable final Long id) {
+        return deviceService.deleteDevice(id);
+    }
+}
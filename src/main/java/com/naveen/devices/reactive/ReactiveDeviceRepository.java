@@ -0,0 +1,152 @@
+package com.naveen.devices.reactive;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceResponse;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+/**
+ * R2DBC access to {@code devices} and the tables written alongside it. Timestamps are stored
+ * as local date-times in the JVM zone, as Hibernate does for the servlet application. List
+ * queries are returned as they stream from the driver, so a slow client holds back fetching
+ * instead of buffering the table.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDeviceRepository {
+
+    private static final String SELECT_SQL =
+            "select id, name, brand, state, creation_time, update_time from devices";
+    private static final String INSERT_SQL = "insert into devices (id, name, brand, state, creation_time, update_time)"
+            + " values (:id, :name, :brand, :state, :creationTime, :updateTime)";
+    private static final String UPDATE_SQL =
+            "update devices set name = :name, brand = :brand, state = :state, update_time = :updateTime where id = :id";
+    private static final String DELETE_SQL = "delete from devices where id = :id";
+    private static final String INSERT_HISTORY_SQL = "insert into device_history (device_id, from_state, to_state, changed_at)"
+            + " values (:deviceId, :fromState, :toState, :changedAt)";
+    private static final String INSERT_TOMBSTONE_SQL =
+            "insert into device_tombstones (device_id, deleted_at) values (:deviceId, :deletedAt)";
+    private static final String INSERT_INVALIDATION_SQL =
+            "insert into cache_invalidations (origin, device_ids, created_at) values (:origin, :deviceIds, :createdAt)";
+
+    private final DatabaseClient client;
+
+    public Mono<Device> findById(final long id) {
+        return client.sql(SELECT_SQL + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveDeviceRepository::toDevice)
+                .one();
+    }
+
+    public Flux<DeviceResponse> findAllResponses() {
+        return client.sql(SELECT_SQL + " order by id")
+                .map(ReactiveDeviceRepository::toResponse)
+                .all();
+    }
+
+    public Flux<DeviceResponse> findResponsesByBrand(final String brand) {
+        return client.sql(SELECT_SQL + " where brand = :brand order by id")
+                .bind("brand", brand)
+                .map(ReactiveDeviceRepository::toResponse)
+                .all();
+    }
+
+    public Flux<DeviceResponse> findResponsesByState(final DeviceState state) {
+        return client.sql(SELECT_SQL + " where state = :state order by id")
+                .bind("state", state.name())
+                .map(ReactiveDeviceRepository::toResponse)
+                .all();
+    }
+
+    public Mono<Void> insert(final Device device) {
+        return client.sql(INSERT_SQL)
+                .bind("id", device.getId())
+                .bind("name", device.getName())
+                .bind("brand", device.getBrand())
+                .bind("state", device.getState().name())
+                .bind("creationTime", toLocal(device.getCreationTime()))
+                .bind("updateTime", toLocal(device.getUpdateTime()))
+                .then();
+    }
+
+    public Mono<Void> update(final Device device) {
+        return client.sql(UPDATE_SQL)
+                .bind("id", device.getId())
+                .bind("name", device.getName())
+                .bind("brand", device.getBrand())
+                .bind("state", device.getState().name())
+                .bind("updateTime", toLocal(device.getUpdateTime()))
+                .then();
+    }
+
+    public Mono<Void> delete(final long id) {
+        return client.sql(DELETE_SQL).bind("id", id).then();
+    }
+
+    public Mono<Void> insertHistory(final long deviceId, final DeviceState fromState, final DeviceState toState,
+                                    final OffsetDateTime changedAt) {
+        final DatabaseClient.GenericExecuteSpec insert = client.sql(INSERT_HISTORY_SQL).bind("deviceId", deviceId);
+        return (fromState == null ? insert.bindNull("fromState", String.class) : insert.bind("fromState", fromState.name()))
+                .bind("toState", toState.name())
+                .bind("changedAt", toLocal(changedAt))
+                .then();
+    }
+
+    public Mono<Void> insertTombstone(final long deviceId, final OffsetDateTime deletedAt) {
+        return client.sql(INSERT_TOMBSTONE_SQL)
+                .bind("deviceId", deviceId)
+                .bind("deletedAt", toLocal(deletedAt))
+                .then();
+    }
+
+    /**
+     * Row for the servlet instances' cache invalidation bus, in its one-id-per-row form.
+     */
+    public Mono<Void> insertInvalidation(final String origin, final long deviceId, final OffsetDateTime createdAt) {
+        return client.sql(INSERT_INVALIDATION_SQL)
+                .bind("origin", origin)
+                .bind("deviceIds", Long.toString(deviceId))
+                .bind("createdAt", toLocal(createdAt))
+                .then();
+    }
+
+    private static Device toDevice(final Readable row) {
+        return Device.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .brand(row.get("brand", String.class))
+                .state(DeviceState.valueOf(row.get("state", String.class)))
+                .creationTime(toOffset(row.get("creation_time", LocalDateTime.class)))
+                .updateTime(toOffset(row.get("update_time", LocalDateTime.class)))
+                .build();
+    }
+
+    private static DeviceResponse toResponse(final Readable row) {
+        return new DeviceResponse(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("brand", String.class),
+                row.get("state", String.class),
+                toOffset(row.get("creation_time", LocalDateTime.class)),
+                toOffset(row.get("update_time", LocalDateTime.class)));
+    }
+
+    private static LocalDateTime toLocal(final OffsetDateTime time) {
+        return time.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private static OffsetDateTime toOffset(final LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+}
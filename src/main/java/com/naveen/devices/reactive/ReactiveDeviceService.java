@@ -0,0 +1,139 @@
+package com.naveen.devices.reactive;
+
+import com.naveen.devices.converter.DeviceConverter;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceIdGenerator;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.exception.DeviceNotFoundException;
+import com.naveen.devices.service.DeviceService;
+import com.naveen.devices.service.DeviceValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The device rules of {@link DeviceService} as reactive pipelines. Each write runs in one R2DBC
+ * transaction together with its history row or tombstone; with {@code devices.cache-bus.enabled}
+ * it also leaves a row on the cache invalidation bus so servlet instances drop their cached copy.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDeviceService {
+
+    private final ReactiveDeviceRepository repository;
+    private final DeviceConverter deviceConverter;
+    private final DeviceIdGenerator idGenerator;
+    private final TransactionalOperator transactionalOperator;
+    private final boolean cacheBus;
+    private final String origin = UUID.randomUUID().toString();
+
+    public ReactiveDeviceService(final ReactiveDeviceRepository repository,
+                                 final DeviceConverter deviceConverter,
+                                 final DeviceIdGenerator idGenerator,
+                                 final TransactionalOperator transactionalOperator,
+                                 @Value("${devices.cache-bus.enabled:false}") final boolean cacheBus) {
+        this.repository = repository;
+        this.deviceConverter = deviceConverter;
+        this.idGenerator = idGenerator;
+        this.transactionalOperator = transactionalOperator;
+        this.cacheBus = cacheBus;
+    }
+
+    public Mono<DeviceResponse> createDevice(final DeviceRequest request) {
+        return Mono.fromCallable(() -> {
+                    DeviceValidator.validateCreate(request);
+                    final Device device = deviceConverter.toEntity(request);
+                    final OffsetDateTime now = OffsetDateTime.now();
+                    device.setId(idGenerator.nextId());
+                    device.setCreationTime(now);
+                    device.setUpdateTime(now);
+                    return device;
+                })
+                .flatMap(device -> repository.insert(device)
+                        .then(repository.insertHistory(device.getId(), null, device.getState(), device.getCreationTime()))
+                        .then(invalidate(device.getId(), device.getCreationTime()))
+                        .thenReturn(deviceConverter.toResponse(device)))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<DeviceResponse> updateDevice(final Long id, final DeviceRequest request) {
+        return change(id, request, () -> new DeviceNotFoundException(DeviceService.DEVICE_NOT_FOUND_WITH_ID + id));
+    }
+
+    /**
+     * Same as {@link #updateDevice} except that, like the servlet PATCH, an unknown id is a
+     * bad request rather than not found.
+     */
+    public Mono<DeviceResponse> partialUpdateDevice(final Long id, final DeviceRequest request) {
+        return change(id, request, () -> new IllegalArgumentException("Device not found"));
+    }
+
+    public Mono<Void> deleteDevice(final Long id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new DeviceNotFoundException(DeviceService.DEVICE_NOT_FOUND_WITH_ID + id)))
+                .flatMap(device -> {
+                    DeviceValidator.validateDelete(device);
+                    final OffsetDateTime now = OffsetDateTime.now();
+                    return repository.delete(id)
+                            .then(repository.insertTombstone(id, now))
+                            .then(invalidate(id, now));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<DeviceResponse> getDevice(final Long id) {
+        return repository.findById(id)
+                .map(deviceConverter::toResponse)
+                .switchIfEmpty(Mono.error(() -> new DeviceNotFoundException(DeviceService.DEVICE_NOT_FOUND_WITH_ID + id)));
+    }
+
+    public Flux<DeviceResponse> getAllDevices() {
+        return repository.findAllResponses();
+    }
+
+    public Flux<DeviceResponse> getDevicesByBrand(final String brand) {
+        return repository.findResponsesByBrand(brand);
+    }
+
+    public Flux<DeviceResponse> getDevicesByState(final DeviceState state) {
+        return repository.findResponsesByState(state);
+    }
+
+    private Mono<DeviceResponse> change(final Long id, final DeviceRequest request,
+                                        final Supplier<? extends RuntimeException> notFound) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(notFound))
+                .flatMap(applyChange(request))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Function<Device, Mono<DeviceResponse>> applyChange(final DeviceRequest request) {
+        return device -> {
+            DeviceValidator.validateUpdate(device, request);
+            final DeviceState previousState = device.getState();
+            deviceConverter.updateEntity(request, device);
+            device.setUpdateTime(OffsetDateTime.now());
+            final Mono<Void> history = previousState == device.getState()
+                    ? Mono.empty()
+                    : repository.insertHistory(device.getId(), previousState, device.getState(), device.getUpdateTime());
+            return repository.update(device)
+                    .then(history)
+                    .then(invalidate(device.getId(), device.getUpdateTime()))
+                    .thenReturn(deviceConverter.toResponse(device));
+        };
+    }
+
+    private Mono<Void> invalidate(final long id, final OffsetDateTime at) {
+        return cacheBus ? repository.insertInvalidation(origin, id, at) : Mono.empty();
+    }
+}
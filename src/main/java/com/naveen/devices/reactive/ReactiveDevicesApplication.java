@@ -0,0 +1,54 @@
+package com.naveen.devices.reactive;
+
+import com.naveen.devices.config.DeviceIdConfig;
+import com.naveen.devices.converter.DeviceConverter;
+import com.naveen.devices.exception.GlobalExceptionHandler;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Non-blocking variant of the service for high fan-in edge deployments: the core
+ * {@code /api/devices} contract of {@link com.naveen.devices.controller.DeviceController} on
+ * WebFlux, with R2DBC against the same schema. Requests and responses, validation rules, id
+ * generation and error responses are shared with the servlet application.
+ *
+ * <p>Import, history, sync, lookup and counts stay servlet-only. Liquibase only runs here when
+ * {@code spring.liquibase.url} is set; normally the servlet instances own the schema. Start with
+ * {@code java -Dloader.main=com.naveen.devices.reactive.ReactiveDevicesApplication -cp devices-api.jar
+ * org.springframework.boot.loader.launch.PropertiesLauncher}.
+ *
+ * <p>Only loaded when the context is reactive, so the servlet application's component scan
+ * skips this package.
+ */
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import({DeviceIdConfig.class, DeviceConverter.class, GlobalExceptionHandler.class})
+public class ReactiveDevicesApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(final String[] args) {
+        application().run(args);
+    }
+
+    public static SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(ReactiveDevicesApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(final ReactiveTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+}
@@ -0,0 +1,77 @@
+package com.naveen.devices.reactive;
+
+import com.naveen.devices.config.ApiKeyFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The servlet {@link com.naveen.devices.config.SecurityConfig} for WebFlux: every request but
+ * the public actuator endpoints needs the {@code X-API-KEY} header, nothing is kept between
+ * requests.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    static final String API_KEY_HEADER = "X-API-KEY";
+
+    @Bean
+    public SecurityWebFilterChain reactiveFilterChain(final ServerHttpSecurity http,
+                                                      @Value("${api.key}") final String apiKey) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(ApiKeyFilter.PROTECTED_ACTUATOR_PATHS.stream()
+                                .map(path -> path + "/**")
+                                .toArray(String[]::new)).authenticated()
+                        .pathMatchers("/actuator/**").permitAll()
+                        .pathMatchers(HttpMethod.OPTIONS).permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(apiKeyFilter(apiKey), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    static WebFilter apiKeyFilter(final String apiKey) {
+        return (exchange, chain) -> {
+            final String path = exchange.getRequest().getPath().value();
+            if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod()) || (path.startsWith("/actuator")
+                    && ApiKeyFilter.PROTECTED_ACTUATOR_PATHS.stream().noneMatch(path::startsWith))) {
+                return chain.filter(exchange);
+            }
+            final String requestApiKey = exchange.getRequest().getHeaders().getFirst(API_KEY_HEADER);
+            if (requestApiKey == null || !requestApiKey.equals(apiKey)) {
+                log.warn("Invalid or missing API key for request: {}", path);
+                final ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                final DataBuffer body = response.bufferFactory()
+                        .wrap("Invalid or missing API key".getBytes(StandardCharsets.UTF_8));
+                return response.writeWith(Mono.just(body));
+            }
+            final UsernamePasswordAuthenticationToken auth =
+                    new UsernamePasswordAuthenticationToken("apiKeyUser", null, List.of());
+            return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.BulkJob;
+import com.naveen.devices.domain.BulkJobStatus;
+import com.naveen.devices.domain.BulkJobType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to {@code bulk_jobs}. Status transitions are conditional updates so two
+ * instances polling the same table cannot both claim a job. Claiming stores a fresh lease
+ * token in {@code owner}; every later write is conditional on it, so a worker whose stale
+ * job was reclaimed elsewhere finds out on its next write instead of overwriting the new
+ * owner's progress.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BulkJobRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String COLUMNS =
+            "id, type, status, parameters, job_cursor, processed, failed, last_error,"
+                    + " created_at, started_at, updated_at, finished_at";
+    private static final String INSERT_SQL =
+            "insert into bulk_jobs (id, type, status, parameters, processed, failed, created_at, updated_at)"
+                    + " values (?, ?, ?, ?, 0, 0, ?, ?)";
+    private static final String SELECT_BY_ID_SQL = "select " + COLUMNS + " from bulk_jobs where id = ?";
+    private static final String SELECT_CLAIMABLE_SQL =
+            "select id from bulk_jobs where status = ? or (status = ? and updated_at < ?)"
+                    + " order by created_at limit ?";
+    private static final String CLAIM_SQL =
+            "update bulk_jobs set status = ?, owner = ?, started_at = coalesce(started_at, ?), updated_at = ?"
+                    + " where id = ? and (status = ? or (status = ? and updated_at < ?))";
+    private static final String ADVANCE_SQL =
+            "update bulk_jobs set job_cursor = ?, processed = processed + ?, failed = failed + ?,"
+                    + " last_error = coalesce(?, last_error), updated_at = ? where id = ? and owner = ?";
+    private static final String REQUEUE_SQL =
+            "update bulk_jobs set status = ?, owner = null, updated_at = ? where id = ? and status = ? and owner = ?";
+    private static final String FINISH_SQL =
+            "update bulk_jobs set status = ?, last_error = coalesce(?, last_error), updated_at = ?, finished_at = ?"
+                    + " where id = ? and owner = ?";
+
+    private static final RowMapper<BulkJob> ROW_MAPPER = BulkJobRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(final String id, final BulkJobType type, final String parameters, final OffsetDateTime now) {
+        final Timestamp ts = Timestamp.from(now.toInstant());
+        jdbcTemplate.update(INSERT_SQL, id, type.name(), BulkJobStatus.QUEUED.name(), parameters, ts, ts);
+    }
+
+    public Optional<BulkJob> findById(final String id) {
+        return jdbcTemplate.query(SELECT_BY_ID_SQL, ROW_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Queued jobs plus running jobs whose owner stopped sending heartbeats before
+     * {@code staleBefore}, oldest first.
+     */
+    public List<String> findClaimable(final OffsetDateTime staleBefore, final int limit) {
+        return jdbcTemplate.queryForList(SELECT_CLAIMABLE_SQL, String.class, BulkJobStatus.QUEUED.name(),
+                BulkJobStatus.RUNNING.name(), Timestamp.from(staleBefore.toInstant()), limit);
+    }
+
+    /**
+     * @param owner lease token the caller passes to every later write for this run
+     * @return whether this caller won the job
+     */
+    public boolean claim(final String id, final String owner, final OffsetDateTime staleBefore,
+                         final OffsetDateTime now) {
+        final Timestamp ts = Timestamp.from(now.toInstant());
+        return jdbcTemplate.update(CLAIM_SQL, BulkJobStatus.RUNNING.name(), owner, ts, ts, id,
+                BulkJobStatus.QUEUED.name(), BulkJobStatus.RUNNING.name(),
+                Timestamp.from(staleBefore.toInstant())) == 1;
+    }
+
+    /**
+     * Records a committed chunk. Must run in the chunk's transaction so the cursor never gets
+     * ahead of, or behind, the work it describes.
+     *
+     * @return whether {@code owner} still holds the job; if not the chunk must be rolled back
+     */
+    public boolean advance(final String id, final String owner, final String cursor, final long processed,
+                           final long failed, final String lastError, final OffsetDateTime now) {
+        return jdbcTemplate.update(ADVANCE_SQL, cursor, processed, failed, truncate(lastError),
+                Timestamp.from(now.toInstant()), id, owner) == 1;
+    }
+
+    /**
+     * Hands a running job back to the queue, e.g. on shutdown, so the next poll resumes it
+     * without waiting for the heartbeat to go stale.
+     */
+    public void requeue(final String id, final String owner, final OffsetDateTime now) {
+        jdbcTemplate.update(REQUEUE_SQL, BulkJobStatus.QUEUED.name(), Timestamp.from(now.toInstant()), id,
+                BulkJobStatus.RUNNING.name(), owner);
+    }
+
+    /**
+     * @return whether {@code owner} still held the job and recorded the outcome
+     */
+    public boolean finish(final String id, final String owner, final BulkJobStatus status, final String error,
+                          final OffsetDateTime now) {
+        final Timestamp ts = Timestamp.from(now.toInstant());
+        return jdbcTemplate.update(FINISH_SQL, status.name(), truncate(error), ts, ts, id, owner) == 1;
+    }
+
+    private static String truncate(final String message) {
+        return message == null || message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static BulkJob mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+        return new BulkJob(
+                rs.getString("id"),
+                BulkJobType.valueOf(rs.getString("type")),
+                BulkJobStatus.valueOf(rs.getString("status")),
+                rs.getString("parameters"),
+                rs.getString("job_cursor"),
+                rs.getLong("processed"),
+                rs.getLong("failed"),
+                rs.getString("last_error"),
+                toOffset(rs.getTimestamp("created_at")),
+                toOffset(rs.getTimestamp("started_at")),
+                toOffset(rs.getTimestamp("updated_at")),
+                toOffset(rs.getTimestamp("finished_at"))
+        );
+    }
+
+    private static OffsetDateTime toOffset(final Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant().atOffset(ZoneOffset.UTC);
+    }
+}
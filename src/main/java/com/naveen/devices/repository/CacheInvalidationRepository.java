@@ -0,0 +1,56 @@
+package com.naveen.devices.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC access to {@code cache_invalidations}, the table the
+ * {@link com.naveen.devices.service.JdbcCacheInvalidationBus} polls.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CacheInvalidationRepository {
+
+    private static final String INSERT_SQL =
+            "insert into cache_invalidations (origin, device_ids, created_at) values (?, ?, ?)";
+    private static final String SELECT_AFTER_SQL =
+            "select id, origin, device_ids, created_at from cache_invalidations where id > ? order by id limit ?";
+    private static final String SELECT_MAX_ID_SQL = "select coalesce(max(id), 0) from cache_invalidations";
+    private static final String DELETE_BEFORE_SQL = "delete from cache_invalidations where created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Invalidation(long id, String origin, String deviceIds, Instant createdAt) {}
+
+    public void insertAll(final String origin, final List<String> deviceIds, final Instant createdAt) {
+        final Timestamp ts = Timestamp.from(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, deviceIds, deviceIds.size(), (ps, ids) -> {
+            ps.setString(1, origin);
+            ps.setString(2, ids);
+            ps.setTimestamp(3, ts);
+        });
+    }
+
+    public List<Invalidation> findAfter(final long afterId, final int limit) {
+        return jdbcTemplate.query(SELECT_AFTER_SQL, (rs, rowNum) -> new Invalidation(
+                rs.getLong("id"),
+                rs.getString("origin"),
+                rs.getString("device_ids"),
+                rs.getTimestamp("created_at").toInstant()
+        ), afterId, limit);
+    }
+
+    public long maxId() {
+        final Long maxId = jdbcTemplate.queryForObject(SELECT_MAX_ID_SQL, Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    public int deleteBefore(final Instant cutoff) {
+        return jdbcTemplate.update(DELETE_BEFORE_SQL, Timestamp.from(cutoff));
+    }
+}
@@ -0,0 +1,99 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.DeviceState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Moves rows from {@code devices} into {@code devices_archive}, leaving a tombstone so sync
+ * clients drop them too. Callers must run {@link #lockArchivable} and {@link #moveToArchive}
+ * in one transaction so the row locks keep concurrent updates from slipping in between the
+ * copy and the delete. On MySQL the archive is range-partitioned by year of
+ * {@code update_time}; {@link #addYearPartition} splits the next year off the catch-all
+ * {@code pmax} partition.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceArchiveRepository {
+
+    private static final String LOCK_ARCHIVABLE_SQL =
+            "select id from devices where state = :state and update_time < :cutoff"
+                    + " order by update_time, id limit :limit for update";
+    private static final String COPY_SQL =
+            "insert into devices_archive (id, name, brand, state, creation_time, update_time, archived_at)"
+                    + " select id, name, brand, state, creation_time, update_time, :archivedAt from devices where id in (:ids)";
+    private static final String TOMBSTONE_SQL =
+            "insert into device_tombstones (device_id, deleted_at) select id, :archivedAt from devices where id in (:ids)";
+    private static final String DELETE_SQL = "delete from devices where id in (:ids)";
+    private static final String COUNT_SQL = "select count(*) from devices_archive";
+    private static final String PARTITIONS_SQL = "select partition_name from information_schema.partitions"
+            + " where table_schema = database() and table_name = 'devices_archive' and partition_name is not null";
+    private static final String ADD_PARTITION_SQL = "alter table devices_archive reorganize partition pmax into ("
+            + "partition p%d values less than ('%d-01-01'), partition pmax values less than (maxvalue))";
+    private static final Pattern YEAR_PARTITION = Pattern.compile("p(\\d{4})");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private volatile Boolean partitioned;
+
+    public List<Long> lockArchivable(final DeviceState state, final OffsetDateTime cutoff, final int limit) {
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("state", state.name())
+                .addValue("cutoff", Timestamp.from(cutoff.toInstant()))
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(LOCK_ARCHIVABLE_SQL, params, Long.class);
+    }
+
+    public int moveToArchive(final List<Long> ids, final OffsetDateTime archivedAt) {
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.from(archivedAt.toInstant()));
+        jdbcTemplate.update(COPY_SQL, params);
+        jdbcTemplate.update(TOMBSTONE_SQL, params);
+        return jdbcTemplate.update(DELETE_SQL, params);
+    }
+
+    /**
+     * The year of the newest yearly partition, empty where the archive is not partitioned.
+     */
+    public OptionalInt lastPartitionYear() {
+        if (!isPartitioned()) {
+            return OptionalInt.empty();
+        }
+        return jdbcTemplate.getJdbcTemplate().queryForList(PARTITIONS_SQL, String.class).stream()
+                .map(YEAR_PARTITION::matcher)
+                .filter(Matcher::matches)
+                .mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+                .max();
+    }
+
+    /**
+     * Splits rows updated in {@code year} off {@code pmax}. Cheap while {@code pmax} is still
+     * empty, which is why the archiver adds each year ahead of time.
+     */
+    public void addYearPartition(final int year) {
+        jdbcTemplate.getJdbcTemplate().execute(ADD_PARTITION_SQL.formatted(year, year + 1));
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection ->
+                    "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+        return partitioned;
+    }
+
+    public long countArchived() {
+        final Long count = jdbcTemplate.getJdbcTemplate().queryForObject(COUNT_SQL, Long.class);
+        return count != null ? count : 0L;
+    }
+}
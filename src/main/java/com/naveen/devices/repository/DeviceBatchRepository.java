@@ -0,0 +1,45 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Multi-row JDBC inserts into {@code devices} for bulk loads, skipping Hibernate's
+ * per-entity overhead. Ids come from the {@link DeviceIdGenerator}. Callers own the
+ * transaction and must evict Hibernate's query cache afterwards, since these writes bypass it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceBatchRepository {
+
+    private static final String INSERT_SQL =
+            "insert into devices (id, name, brand, state, creation_time, update_time) values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DeviceIdGenerator idGenerator;
+
+    /**
+     * Gives the devices ids where they have none and inserts them in one JDBC batch.
+     */
+    public void insertAll(final List<Device> devices) {
+        for (final Device device : devices) {
+            if (device.getId() == null) {
+                device.setId(idGenerator.nextId());
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, devices, devices.size(), (ps, device) -> {
+            ps.setLong(1, device.getId());
+            ps.setString(2, device.getName());
+            ps.setString(3, device.getBrand());
+            ps.setString(4, device.getState().name());
+            ps.setTimestamp(5, Timestamp.from(device.getCreationTime().toInstant()));
+            ps.setTimestamp(6, Timestamp.from(device.getUpdateTime().toInstant()));
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.exception.FeatureDisabledException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Locks {@code AVAILABLE} devices for a claim so concurrent claimers never get the same one.
+ * Where the database supports it (MySQL 8) this is one {@code SELECT ... FOR UPDATE SKIP LOCKED},
+ * so claimers pass over each other's rows instead of waiting. Otherwise (H2) candidates are
+ * read without a lock and then locked one by one; a claimer waits for a row another claimer
+ * holds and passes it over once it sees it is no longer available. {@code devices.claim.skip-locked}
+ * forces the second strategy. {@code devices.claim.enabled} off refuses claims, as sharding
+ * requires since claims only see one database.
+ */
+@Slf4j
+@Repository
+public class DeviceClaimRepository {
+
+    private static final String AVAILABLE_AFTER = " from Device d where d.state = :available"
+            + " and (:brand is null or d.brand = :brand) and d.id > :afterId order by d.id";
+
+    private final EntityManager entityManager;
+    private final boolean skipLocked;
+    private final boolean enabled;
+
+    public DeviceClaimRepository(final EntityManager entityManager,
+                                 @Value("${devices.claim.skip-locked:true}") final boolean skipLocked,
+                                 @Value("${devices.claim.enabled:true}") final boolean enabled) {
+        this.entityManager = entityManager;
+        this.enabled = enabled;
+        this.skipLocked = skipLocked && entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect().supportsSkipLocked();
+        log.info("Device claims use {}", this.skipLocked ? "SKIP LOCKED" : "row-by-row locking");
+    }
+
+    /**
+     * Up to {@code limit} available devices after {@code afterId} in id order, optionally of
+     * one brand, each locked until the surrounding transaction ends. Fewer are returned only
+     * when no other unlocked device is available.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Device> lockAvailable(final String brand, final long afterId, final int limit) {
+        if (!enabled) {
+            throw new FeatureDisabledException("devices.claim.enabled");
+        }
+        return skipLocked ? lockSkippingLocked(brand, afterId, limit) : lockRowByRow(brand, afterId, limit);
+    }
+
+    private List<Device> lockSkippingLocked(final String brand, final long afterId, final int limit) {
+        return entityManager.unwrap(Session.class)
+                .createSelectionQuery("select d" + AVAILABLE_AFTER, Device.class)
+                .setParameter("available", DeviceState.AVAILABLE)
+                .setParameter("brand", brand)
+                .setParameter("afterId", afterId)
+                .setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private List<Device> lockRowByRow(final String brand, final long afterId, final int limit) {
+        final List<Device> locked = new ArrayList<>(limit);
+        long cursor = afterId;
+        while (locked.size() < limit) {
+            final List<Long> candidates = entityManager
+                    .createQuery("select d.id" + AVAILABLE_AFTER, Long.class)
+                    .setParameter("available", DeviceState.AVAILABLE)
+                    .setParameter("brand", brand)
+                    .setParameter("afterId", cursor)
+                    .setMaxResults(limit - locked.size())
+                    .getResultList();
+            if (candidates.isEmpty()) {
+                break;
+            }
+            for (final Long id : candidates) {
+                final Device device = entityManager.find(Device.class, id, LockModeType.PESSIMISTIC_WRITE);
+                if (device != null && device.getState() == DeviceState.AVAILABLE
+                        && (brand == null || brand.equals(device.getBrand()))) {
+                    locked.add(device);
+                }
+            }
+            cursor = candidates.get(candidates.size() - 1);
+        }
+        return locked;
+    }
+}
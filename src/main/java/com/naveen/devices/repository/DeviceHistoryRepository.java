@@ -0,0 +1,49 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.DeviceHistoryEntry;
+import com.naveen.devices.dto.DeviceHistoryResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Append-only JDBC access to {@code device_history}. Plain JDBC keeps inserts batchable,
+ * which Hibernate cannot do for IDENTITY keys.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceHistoryRepository {
+
+    private static final String INSERT_SQL =
+            "insert into device_history (device_id, from_state, to_state, changed_at) values (?, ?, ?, ?)";
+    private static final String SELECT_PAGE_SQL =
+            "select from_state, to_state, changed_at from device_history where device_id = ?"
+                    + " order by changed_at desc, id desc limit ? offset ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(final DeviceHistoryEntry entry) {
+        insertAll(List.of(entry));
+    }
+
+    public void insertAll(final List<DeviceHistoryEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.deviceId());
+            ps.setString(2, entry.fromState() != null ? entry.fromState().name() : null);
+            ps.setString(3, entry.toState().name());
+            ps.setTimestamp(4, Timestamp.from(entry.changedAt().toInstant()));
+        });
+    }
+
+    public List<DeviceHistoryResponse> findPage(final Long deviceId, final int limit, final long offset) {
+        return jdbcTemplate.query(SELECT_PAGE_SQL, (rs, rowNum) -> new DeviceHistoryResponse(
+                rs.getString("from_state"),
+                rs.getString("to_state"),
+                rs.getTimestamp("changed_at").toInstant().atOffset(ZoneOffset.UTC)
+        ), deviceId, limit, offset);
+    }
+}
@@ -0,0 +1,36 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Loads many devices by id in one pass through Hibernate's multi-load: devices already in the
+ * second-level cache are taken from it and only the rest are read, with IN queries of at most
+ * {@link DeviceRepository#ID_PAGE_SIZE} ids.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceLookupRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Devices for {@code ids} in the same order, with {@code null} where no device exists.
+     */
+    @Transactional(readOnly = true)
+    public List<Device> findAllInOrder(final List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Device.class)
+                .with(CacheMode.NORMAL)
+                .withBatchSize(DeviceRepository.ID_PAGE_SIZE)
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+    }
+}
@@ -0,0 +1,202 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Brand and state membership of every device, kept in memory so the filtered finders know
+ * exactly which ids to fetch and can count members without a query
+ * ({@code devices.membership-index.enabled}). It is the {@link DeviceSlotTable} of
+ * {@link DeviceSnapshotStore} without the snapshot's name and creation time columns: each
+ * brand and state is a bitmap over device slots, so a change or removal is a few bit flips,
+ * and the ids of a brand or state are gathered from their slots and sorted when asked for.
+ *
+ * <p>Like the snapshot the index is loaded once at startup and then kept current from
+ * {@link DeviceChangedEvent} / {@link DevicesRemovedEvent} after each commit; until the load
+ * finishes {@link #isReady()} is false. It is much smaller than the snapshot since names
+ * stay in the database.
+ */
+@Slf4j
+@Component
+public class DeviceMembershipIndex {
+
+    static final String SELECT_MEMBERSHIP_SQL =
+            "select id, brand, state, coalesce(update_time, creation_time) as update_time from devices";
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private final DeviceSlotTable table = new DeviceSlotTable();
+
+    public DeviceMembershipIndex(final JdbcTemplate jdbcTemplate,
+                                 final MeterRegistry meterRegistry,
+                                 @Value("${devices.membership-index.enabled:false}") final boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        if (enabled) {
+            Gauge.builder("devices.membership-index.size", this, DeviceMembershipIndex::size)
+                    .description("Devices tracked by the brand and state membership index")
+                    .register(meterRegistry);
+            Gauge.builder("devices.membership-index.bytes", this, DeviceMembershipIndex::estimatedBytes)
+                    .description("Estimated heap retained by the brand and state membership index")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Streams the id, brand and state of every device into the index under the write lock,
+     * so change events committed meanwhile are applied on top of the loaded rows.
+     */
+    public void load() {
+        final long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            final JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(LOAD_FETCH_SIZE);
+            streaming.query(SELECT_MEMBERSHIP_SQL, rs -> {
+                table.put(rs.getLong("id"),
+                        rs.getString("brand"),
+                        DeviceState.valueOf(rs.getString("state")),
+                        DeviceSnapshotStore.toMicros(rs.getTimestamp("update_time").toInstant()));
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed brand and state of {} devices in {} ms",
+                size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(final DeviceChangedEvent event) {
+        if (enabled) {
+            upsert(event.id(), event.brand(), event.state(), event.updateTime());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDevicesRemoved(final DevicesRemovedEvent event) {
+        if (enabled) {
+            event.ids().forEach(this::remove);
+        }
+    }
+
+    /**
+     * Moves a device into the sets of its committed brand and state. An event older than the
+     * one already applied for the device, or than its removal, is ignored.
+     */
+    public void upsert(final long id, final String brand, final DeviceState state, final OffsetDateTime updateTime) {
+        final long updated = DeviceSnapshotStore.toMicros(updateTime.toInstant());
+        lock.writeLock().lock();
+        try {
+            if (table.isStale(id, updated)) {
+                return;
+            }
+            table.put(id, brand, state, updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final long id) {
+        lock.writeLock().lock();
+        try {
+            table.remove(id, DeviceSnapshotStore.toMicros(Instant.now()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the devices of {@code brand}, ascending.
+     */
+    public long[] idsByBrand(final String brand) {
+        lock.readLock().lock();
+        try {
+            return table.idsOf(table.brandSlots(brand));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the devices in {@code state}, ascending.
+     */
+    public long[] idsByState(final DeviceState state) {
+        lock.readLock().lock();
+        try {
+            return table.idsOf(table.stateSlots(state));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByBrand(final String brand) {
+        lock.readLock().lock();
+        try {
+            return table.brandSlots(brand).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countByState(final DeviceState state) {
+        lock.readLock().lock();
+        try {
+            return table.stateSlots(state).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return table.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap held by the index: the slot columns and id table at their allocated
+     * capacity plus the brand and state bitmaps.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return table.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -2,11 +2,82 @@ package com.naveen.devices.repository;
 
 import com.naveen.devices.domain.Device;
 import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceResponse;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface DeviceRepository extends JpaRepository<Device, Long> {
+
+    String RESPONSE_PROJECTION = "select new com.naveen.devices.dto.DeviceResponse("
+            + "d.id, d.name, d.brand, d.state, d.creationTime, d.updateTime) from Device d";
+    /** Most ids bound into one {@code in} list by callers fetching devices by id. */
+    int ID_PAGE_SIZE = 500;
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Device> findByBrand(String brand);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Device> findByState(DeviceState state);
+
+    @Query(RESPONSE_PROJECTION + " where d.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<DeviceResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_PROJECTION)
+    List<DeviceResponse> findAllResponses();
+
+    @Query(RESPONSE_PROJECTION + " where d.brand = :brand")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<DeviceResponse> findResponsesByBrand(@Param("brand") String brand);
+
+    @Query(RESPONSE_PROJECTION + " where d.state = :state")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<DeviceResponse> findResponsesByState(@Param("state") DeviceState state);
+
+    @Query(RESPONSE_PROJECTION + " where d.id in :ids order by d.id")
+    List<DeviceResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByBrand(String brand);
+
+    long countByState(DeviceState state);
+
+    @Query(RESPONSE_PROJECTION + " where d.updateTime >= :since order by d.updateTime, d.id")
+    List<DeviceResponse> findResponsesChangedSince(@Param("since") OffsetDateTime since, Limit limit);
+
+    /**
+     * Keyset page of devices strictly after {@code (since, afterId)} in {@code (updateTime, id)}
+     * order. The leading {@code updateTime >= since} keeps this a range scan on the sync index.
+     */
+    @Query(RESPONSE_PROJECTION + " where d.updateTime >= :since and (d.updateTime > :since or d.id > :afterId)"
+            + " and d.updateTime <= :until order by d.updateTime, d.id")
+    List<DeviceResponse> findResponsesChangedAfter(@Param("since") OffsetDateTime since,
+                                                   @Param("afterId") Long afterId,
+                                                   @Param("until") OffsetDateTime until,
+                                                   Limit limit);
+
+    /**
+     * Keyset chunk for bulk jobs: devices after {@code afterId} in id order, optionally
+     * filtered by brand and state. The rows stay locked until the chunk commits, so a
+     * concurrent update cannot move a device into, say, {@code IN_USE} between the filter and
+     * the job's write.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Device d where d.id > :afterId and (:brand is null or d.brand = :brand)"
+            + " and (:state is null or d.state = :state) order by d.id")
+    List<Device> findChunkAfter(@Param("afterId") long afterId,
+                                @Param("brand") String brand,
+                                @Param("state") DeviceState state,
+                                Limit limit);
 }
@@ -0,0 +1,52 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Decides which database a device lives in. {@link #SINGLE} is the default deployment and
+ * leaves every call on the one data source; with {@code devices.sharding.enabled} the
+ * {@link ShardedDeviceRouter} spreads devices over several.
+ */
+public interface DeviceShardRouter {
+
+    DeviceShardRouter SINGLE = new SingleDatabaseRouter();
+
+    boolean isSharded();
+
+    /**
+     * Routes the surrounding transaction to the shard holding {@code id}. Must be called
+     * before the transaction's first statement.
+     */
+    void route(long id);
+
+    /**
+     * Gives a new device its id and routes the surrounding transaction to the shard the id
+     * belongs to. Without sharding the id is left to the
+     * {@link com.naveen.devices.domain.DeviceIdGenerator}.
+     */
+    void assignId(Device device);
+
+    /**
+     * Runs a non-transactional read against the shard holding {@code id}.
+     */
+    <T> T callOnShardOf(long id, Supplier<T> work);
+
+    /**
+     * Runs {@code query} on every shard in parallel, each in its own read-only transaction,
+     * and merges the results in {@code order}. Without sharding the query runs once on the
+     * calling thread and its order is kept.
+     */
+    <T> List<T> gather(Supplier<List<T>> query, Comparator<? super T> order);
+
+    /**
+     * Splits {@code items} by the shard of their device and hands each group to
+     * {@code action} with connections taken from that shard.
+     */
+    <T> void forEachShard(List<T> items, ToLongFunction<? super T> deviceId, Consumer<List<T>> action);
+}
@@ -0,0 +1,233 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.DeviceState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Devices in parallel primitive columns addressed by slot, shared by
+ * {@link DeviceSnapshotStore} and {@link DeviceMembershipIndex}: id, dictionary-encoded
+ * brand, state as a byte and update time as epoch micros, with per-brand and per-state
+ * {@link BitSet}s over slots. Moving a device between brands or states is two bit flips.
+ * Slots of removed devices are reused. Owners keep further columns of their own sized to
+ * {@link #capacity()}. Not thread-safe; owners guard it with their lock.
+ *
+ * <p>A removal leaves a tombstone with the time it was applied, so a change event committed
+ * before the removal but delivered after it cannot bring the device back. Tombstones are
+ * pruned once older than {@link #TOMBSTONE_HORIZON_MICROS}, far longer than any request.
+ */
+final class DeviceSlotTable {
+
+    private static final DeviceState[] STATES = DeviceState.values();
+    private static final long[] NO_IDS = new long[0];
+    private static final int INITIAL_CAPACITY = 1024;
+    static final long TOMBSTONE_HORIZON_MICROS = TimeUnit.MINUTES.toMicros(10);
+    /** Entry, boxed key and boxed value of a tombstone in the linked map. */
+    private static final int TOMBSTONE_BYTES = 88;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] brandCodes = new int[INITIAL_CAPACITY];
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private long[] updateMicros = new long[INITIAL_CAPACITY];
+    private int highWater;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final LongIntHashMap slotsById = new LongIntHashMap(INITIAL_CAPACITY);
+    /** Removal time in epoch micros by id, oldest first. */
+    private final LinkedHashMap<Long, Long> removedMicrosById = new LinkedHashMap<>();
+
+    private final List<String> brandDictionary = new ArrayList<>();
+    private final Map<String, Integer> brandCodesByName = new HashMap<>();
+    private final List<BitSet> brandSlots = new ArrayList<>();
+    private final BitSet[] stateSlots = new BitSet[STATES.length];
+
+    DeviceSlotTable() {
+        Arrays.setAll(stateSlots, i -> new BitSet());
+    }
+
+    /**
+     * @return the slot of {@code id}, or {@link LongIntHashMap#MISSING}
+     */
+    int slotOf(final long id) {
+        return slotsById.get(id);
+    }
+
+    /**
+     * Whether an event for {@code id} updated at {@code updated} would go back in time: the
+     * device holds a later update, or was removed at or after {@code updated}.
+     */
+    boolean isStale(final long id, final long updated) {
+        final int slot = slotsById.get(id);
+        if (slot != LongIntHashMap.MISSING) {
+            return updateMicros[slot] > updated;
+        }
+        final Long removed = removedMicrosById.get(id);
+        return removed != null && removed >= updated;
+    }
+
+    /**
+     * Stores {@code id} in its existing slot or a free one, moving it out of the sets of its
+     * previous brand and state.
+     *
+     * @return the slot
+     */
+    int put(final long id, final String brand, final DeviceState state, final long updated) {
+        int slot = slotsById.get(id);
+        if (slot == LongIntHashMap.MISSING) {
+            slot = allocateSlot();
+            slotsById.put(id, slot);
+            ids[slot] = id;
+        } else {
+            brandSlots.get(brandCodes[slot]).clear(slot);
+            stateSlots[states[slot]].clear(slot);
+        }
+        final int brandCode = brandCode(brand);
+        brandCodes[slot] = brandCode;
+        states[slot] = (byte) state.ordinal();
+        updateMicros[slot] = updated;
+        brandSlots.get(brandCode).set(slot);
+        stateSlots[state.ordinal()].set(slot);
+        return slot;
+    }
+
+    /**
+     * Frees the slot of {@code id} and records a tombstone at {@code removedMicros}, also when
+     * the device is not present yet, pruning tombstones past the horizon.
+     *
+     * @return the slot {@code id} occupied, now free, or {@link LongIntHashMap#MISSING}
+     */
+    int remove(final long id, final long removedMicros) {
+        removedMicrosById.remove(id);
+        removedMicrosById.put(id, removedMicros);
+        pruneTombstones(removedMicros - TOMBSTONE_HORIZON_MICROS);
+        final int slot = slotsById.remove(id);
+        if (slot == LongIntHashMap.MISSING) {
+            return slot;
+        }
+        brandSlots.get(brandCodes[slot]).clear(slot);
+        stateSlots[states[slot]].clear(slot);
+        ids[slot] = 0L;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+        }
+        freeSlots[freeCount++] = slot;
+        return slot;
+    }
+
+    long id(final int slot) {
+        return ids[slot];
+    }
+
+    String brand(final int slot) {
+        return brandDictionary.get(brandCodes[slot]);
+    }
+
+    DeviceState state(final int slot) {
+        return STATES[states[slot]];
+    }
+
+    long updateMicros(final int slot) {
+        return updateMicros[slot];
+    }
+
+    /**
+     * @return slots of the devices of {@code brand}, empty for an unknown brand; not a copy
+     */
+    BitSet brandSlots(final String brand) {
+        final Integer code = brandCodesByName.get(brand);
+        return code == null ? new BitSet(0) : brandSlots.get(code);
+    }
+
+    /**
+     * @return slots of the devices in {@code state}; not a copy
+     */
+    BitSet stateSlots(final DeviceState state) {
+        return stateSlots[state.ordinal()];
+    }
+
+    /**
+     * Ids in {@code slots}, ascending.
+     */
+    long[] idsOf(final BitSet slots) {
+        final int count = slots.cardinality();
+        if (count == 0) {
+            return NO_IDS;
+        }
+        final long[] result = new long[count];
+        int i = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            result[i++] = ids[slot];
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    int size() {
+        return slotsById.size();
+    }
+
+    int tombstones() {
+        return removedMicrosById.size();
+    }
+
+    /**
+     * Length of the columns; owners size their own columns to it after each {@link #put}.
+     */
+    int capacity() {
+        return ids.length;
+    }
+
+    /**
+     * Heap of the columns and id table at their allocated capacity plus the bitmaps and
+     * tombstones.
+     */
+    long estimatedBytes() {
+        // id, update micros, brand code, state byte
+        long bytes = (long) ids.length * (Long.BYTES * 2 + Integer.BYTES + 1) + slotsById.estimatedBytes()
+                + (long) removedMicrosById.size() * TOMBSTONE_BYTES;
+        for (final BitSet bits : brandSlots) {
+            bytes += bits.size() / Byte.SIZE;
+        }
+        for (final BitSet bits : stateSlots) {
+            bytes += bits.size() / Byte.SIZE;
+        }
+        return bytes;
+    }
+
+    private void pruneTombstones(final long before) {
+        final Iterator<Long> removed = removedMicrosById.values().iterator();
+        while (removed.hasNext() && removed.next() < before) {
+            removed.remove();
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == ids.length) {
+            final int capacity = ids.length << 1;
+            ids = Arrays.copyOf(ids, capacity);
+            brandCodes = Arrays.copyOf(brandCodes, capacity);
+            states = Arrays.copyOf(states, capacity);
+            updateMicros = Arrays.copyOf(updateMicros, capacity);
+        }
+        return highWater++;
+    }
+
+    private int brandCode(final String brand) {
+        return brandCodesByName.computeIfAbsent(brand, key -> {
+            brandDictionary.add(key);
+            brandSlots.add(new BitSet());
+            return brandDictionary.size() - 1;
+        });
+    }
+}
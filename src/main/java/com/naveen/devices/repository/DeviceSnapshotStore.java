@@ -0,0 +1,241 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.DeviceResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory-resident copy of the {@code devices} table for read-heavy deployments
+ * ({@code devices.snapshot.enabled}). Rows live in a {@link DeviceSlotTable}: parallel
+ * primitive columns addressed by slot, with brands dictionary-encoded, states stored as a
+ * byte and timestamps as epoch micros. Its per-brand and per-state {@link BitSet}s over slots
+ * answer the filtered finders without scanning; names and creation times are kept in two
+ * more columns here.
+ *
+ * <p>The table is loaded once at startup and then kept current from
+ * {@link DeviceChangedEvent} / {@link DevicesRemovedEvent} after each commit. Until the load
+ * finishes {@link #isReady()} is false and callers read from the database instead.
+ */
+@Slf4j
+@Component
+public class DeviceSnapshotStore {
+
+    /** {@code update_time} is nullable; a row never updated carries its creation time instead. */
+    static final String SELECT_ALL_SQL =
+            "select id, name, brand, state, creation_time, coalesce(update_time, creation_time) as update_time from devices";
+    private static final int LOAD_FETCH_SIZE = 1000;
+    /** Rough retained size of a short name: String header plus a Latin-1 byte[] of ~16 chars. */
+    private static final int ESTIMATED_NAME_BYTES = 56;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private final DeviceSlotTable table = new DeviceSlotTable();
+    private String[] names = new String[table.capacity()];
+    private long[] creationMicros = new long[table.capacity()];
+
+    public DeviceSnapshotStore(final JdbcTemplate jdbcTemplate,
+                               final MeterRegistry meterRegistry,
+                               @Value("${devices.snapshot.enabled:false}") final boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        if (enabled) {
+            Gauge.builder("devices.snapshot.size", this, DeviceSnapshotStore::size)
+                    .description("Devices held in the in-memory snapshot")
+                    .register(meterRegistry);
+            Gauge.builder("devices.snapshot.bytes", this, DeviceSnapshotStore::estimatedBytes)
+                    .description("Estimated heap retained by the in-memory snapshot")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Streams the whole table into the snapshot. Holds the write lock throughout, so change
+     * events committed meanwhile queue up and are applied on top of the loaded rows.
+     */
+    public void load() {
+        final long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            final JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(LOAD_FETCH_SIZE);
+            streaming.query(SELECT_ALL_SQL, rs -> {
+                put(rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("brand"),
+                        DeviceState.valueOf(rs.getString("state")),
+                        toMicros(rs.getTimestamp("creation_time").toInstant()),
+                        toMicros(rs.getTimestamp("update_time").toInstant()));
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        final int size = size();
+        log.info("Loaded {} devices into the snapshot in {} ms, ~{} bytes/device",
+                size, (System.nanoTime() - started) / 1_000_000, size == 0 ? 0 : estimatedBytes() / size);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(final DeviceChangedEvent event) {
+        if (enabled) {
+            upsert(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDevicesRemoved(final DevicesRemovedEvent event) {
+        if (enabled) {
+            event.ids().forEach(this::remove);
+        }
+    }
+
+    /**
+     * Applies a committed change. Events for the same device can arrive out of order from
+     * concurrent requests, so an older {@code updateTime} never overwrites a newer one, nor
+     * brings back a device removed since.
+     */
+    public void upsert(final DeviceChangedEvent event) {
+        final long updated = toMicros(event.updateTime().toInstant());
+        lock.writeLock().lock();
+        try {
+            if (table.isStale(event.id(), updated)) {
+                return;
+            }
+            put(event.id(), event.name(), event.brand(), event.state(), toMicros(event.creationTime().toInstant()), updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final long id) {
+        lock.writeLock().lock();
+        try {
+            final int slot = table.remove(id, toMicros(Instant.now()));
+            if (slot != LongIntHashMap.MISSING) {
+                names[slot] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<DeviceResponse> findById(final long id) {
+        lock.readLock().lock();
+        try {
+            final int slot = table.slotOf(id);
+            return slot == LongIntHashMap.MISSING ? Optional.empty() : Optional.of(toResponse(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<DeviceResponse> findByBrand(final String brand) {
+        lock.readLock().lock();
+        try {
+            return collect(table.brandSlots(brand));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<DeviceResponse> findByState(final DeviceState state) {
+        lock.readLock().lock();
+        try {
+            return collect(table.stateSlots(state));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return table.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap held by the snapshot: the slot table, the name and creation time
+     * columns at their allocated capacity, and an average-sized name per live device.
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            // creation micros, compressed name reference
+            final long columns = (long) names.length * (Long.BYTES + 4);
+            return table.estimatedBytes() + columns + (long) table.size() * ESTIMATED_NAME_BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(final long id, final String name, final String brand, final DeviceState state,
+                     final long created, final long updated) {
+        final int slot = table.put(id, brand, state, updated);
+        if (names.length < table.capacity()) {
+            names = Arrays.copyOf(names, table.capacity());
+            creationMicros = Arrays.copyOf(creationMicros, table.capacity());
+        }
+        names[slot] = name;
+        creationMicros[slot] = created;
+    }
+
+    private List<DeviceResponse> collect(final BitSet slots) {
+        final List<DeviceResponse> result = new ArrayList<>(slots.cardinality());
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            result.add(toResponse(slot));
+        }
+        return result;
+    }
+
+    private DeviceResponse toResponse(final int slot) {
+        return new DeviceResponse(table.id(slot), names[slot], table.brand(slot),
+                table.state(slot), fromMicros(creationMicros[slot]), fromMicros(table.updateMicros(slot)));
+    }
+
+    static long toMicros(final Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000L);
+    }
+
+    static OffsetDateTime fromMicros(final long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,51 @@
+package com.naveen.devices.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records deleted device ids so replicas using the sync endpoint can drop them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceTombstoneRepository {
+
+    private static final String INSERT_SQL = "insert into device_tombstones (device_id, deleted_at) values (?, ?)";
+    private static final String SELECT_AFTER_SQL =
+            "select device_id, deleted_at from device_tombstones"
+                    + " where deleted_at >= ? and (deleted_at > ? or device_id > ?) and deleted_at <= ?"
+                    + " order by deleted_at, device_id limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Tombstone(long deviceId, Instant deletedAt) {}
+
+    public void insert(final Long deviceId, final Instant deletedAt) {
+        jdbcTemplate.update(INSERT_SQL, deviceId, Timestamp.from(deletedAt));
+    }
+
+    public void insertAll(final List<Long> deviceIds, final Instant deletedAt) {
+        final Timestamp ts = Timestamp.from(deletedAt);
+        jdbcTemplate.batchUpdate(INSERT_SQL, deviceIds, deviceIds.size(), (ps, deviceId) -> {
+            ps.setLong(1, deviceId);
+            ps.setTimestamp(2, ts);
+        });
+    }
+
+    /**
+     * Tombstones strictly after {@code (since, afterId)} in {@code (deleted_at, device_id)}
+     * order and no later than {@code until}.
+     */
+    public List<Tombstone> findAfter(final Instant since, final long afterId, final Instant until, final int limit) {
+        final Timestamp sinceTs = Timestamp.from(since);
+        return jdbcTemplate.query(SELECT_AFTER_SQL, (rs, rowNum) -> new Tombstone(
+                rs.getLong("device_id"),
+                rs.getTimestamp("deleted_at").toInstant()
+        ), sinceTs, sinceTs, afterId, Timestamp.from(until), limit);
+    }
+}
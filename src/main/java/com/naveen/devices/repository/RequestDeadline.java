@@ -0,0 +1,67 @@
+package com.naveen.devices.repository;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The point in time, on the {@link System#nanoTime()} clock, after which the current
+ * thread's request is no longer wanted by its client. Bound by the request deadline filter;
+ * the deadline-aware data source turns the remaining time into statement timeouts.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static Long current() {
+        return CURRENT.get();
+    }
+
+    public static void set(final long deadlineNanos) {
+        CURRENT.set(deadlineNanos);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return milliseconds left, possibly negative, or empty without a deadline
+     */
+    public static OptionalLong remainingMillis() {
+        final Long deadline = CURRENT.get();
+        return deadline == null
+                ? OptionalLong.empty()
+                : OptionalLong.of(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    public static boolean isExpired() {
+        final Long deadline = CURRENT.get();
+        return deadline != null && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Runs {@code work} under {@code deadlineNanos}, e.g. one captured on the request thread
+     * before handing work to another thread.
+     */
+    public static <T> T callWith(final Long deadlineNanos, final Supplier<T> work) {
+        final Long previous = CURRENT.get();
+        if (deadlineNanos == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadlineNanos);
+        }
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.naveen.devices.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's next connection is taken from. The sharded data source
+ * fetches its physical connection lazily, on the first statement, so a transaction can be
+ * routed after it has started as long as nothing has touched the database yet.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Routes the surrounding transaction to {@code shard} until it completes. Binding the
+     * same shard twice is a no-op; a transaction cannot span shards.
+     */
+    static void bindToTransaction(final int shard) {
+        final Integer bound = CURRENT.get();
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException("Transaction already routed to shard " + bound
+                        + ", cannot also use shard " + shard);
+            }
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Routing to a shard requires a transaction");
+        }
+        CURRENT.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(final int status) {
+                CURRENT.remove();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code work} with connections taken from {@code shard}, outside any transaction
+     * routing of the caller.
+     */
+    public static <T> T callOn(final int shard, final Supplier<T> work) {
+        final Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.naveen.devices.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Hands out per-shard sequence numbers from the {@code device_id_blocks} row of each shard.
+ * Numbers are reserved in blocks, one short transaction per block, so instances sharing a
+ * shard never hand out the same number and most ids need no round trip at all. Numbers left
+ * in a block at shutdown are skipped, not reused.
+ */
+public class ShardIdAllocator {
+
+    private static final String ADVANCE_SQL = "update device_id_blocks set next_value = next_value + ? where id = 1";
+    private static final String SELECT_SQL = "select next_value from device_id_blocks where id = 1";
+
+    private final List<JdbcTemplate> jdbcTemplates;
+    private final List<TransactionTemplate> transactionTemplates;
+    private final Block[] blocks;
+    private final int blockSize;
+
+    public ShardIdAllocator(final List<? extends DataSource> shards, final int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1");
+        }
+        this.jdbcTemplates = shards.stream().map(JdbcTemplate::new).toList();
+        this.transactionTemplates = shards.stream().map(shard -> {
+            final TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(shard));
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            return template;
+        }).toList();
+        this.blocks = new Block[shards.size()];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new Block();
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return a sequence number unique within {@code shard}, increasing per instance
+     */
+    public long next(final int shard) {
+        final Block block = blocks[shard];
+        synchronized (block) {
+            if (block.next == block.end) {
+                block.end = reserve(shard);
+                block.next = block.end - blockSize;
+            }
+            return block.next++;
+        }
+    }
+
+    private long reserve(final int shard) {
+        final JdbcTemplate jdbcTemplate = jdbcTemplates.get(shard);
+        final Long end = transactionTemplates.get(shard).execute(status -> {
+            jdbcTemplate.update(ADVANCE_SQL, blockSize);
+            return jdbcTemplate.queryForObject(SELECT_SQL, Long.class);
+        });
+        if (end == null) {
+            throw new IllegalStateException("device_id_blocks is empty on shard " + shard);
+        }
+        return end;
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,132 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Spreads devices over {@code shardCount} databases. The low {@value #BUCKET_BITS} bits of
+ * every id are a bucket and the rest a sequence number from the owning shard, so the shard
+ * is read straight off the id: {@code bucket % shardCount}. Buckets rather than shards are
+ * encoded so a later rebalance can move whole buckets without renumbering devices.
+ * New devices are placed round-robin.
+ */
+public class ShardedDeviceRouter implements DeviceShardRouter {
+
+    static final int BUCKET_BITS = 10;
+    static final int BUCKETS = 1 << BUCKET_BITS;
+
+    private final int shardCount;
+    private final ShardIdAllocator idAllocator;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardedDeviceRouter(final int shardCount, final ShardIdAllocator idAllocator,
+                               final PlatformTransactionManager transactionManager) {
+        if (shardCount < 1 || shardCount > BUCKETS) {
+            throw new IllegalArgumentException("shard count must be between 1 and " + BUCKETS);
+        }
+        this.shardCount = shardCount;
+        this.idAllocator = idAllocator;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public boolean isSharded() {
+        return true;
+    }
+
+    @Override
+    public void route(final long id) {
+        ShardContext.bindToTransaction(shardOf(id, shardCount));
+    }
+
+    @Override
+    public void assignId(final Device device) {
+        final int shard = Math.floorMod(nextShard.getAndIncrement(), shardCount);
+        device.setId(encode(idAllocator.next(shard), shard, shardCount));
+        ShardContext.bindToTransaction(shard);
+    }
+
+    @Override
+    public <T> T callOnShardOf(final long id, final Supplier<T> work) {
+        return ShardContext.callOn(shardOf(id, shardCount), work);
+    }
+
+    @Override
+    public <T> List<T> gather(final Supplier<List<T>> query, final Comparator<? super T> order) {
+        final List<Future<List<T>>> parts = new ArrayList<>(shardCount);
+        final List<T> merged = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Long deadline = RequestDeadline.current();
+            for (int shard = 0; shard < shardCount; shard++) {
+                final int target = shard;
+                parts.add(executor.submit(() -> RequestDeadline.callWith(deadline, () ->
+                        ShardContext.callOn(target, () -> readOnlyTransaction.execute(status -> query.get())))));
+            }
+            for (final Future<List<T>> part : parts) {
+                merged.addAll(join(part));
+            }
+        }
+        merged.sort(order);
+        return merged;
+    }
+
+    @Override
+    public <T> void forEachShard(final List<T> items, final ToLongFunction<? super T> deviceId,
+                                 final Consumer<List<T>> action) {
+        final Map<Integer, List<T>> byShard = new LinkedHashMap<>();
+        for (final T item : items) {
+            byShard.computeIfAbsent(shardOf(deviceId.applyAsLong(item), shardCount), shard -> new ArrayList<>())
+                    .add(item);
+        }
+        byShard.forEach((shard, group) -> ShardContext.callOn(shard, () -> {
+            action.accept(group);
+            return null;
+        }));
+    }
+
+    static int shardOf(final long id, final int shardCount) {
+        return (int) (id & (BUCKETS - 1)) % shardCount;
+    }
+
+    /**
+     * Builds an id on {@code shard} from a sequence number unique within that shard. The
+     * bucket cycles through the shard's buckets with the sequence, which keeps buckets evenly
+     * filled.
+     */
+    static long encode(final long sequence, final int shard, final int shardCount) {
+        final int bucketsOfShard = (BUCKETS - shard + shardCount - 1) / shardCount;
+        final int bucket = shard + shardCount * (int) (sequence % bucketsOfShard);
+        return (sequence << BUCKET_BITS) | bucket;
+    }
+
+    private static <T> List<T> join(final Future<List<T>> part) {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+class SingleDatabaseRouter implements DeviceShardRouter {
+
+    @Override
+    public boolean isSharded() {
+        return false;
+    }
+
+    @Override
+    public void route(final long id) {
+        // one database, nothing to route
+    }
+
+    @Override
+    public void assignId(final Device device) {
+        // the DeviceIdGenerator assigns the id on persist
+    }
+
+    @Override
+    public <T> T callOnShardOf(final long id, final Supplier<T> work) {
+        return work.get();
+    }
+
+    @Override
+    public <T> List<T> gather(final Supplier<List<T>> query, final Comparator<? super T> order) {
+        return query.get();
+    }
+
+    @Override
+    public <T> void forEachShard(final List<T> items, final ToLongFunction<? super T> deviceId,
+                                 final Consumer<List<T>> action) {
+        action.accept(items);
+    }
+}
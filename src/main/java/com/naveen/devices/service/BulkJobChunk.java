@@ -0,0 +1,11 @@
+package com.naveen.devices.service;
+
+/**
+ * Outcome of one committed chunk of a bulk job.
+ *
+ * @param cursor    resume point after this chunk
+ * @param processed items handled, including rejected ones
+ * @param failed    items rejected
+ * @param lastError description of the last rejection, or {@code null}
+ */
+public record BulkJobChunk(String cursor, int processed, int failed, String lastError) {}
@@ -0,0 +1,37 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.BulkJob;
+import com.naveen.devices.domain.BulkJobType;
+
+/**
+ * Executes one {@link BulkJobType}. {@link BulkJobService} calls {@link Run#next(int)}
+ * inside a transaction that also records the returned cursor, so a restarted job resumes
+ * exactly after the last committed chunk.
+ */
+public interface BulkJobHandler {
+
+    BulkJobType type();
+
+    /**
+     * Starts or resumes the job after {@link BulkJob#cursor()}.
+     */
+    Run open(BulkJob job);
+
+    /**
+     * Called once the job has completed or failed, to release anything kept for resuming.
+     */
+    default void finished(final BulkJob job) {}
+
+    interface Run extends AutoCloseable {
+
+        /**
+         * Processes up to {@code chunkSize} items in the caller's transaction.
+         *
+         * @return the chunk outcome, or {@code null} when nothing is left
+         */
+        BulkJobChunk next(int chunkSize);
+
+        @Override
+        default void close() {}
+    }
+}
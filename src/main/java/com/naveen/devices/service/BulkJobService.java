@@ -0,0 +1,237 @@
+package com.naveen.devices.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.domain.BulkJob;
+import com.naveen.devices.domain.BulkJobStatus;
+import com.naveen.devices.domain.BulkJobType;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.BulkJobResponse;
+import com.naveen.devices.dto.PurgeJobRequest;
+import com.naveen.devices.dto.StateChangeJobRequest;
+import com.naveen.devices.exception.BulkJobNotFoundException;
+import com.naveen.devices.exception.DeviceValidationException;
+import com.naveen.devices.exception.FeatureDisabledException;
+import com.naveen.devices.repository.BulkJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts bulk jobs, persists them in {@code bulk_jobs} and runs them on a fixed pool of
+ * {@code devices.jobs.workers} threads. A job is only claimed when a worker is free, so
+ * the backlog waits in the table rather than in memory. Each chunk runs in its own
+ * transaction together with the cursor update, so after a crash or shutdown the job
+ * resumes from the last committed chunk: on shutdown it is requeued straight away,
+ * after a crash it is reclaimed once its heartbeat is older than
+ * {@code devices.jobs.stale-after-ms}. A worker that was only slow and lost its job that
+ * way rolls back its current chunk and stops at its next write. With
+ * {@code devices.jobs.enabled} off nothing is accepted or dispatched.
+ */
+@Slf4j
+@Service
+public class BulkJobService {
+
+    private final BulkJobRepository jobRepository;
+    private final Map<BulkJobType, BulkJobHandler> handlers = new EnumMap<>(BulkJobType.class);
+    private final ImportJobHandler importJobHandler;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final Duration staleAfter;
+    private final Semaphore freeWorkers;
+    private final ExecutorService workers;
+    private final boolean enabled;
+    private volatile boolean stopping;
+
+    public BulkJobService(final BulkJobRepository jobRepository,
+                          final List<BulkJobHandler> handlers,
+                          final ImportJobHandler importJobHandler,
+                          final TransactionTemplate transactionTemplate,
+                          final ObjectMapper objectMapper,
+                          @Value("${devices.jobs.workers:2}") final int workers,
+                          @Value("${devices.jobs.chunk-size:500}") final int chunkSize,
+                          @Value("${devices.jobs.stale-after-ms:60000}") final long staleAfterMs,
+                          @Value("${devices.jobs.enabled:true}") final boolean enabled) {
+        this.jobRepository = jobRepository;
+        handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+        this.importJobHandler = importJobHandler;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.freeWorkers = new Semaphore(workers);
+        this.workers = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("bulk-job-", 0).factory());
+        this.enabled = enabled;
+    }
+
+    public BulkJobResponse submitStateChange(final StateChangeJobRequest request) {
+        requireEnabled();
+        if (request.toState() == null) {
+            throw new DeviceValidationException("toState is required");
+        }
+        return submit(BulkJobType.STATE_CHANGE, UUID.randomUUID().toString(), toJson(request));
+    }
+
+    public BulkJobResponse submitPurge(final PurgeJobRequest request) {
+        requireEnabled();
+        if (request.state() == null) {
+            throw new DeviceValidationException("state is required");
+        }
+        if (request.state() == DeviceState.IN_USE) {
+            throw new DeviceValidationException("Cannot delete a device in use");
+        }
+        return submit(BulkJobType.PURGE, UUID.randomUUID().toString(), toJson(request));
+    }
+
+    public BulkJobResponse submitImport(final InputStream csv) {
+        requireEnabled();
+        final String id = UUID.randomUUID().toString();
+        return submit(BulkJobType.IMPORT, id, importJobHandler.spool(id, csv));
+    }
+
+    public BulkJobResponse getJob(final String id) {
+        return jobRepository.findById(id)
+                .map(BulkJobService::toResponse)
+                .orElseThrow(() -> new BulkJobNotFoundException("Job not found with id: " + id));
+    }
+
+    /**
+     * Claims as many runnable jobs as there are idle workers. Also called on submit so a job
+     * starts without waiting for the next poll.
+     */
+    @Scheduled(fixedDelayString = "${devices.jobs.poll-interval-ms:1000}")
+    public synchronized void dispatch() {
+        if (!enabled || stopping || freeWorkers.availablePermits() == 0) {
+            return;
+        }
+        final OffsetDateTime now = OffsetDateTime.now();
+        final OffsetDateTime staleBefore = now.minus(staleAfter);
+        for (final String id : jobRepository.findClaimable(staleBefore, freeWorkers.availablePermits())) {
+            if (!freeWorkers.tryAcquire()) {
+                return;
+            }
+            final String owner = UUID.randomUUID().toString();
+            if (jobRepository.claim(id, owner, staleBefore, now)) {
+                workers.execute(() -> {
+                    try {
+                        run(id, owner);
+                    } finally {
+                        freeWorkers.release();
+                    }
+                });
+            } else {
+                freeWorkers.release();
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopping = true;
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new FeatureDisabledException("devices.jobs.enabled");
+        }
+    }
+
+    private BulkJobResponse submit(final BulkJobType type, final String id, final String parameters) {
+        jobRepository.insert(id, type, parameters, OffsetDateTime.now());
+        dispatch();
+        return getJob(id);
+    }
+
+    void run(final String id, final String owner) {
+        final BulkJob job = jobRepository.findById(id).orElseThrow();
+        final BulkJobHandler handler = handlers.get(job.type());
+        log.info("Starting {} job {} from cursor {}", job.type(), id, job.cursor());
+        try (BulkJobHandler.Run run = handler.open(job)) {
+            while (true) {
+                if (stopping) {
+                    jobRepository.requeue(id, owner, OffsetDateTime.now());
+                    log.info("Requeued {} job {} on shutdown", job.type(), id);
+                    return;
+                }
+                final BulkJobChunk chunk = transactionTemplate.execute(status -> {
+                    final BulkJobChunk next = run.next(chunkSize);
+                    if (next != null && !jobRepository.advance(id, owner, next.cursor(), next.processed(),
+                            next.failed(), next.lastError(), OffsetDateTime.now())) {
+                        throw new JobLostException();
+                    }
+                    return next;
+                });
+                if (chunk == null) {
+                    break;
+                }
+            }
+            if (!jobRepository.finish(id, owner, BulkJobStatus.COMPLETED, null, OffsetDateTime.now())) {
+                throw new JobLostException();
+            }
+            log.info("Completed {} job {}", job.type(), id);
+        } catch (JobLostException e) {
+            log.warn("{} job {} was reclaimed by another worker, stopping", job.type(), id);
+            return;
+        } catch (RuntimeException e) {
+            log.error("{} job {} failed", job.type(), id, e);
+            if (!jobRepository.finish(id, owner, BulkJobStatus.FAILED, e.getMessage(), OffsetDateTime.now())) {
+                log.warn("{} job {} was reclaimed by another worker, stopping", job.type(), id);
+                return;
+            }
+        }
+        handler.finished(job);
+    }
+
+    /**
+     * Thrown inside a chunk transaction when the job has a new owner, so the chunk rolls back.
+     */
+    private static final class JobLostException extends RuntimeException {
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private String toJson(final Object parameters) {
+        try {
+            return objectMapper.writeValueAsString(parameters);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BulkJobResponse toResponse(final BulkJob job) {
+        return new BulkJobResponse(job.id(), job.type(), job.status(), job.processed(), job.failed(),
+                itemsPerSecond(job), job.lastError(), job.createdAt(), job.startedAt(), job.finishedAt());
+    }
+
+    private static double itemsPerSecond(final BulkJob job) {
+        if (job.startedAt() == null) {
+            return 0;
+        }
+        final OffsetDateTime end = job.finishedAt() != null ? job.finishedAt() : job.updatedAt();
+        final long millis = Duration.between(job.startedAt(), end).toMillis();
+        return millis <= 0 ? 0 : job.processed() * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,26 @@
+package com.naveen.devices.service;
+
+import java.util.Set;
+
+/**
+ * Carries device cache invalidations between instances sharing a database. A message is
+ * delivered to every other instance's listener, never back to its publisher.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(Set<Long> deviceIds);
+
+    /**
+     * Tells other instances to drop every cached device, for changes too large to list.
+     */
+    void publishAll();
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+
+        void invalidate(Set<Long> deviceIds);
+
+        void invalidateAll();
+    }
+}
@@ -0,0 +1,124 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.exception.DeviceValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: quoted fields, doubled quotes, embedded separators and
+ * newlines, CRLF or LF line ends. Only the current record is held in memory, capped at
+ * {@code maxRecordChars} so a malformed file cannot grow it without bound.
+ */
+final class CsvRecordReader {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private long recordLine;
+    private int recordChars;
+    private int pushedBack = EOF;
+
+    CsvRecordReader(final Reader reader, final int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * @return the next record's fields, or {@code null} at end of input
+     */
+    List<String> next() {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            consumeLineEnd(c);
+            c = read();
+        }
+        if (c == EOF) {
+            return null;
+        }
+        recordLine = line;
+        recordChars = 0;
+        final List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new DeviceValidationException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    final int following = read();
+                    if (following == '"') {
+                        append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                fields.add(field.toString());
+                if (c != EOF) {
+                    consumeLineEnd(c);
+                }
+                return fields;
+            } else {
+                append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return the line number the last record returned by {@link #next()} started on
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    private void append(final char c) {
+        if (++recordChars > maxRecordChars) {
+            throw new DeviceValidationException("Record on line " + recordLine + " exceeds " + maxRecordChars + " characters");
+        }
+        field.append(c);
+    }
+
+    private void consumeLineEnd(final int c) {
+        line++;
+        if (c == '\r') {
+            final int following = read();
+            if (following != '\n') {
+                pushedBack = following;
+            }
+        }
+    }
+
+    private int read() {
+        if (pushedBack != EOF) {
+            final int c = pushedBack;
+            pushedBack = EOF;
+            return c;
+        }
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.repository.DeviceArchiveRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Periodically moves {@code INACTIVE} devices that have not been touched for
+ * {@code devices.archive.inactive-days} into {@code devices_archive}, in small batches so
+ * each transaction holds its row locks only briefly. Keeps the hot table bounded. Each run
+ * also makes sure the partitioned MySQL archive has a partition for next year, so rows never
+ * pile up in the catch-all one.
+ */
+@Slf4j
+@Component
+public class DeviceArchiver {
+
+    private final DeviceArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactory sessionFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int inactiveDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public DeviceArchiver(final DeviceArchiveRepository archiveRepository,
+                          final TransactionTemplate transactionTemplate,
+                          final EntityManagerFactory entityManagerFactory,
+                          final ApplicationEventPublisher eventPublisher,
+                          @Value("${devices.archive.enabled:false}") final boolean enabled,
+                          @Value("${devices.archive.inactive-days:90}") final int inactiveDays,
+                          @Value("${devices.archive.batch-size:500}") final int batchSize,
+                          @Value("${devices.archive.max-batches-per-run:100}") final int maxBatchesPerRun) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.inactiveDays = inactiveDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${devices.archive.interval-ms:3600000}",
+            initialDelayString = "${devices.archive.initial-delay-ms:60000}")
+    public void scheduledRun() {
+        if (enabled) {
+            rollPartitionsForward(Year.now().getValue());
+            archiveInactive(OffsetDateTime.now().minusDays(inactiveDays));
+        }
+    }
+
+    /**
+     * Adds the yearly archive partitions missing up to and including next year. A failure
+     * only delays the split; rows still land in {@code pmax} meanwhile.
+     */
+    void rollPartitionsForward(final int currentYear) {
+        try {
+            final OptionalInt lastYear = archiveRepository.lastPartitionYear();
+            if (lastYear.isEmpty()) {
+                return;
+            }
+            for (int year = lastYear.getAsInt() + 1; year <= currentYear + 1; year++) {
+                archiveRepository.addYearPartition(year);
+                log.info("Added devices_archive partition p{}", year);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not roll devices_archive partitions forward: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archives devices inactive since before {@code cutoff}.
+     *
+     * @return number of devices moved
+     */
+    public int archiveInactive(final OffsetDateTime cutoff) {
+        int moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            final int batchMoved = archiveBatch(cutoff);
+            moved += batchMoved;
+            if (batchMoved < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} inactive devices last updated before {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    private int archiveBatch(final OffsetDateTime cutoff) {
+        final List<Long> moved = transactionTemplate.execute(status -> {
+            final List<Long> ids = archiveRepository.lockArchivable(DeviceState.INACTIVE, cutoff, batchSize);
+            if (!ids.isEmpty()) {
+                archiveRepository.moveToArchive(ids, OffsetDateTime.now());
+                eventPublisher.publishEvent(new DevicesRemovedEvent(ids));
+            }
+            return ids;
+        });
+        if (moved == null || moved.isEmpty()) {
+            return 0;
+        }
+        evictCached(moved);
+        return moved.size();
+    }
+
+    /**
+     * The move bypasses Hibernate, so cached entities and finder results are dropped once it commits.
+     */
+    private void evictCached(final List<Long> ids) {
+        ids.forEach(id -> sessionFactory.getCache().evictEntityData(Device.class, id));
+        sessionFactory.getCache().evictQueryRegions();
+    }
+}
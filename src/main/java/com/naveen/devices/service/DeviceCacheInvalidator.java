@@ -0,0 +1,163 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the second-level device cache of several instances coherent
+ * ({@code devices.cache-bus.enabled}). Ids of committed changes are collected in a set, so
+ * repeated writes to a device coalesce, and published over the {@link CacheInvalidationBus}
+ * every {@code flush-interval-ms}; a batch larger than {@code max-batch-ids} is sent as
+ * "drop everything" instead. Invalidations from other instances evict those devices and the
+ * cached finder results.
+ *
+ * <p>The snapshot, membership index and write-behind keep per-instance state this does not
+ * cover; leave them disabled when running several instances.
+ */
+@Slf4j
+@Component
+public class DeviceCacheInvalidator implements CacheInvalidationBus.Listener {
+
+    private final CacheInvalidationBus bus;
+    private final SessionFactory sessionFactory;
+    private final boolean enabled;
+    private final long flushIntervalMs;
+    private final int maxBatchIds;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean running;
+    private Thread flusher;
+
+    public DeviceCacheInvalidator(final CacheInvalidationBus bus,
+                                  final EntityManagerFactory entityManagerFactory,
+                                  @Value("${devices.cache-bus.enabled:false}") final boolean enabled,
+                                  @Value("${devices.cache-bus.flush-interval-ms:100}") final long flushIntervalMs,
+                                  @Value("${devices.cache-bus.max-batch-ids:1000}") final int maxBatchIds) {
+        this.bus = bus;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.enabled = enabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxBatchIds = maxBatchIds;
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            bus.subscribe(this);
+            running = true;
+            flusher = Thread.ofPlatform().name("device-cache-invalidator").daemon().start(this::run);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher != null) {
+            running = false;
+            LockSupport.unpark(flusher);
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Final cache invalidation publish failed, {} devices may be stale elsewhere", pending.size(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(final DeviceChangedEvent event) {
+        changed(List.of(event.id()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDevicesRemoved(final DevicesRemovedEvent event) {
+        changed(event.ids());
+    }
+
+    /**
+     * Publishes the ids collected since the last flush on the calling thread.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            final Set<Long> batch = new HashSet<>();
+            for (final Iterator<Long> it = pending.iterator(); it.hasNext(); ) {
+                batch.add(it.next());
+                it.remove();
+            }
+            try {
+                if (batch.size() > maxBatchIds) {
+                    bus.publishAll();
+                } else {
+                    bus.publish(batch);
+                }
+            } catch (RuntimeException e) {
+                pending.addAll(batch);
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(final Set<Long> deviceIds) {
+        final Cache cache = sessionFactory.getCache();
+        deviceIds.forEach(id -> cache.evictEntityData(Device.class, id));
+        cache.evictQueryRegions();
+    }
+
+    @Override
+    public void invalidateAll() {
+        final Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Device.class);
+        cache.evictQueryRegions();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void changed(final Collection<Long> ids) {
+        if (!enabled) {
+            return;
+        }
+        pending.addAll(ids);
+        if (pending.size() > maxBatchIds && flusher != null) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Publishing cache invalidations failed, will retry", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceHistoryEntry;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceHistoryPage;
+import com.naveen.devices.dto.DeviceHistoryResponse;
+import com.naveen.devices.repository.DeviceHistoryRepository;
+import com.naveen.devices.repository.DeviceShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Records {@link DeviceState} transitions, a creation being one from no state. By default entries are handed to the
+ * {@link DeviceHistoryWriter} after the surrounding transaction commits, so rolled-back
+ * updates leave no trace and the write path does not wait for the insert. With
+ * {@code devices.history.synchronous=true} the entry is inserted in the caller's
+ * transaction instead, trading latency for durability.
+ */
+@Service
+public class DeviceHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final DeviceHistoryRepository repository;
+    private final DeviceHistoryWriter writer;
+    private final DeviceShardRouter shardRouter;
+    private final boolean synchronous;
+
+    public DeviceHistoryService(final DeviceHistoryRepository repository,
+                                final DeviceHistoryWriter writer,
+                                final DeviceShardRouter shardRouter,
+                                @Value("${devices.history.synchronous:false}") final boolean synchronous) {
+        this.repository = repository;
+        this.writer = writer;
+        this.shardRouter = shardRouter;
+        this.synchronous = synchronous;
+    }
+
+    public void recordStateChange(final Long deviceId, final DeviceState fromState,
+                                  final DeviceState toState, final OffsetDateTime changedAt) {
+        if (fromState == toState) {
+            return;
+        }
+
+        record(List.of(new DeviceHistoryEntry(deviceId, fromState, toState, changedAt)));
+    }
+
+    /**
+     * Records the creation of each of {@code devices} in their current state, for batch
+     * inserts: one insert or one commit hook for the lot.
+     */
+    public void recordCreations(final List<Device> devices, final OffsetDateTime createdAt) {
+        if (!devices.isEmpty()) {
+            record(devices.stream()
+                    .map(device -> new DeviceHistoryEntry(device.getId(), null, device.getState(), createdAt))
+                    .toList());
+        }
+    }
+
+    private void record(final List<DeviceHistoryEntry> entries) {
+        if (synchronous) {
+            repository.insertAll(entries);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.forEach(writer::enqueue);
+                }
+            });
+        } else {
+            entries.forEach(writer::enqueue);
+        }
+    }
+
+    public DeviceHistoryPage getHistory(final Long deviceId, final int page, final int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        final List<DeviceHistoryResponse> rows = shardRouter.callOnShardOf(deviceId,
+                () -> repository.findPage(deviceId, size + 1, (long) page * size));
+        final boolean hasNext = rows.size() > size;
+        return new DeviceHistoryPage(deviceId, page, size, hasNext, hasNext ? rows.subList(0, size) : rows);
+    }
+}
@@ -0,0 +1,156 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.DeviceHistoryEntry;
+import com.naveen.devices.repository.DeviceHistoryRepository;
+import com.naveen.devices.repository.DeviceShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers history entries in a bounded queue and writes them from a single background
+ * thread in JDBC batches. When the queue is full the caller writes its entry directly,
+ * so a slow database pushes back on writers instead of dropping audit rows. A failed batch is
+ * retried with exponential backoff, which also stalls the queue and pushes back the same way;
+ * only a batch that fails every attempt is dropped, and counted in {@value #DROPPED_METRIC}.
+ */
+@Slf4j
+@Component
+public class DeviceHistoryWriter {
+
+    static final String DROPPED_METRIC = "devices.history.dropped";
+    private static final long MAX_RETRY_BACKOFF_MS = 5_000;
+
+    private final DeviceHistoryRepository repository;
+    private final DeviceShardRouter shardRouter;
+    private final BlockingQueue<DeviceHistoryEntry> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final Counter dropped;
+    private volatile boolean running;
+    private Thread worker;
+
+    public DeviceHistoryWriter(final DeviceHistoryRepository repository,
+                               final DeviceShardRouter shardRouter,
+                               @Value("${devices.history.queue-capacity:10000}") final int queueCapacity,
+                               @Value("${devices.history.batch-size:200}") final int batchSize,
+                               @Value("${devices.history.flush-interval-ms:200}") final long flushIntervalMs,
+                               @Value("${devices.history.max-attempts:5}") final int maxAttempts,
+                               @Value("${devices.history.retry-backoff-ms:100}") final long retryBackoffMs,
+                               final MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.shardRouter = shardRouter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.dropped = Counter.builder(DROPPED_METRIC)
+                .description("History entries dropped after every write attempt failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("device-history-writer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        flushRemaining();
+    }
+
+    public void enqueue(final DeviceHistoryEntry entry) {
+        if (!queue.offer(entry)) {
+            log.debug("History queue full, writing entry for device {} inline", entry.deviceId());
+            shardRouter.forEachShard(List.of(entry), DeviceHistoryEntry::deviceId, repository::insertAll);
+        }
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread.
+     */
+    public void flush() {
+        flushRemaining();
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    private void run() {
+        final List<DeviceHistoryEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                final DeviceHistoryEntry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushRemaining() {
+        List<DeviceHistoryEntry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void write(final List<DeviceHistoryEntry> batch) {
+        shardRouter.forEachShard(batch, DeviceHistoryEntry::deviceId, this::insertWithRetry);
+    }
+
+    /**
+     * Retries per shard group so that a group already written is never written twice. Once
+     * interrupted (shutdown) the remaining attempts run without waiting.
+     */
+    private void insertWithRetry(final List<DeviceHistoryEntry> group) {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                repository.insertAll(group);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    dropped.increment(group.size());
+                    log.error("Dropping {} device history entries after {} attempts", group.size(), attempt, e);
+                    return;
+                }
+                log.warn("Failed to write {} device history entries (attempt {}), retrying in {} ms: {}",
+                        group.size(), attempt, backoffMs, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.naveen.devices.service;
+
+/**
+ * Progress callback for {@link DeviceImportService}, invoked on the writer thread after
+ * each batch commits.
+ */
+@FunctionalInterface
+public interface DeviceImportListener {
+
+    DeviceImportListener NONE = (rowsRead, imported, rejected) -> {};
+
+    void onBatchCommitted(long rowsRead, long imported, long rejected);
+}
@@ -0,0 +1,277 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceImportError;
+import com.naveen.devices.dto.DeviceImportResult;
+import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.exception.DeviceValidationException;
+import com.naveen.devices.exception.FeatureDisabledException;
+import com.naveen.devices.repository.DeviceBatchRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a CSV of devices ({@code name,brand,state} header, any column order) into the
+ * {@code devices} table. The calling thread parses and validates rows into batches and hands
+ * them through a small bounded queue to a writer thread that inserts each batch in its own
+ * transaction, so parsing overlaps with database round trips and memory stays at a few
+ * batches whatever the file size. Invalid rows are skipped and reported; committed batches
+ * are kept if a later one fails.
+ */
+@Slf4j
+@Service
+public class DeviceImportService {
+
+    static final List<String> COLUMNS = List.of("name", "brand", "state");
+    private static final List<Device> END_OF_INPUT = List.of();
+    private static final long HAND_OFF_POLL_MS = 100;
+
+    private final DeviceBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactory sessionFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeviceHistoryService historyService;
+    private final int batchSize;
+    private final int queueBatches;
+    private final int maxReportedErrors;
+    private final int maxRecordChars;
+    private final boolean enabled;
+
+    public DeviceImportService(final DeviceBatchRepository batchRepository,
+                               final TransactionTemplate transactionTemplate,
+                               final EntityManagerFactory entityManagerFactory,
+                               final ApplicationEventPublisher eventPublisher,
+                               final DeviceHistoryService historyService,
+                               @Value("${devices.import.batch-size:1000}") final int batchSize,
+                               @Value("${devices.import.queue-batches:4}") final int queueBatches,
+                               @Value("${devices.import.max-reported-errors:100}") final int maxReportedErrors,
+                               @Value("${devices.import.max-record-chars:8192}") final int maxRecordChars,
+                               @Value("${devices.import.enabled:true}") final boolean enabled) {
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.eventPublisher = eventPublisher;
+        this.historyService = historyService;
+        this.batchSize = batchSize;
+        this.queueBatches = queueBatches;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxRecordChars = maxRecordChars;
+        this.enabled = enabled;
+    }
+
+    public DeviceImportResult importCsv(final InputStream input) {
+        return importCsv(input, DeviceImportListener.NONE);
+    }
+
+    public DeviceImportResult importCsv(final InputStream input, final DeviceImportListener listener) {
+        if (!enabled) {
+            throw new FeatureDisabledException("devices.import.enabled");
+        }
+        final long started = System.nanoTime();
+        final CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), maxRecordChars);
+        final int[] columns = readHeader(reader);
+        final ImportRun run = new ImportRun(listener);
+        final Thread writer = Thread.ofVirtual().name("device-import-writer").start(run::writeBatches);
+        boolean completed = false;
+        try {
+            List<Device> batch = new ArrayList<>(batchSize);
+            while (run.failure == null) {
+                final List<String> record;
+                try {
+                    record = reader.next();
+                } catch (DeviceValidationException e) {
+                    run.reject(reader.recordLine(), e.getMessage() + "; import stopped");
+                    break;
+                }
+                if (record == null) {
+                    break;
+                }
+                run.rowsRead.incrementAndGet();
+                try {
+                    batch.add(toDevice(record, columns));
+                } catch (IllegalArgumentException e) {
+                    run.reject(reader.recordLine(), e.getMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    run.handOff(batch, writer);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                run.handOff(batch, writer);
+            }
+            run.handOff(END_OF_INPUT, writer);
+            writer.join();
+            run.writerStopped();
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted after " + run.imported.get() + " rows", e);
+        } finally {
+            if (!completed) {
+                writer.interrupt();
+            }
+        }
+        if (run.failure != null) {
+            throw new IllegalStateException("Import failed after " + run.imported.get() + " rows", run.failure);
+        }
+        final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Imported {} of {} devices in {} ms ({} rejected)",
+                run.imported.get(), run.rowsRead.get(), elapsedMs, run.rejected.get());
+        return new DeviceImportResult(run.rowsRead.get(), run.imported.get(), run.rejected.get(),
+                List.copyOf(run.errors), run.rejected.get() > run.errors.size(), elapsedMs);
+    }
+
+    static int[] readHeader(final CsvRecordReader reader) {
+        final List<String> header = reader.next();
+        if (header == null) {
+            throw new DeviceValidationException("CSV is empty; expected a header with columns " + COLUMNS);
+        }
+        final int[] positions = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            positions[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                final String name = header.get(j).replace("\uFEFF", "").trim();
+                if (COLUMNS.get(i).equalsIgnoreCase(name)) {
+                    positions[i] = j;
+                }
+            }
+            if (positions[i] < 0) {
+                throw new DeviceValidationException("CSV header is missing column '" + COLUMNS.get(i) + "'");
+            }
+        }
+        return positions;
+    }
+
+    static Device toDevice(final List<String> record, final int[] columns) {
+        final DeviceRequest request = DeviceRequest.builder()
+                .name(column(record, columns[0]))
+                .brand(column(record, columns[1]))
+                .state(parseState(column(record, columns[2])))
+                .build();
+        DeviceValidator.validateCreate(request);
+        return Device.builder()
+                .name(request.getName())
+                .brand(request.getBrand())
+                .state(request.getState())
+                .build();
+    }
+
+    private static String column(final List<String> record, final int index) {
+        return index < record.size() ? record.get(index).trim() : null;
+    }
+
+    private static DeviceState parseState(final String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return DeviceState.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new DeviceValidationException("Unknown state: " + value);
+        }
+    }
+
+    /**
+     * State shared between the parsing thread and the writer thread for one import.
+     */
+    private final class ImportRun {
+
+        private final DeviceImportListener listener;
+        private final BlockingQueue<List<Device>> queue = new ArrayBlockingQueue<>(queueBatches);
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<DeviceImportError> errors = new ArrayList<>();
+        private volatile Throwable failure;
+        private volatile boolean drained;
+
+        private ImportRun(final DeviceImportListener listener) {
+            this.listener = listener;
+        }
+
+        private void reject(final long line, final String message) {
+            rejected.incrementAndGet();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new DeviceImportError(line, message));
+            }
+        }
+
+        /**
+         * Blocks while the writer is behind, giving up once it has stopped so a failed write
+         * cannot leave the parser waiting on a full queue. A writer that stopped without
+         * recording why still fails the import rather than losing the batch quietly.
+         */
+        private void handOff(final List<Device> batch, final Thread writer) throws InterruptedException {
+            while (!queue.offer(batch, HAND_OFF_POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (!writer.isAlive()) {
+                    writerStopped();
+                    return;
+                }
+            }
+        }
+
+        private void writerStopped() {
+            if (failure == null && !drained) {
+                failure = new IllegalStateException("Import writer stopped unexpectedly");
+            }
+        }
+
+        private void writeBatches() {
+            try {
+                while (true) {
+                    final List<Device> batch = queue.take();
+                    if (batch == END_OF_INPUT) {
+                        drained = true;
+                        return;
+                    }
+                    write(batch);
+                    listener.onBatchCommitted(rowsRead.get(), imported.addAndGet(batch.size()), rejected.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            } catch (RuntimeException e) {
+                log.error("Device import batch failed", e);
+                failure = e;
+            }
+        }
+
+        private void write(final List<Device> batch) {
+            final OffsetDateTime now = OffsetDateTime.now();
+            batch.forEach(device -> {
+                device.setCreationTime(now);
+                device.setUpdateTime(now);
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                batchRepository.insertAll(batch);
+                historyService.recordCreations(batch, now);
+                batch.forEach(device -> eventPublisher.publishEvent(DeviceChangedEvent.of(device)));
+            });
+            // the inserts bypass Hibernate, so cached finder results would miss the new rows
+            sessionFactory.getCache().evictQueryRegions();
+        }
+    }
+}
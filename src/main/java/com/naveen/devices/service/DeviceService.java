@@ -1,19 +1,42 @@
 package com.naveen.devices.service;
 
 import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
 import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.DeviceLookupResponse;
 import com.naveen.devices.dto.DeviceRequest;
 import com.naveen.devices.dto.DeviceResponse;
 import com.naveen.devices.exception.DeviceNotFoundException;
 import com.naveen.devices.converter.DeviceConverter;
+import com.naveen.devices.repository.DeviceClaimRepository;
+import com.naveen.devices.repository.DeviceLookupRepository;
+import com.naveen.devices.repository.DeviceMembershipIndex;
 import com.naveen.devices.repository.DeviceRepository;
+import com.naveen.devices.repository.DeviceShardRouter;
+import com.naveen.devices.repository.DeviceSnapshotStore;
+import com.naveen.devices.repository.DeviceTombstoneRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 @Service
 @Transactional
@@ -21,45 +44,115 @@ import java.util.List;
 public class DeviceService {
 
     public static final String DEVICE_NOT_FOUND_WITH_ID = "Device not found with id: ";
+    public static final int MAX_CHANGED_SINCE_LIMIT = 5000;
+    public static final int MAX_LOOKUP_IDS = 1000;
+    public static final int MAX_CLAIM_COUNT = 100;
+    private static final Comparator<DeviceResponse> BY_ID = Comparator.comparing(DeviceResponse::id);
+    private static final Comparator<DeviceResponse> BY_CHANGE =
+            Comparator.comparing(DeviceResponse::updateTime).thenComparing(DeviceResponse::id);
     private final DeviceRepository repository;
     private final DeviceConverter deviceConverter;
+    private final DeviceHistoryService historyService;
+    private final DeviceTombstoneRepository tombstoneRepository;
+    private final DeviceSnapshotStore snapshotStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeviceStateWriteBehind writeBehind;
+    private final TransactionTemplate transactionTemplate;
+    private final DeviceShardRouter shardRouter;
+    private final StaleReadCache staleReads;
+    private final DeviceMembershipIndex membershipIndex;
+    private final DeviceLookupRepository lookupRepository;
+    private final DeviceClaimRepository claimRepository;
 
     public Device createDevice(@Valid final DeviceRequest request) {
         // TODO: Consider enforcing unique combination of 'name' and 'brand' to avoid duplicates.
         // This can be done via a unique constraint in the DB and/or service-level validation.
 
+        DeviceValidator.validateCreate(request);
         final Device device = deviceConverter.toEntity(request);
         final OffsetDateTime now = OffsetDateTime.now();
         device.setCreationTime(now);
         device.setUpdateTime(now);
-        return repository.save(device);
+        shardRouter.assignId(device);
+        final Device saved = repository.save(device);
+        historyService.recordStateChange(saved.getId(), null, saved.getState(), now);
+        eventPublisher.publishEvent(DeviceChangedEvent.of(saved));
+        return saved;
     }
 
+    /**
+     * Flushes the device's write-behind state before its transaction begins: the flush commits
+     * in a transaction of its own, and taking that connection while holding another one would
+     * need two per request.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Device updateDevice(final Long id, final DeviceRequest request) {
+        writeBehind.flush(id);
+        return transactionTemplate.execute(status -> updateInTransaction(id, request));
+    }
+
+    private Device updateInTransaction(final Long id, final DeviceRequest request) {
+        shardRouter.route(id);
         final Device device = repository.findById(id)
                 .orElseThrow(() -> new DeviceNotFoundException(DEVICE_NOT_FOUND_WITH_ID + id));
 
         DeviceValidator.validateUpdate(device, request);
 
+        final DeviceState previousState = device.getState();
         deviceConverter.updateEntity(request, device);
         device.setUpdateTime(OffsetDateTime.now());
+        historyService.recordStateChange(id, previousState, device.getState(), device.getUpdateTime());
 
         // TODO: Could add more complex validation here, e.g., prevent state changes under certain conditions
-        return repository.save(device);
+        final Device saved = repository.save(device);
+        eventPublisher.publishEvent(DeviceChangedEvent.of(saved));
+        return saved;
     }
 
+    /**
+     * State-only patches go to the write-behind map when it is enabled and never open a
+     * transaction; anything else is flushed like {@link #updateDevice} and then loaded,
+     * validated and saved in one.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public DeviceResponse partialUpdateDevice(final Long id, final DeviceRequest request) {
+        if (writeBehind.accepts(request)) {
+            return writeBehind.applyState(id, request.getState());
+        }
+        writeBehind.flush(id);
+        return transactionTemplate.execute(status -> partialUpdateInTransaction(id, request));
+    }
+
+    private DeviceResponse partialUpdateInTransaction(final Long id, final DeviceRequest request) {
+        shardRouter.route(id);
         final Device device = repository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Device not found"));
 
         DeviceValidator.validateUpdate(device, request);
 
+        final DeviceState previousState = device.getState();
         deviceConverter.updateEntity(request, device);
         device.setUpdateTime(OffsetDateTime.now());
-        return deviceConverter.toResponse(repository.save(device));
+        historyService.recordStateChange(id, previousState, device.getState(), device.getUpdateTime());
+        final Device saved = repository.save(device);
+        eventPublisher.publishEvent(DeviceChangedEvent.of(saved));
+        return deviceConverter.toResponse(saved);
     }
 
+    /**
+     * Flushes first for the same reason as {@link #updateDevice}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void deleteDevice(final Long id) {
+        writeBehind.flush(id);
+        transactionTemplate.execute(status -> {
+            deleteInTransaction(id);
+            return null;
+        });
+    }
+
+    private void deleteInTransaction(final Long id) {
+        shardRouter.route(id);
         final Device device = repository.findById(id)
                 .orElseThrow(() -> new DeviceNotFoundException(DEVICE_NOT_FOUND_WITH_ID + id));
 
@@ -67,27 +160,200 @@ public class DeviceService {
 
         // TODO: In production, consider soft delete to maintain audit/history
         repository.delete(device);
+        tombstoneRepository.insert(id, Instant.now());
+        eventPublisher.publishEvent(new DevicesRemovedEvent(List.of(id)));
     }
 
-    @Transactional(readOnly = true)
-    public Device getDevice(Long id) {
-        return repository.findById(id)
+    /**
+     * Served from the write-behind map when the device has an unflushed state, otherwise
+     * from the in-memory snapshot when it is enabled and loaded. {@code SUPPORTS}
+     * avoids borrowing a connection on that path. Otherwise the {@code @Query} finder runs
+     * without a transaction (Spring Data only wraps its own CRUD methods in one), so the read
+     * is a single auto-commit statement; the last known copy is served if the database
+     * cannot be reached.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public DeviceResponse getDevice(Long id) {
+        final Optional<DeviceResponse> pending = writeBehind.pending(id);
+        if (pending.isPresent()) {
+            return pending.get();
+        }
+        final Optional<DeviceResponse> found;
+        if (snapshotStore.isReady()) {
+            found = snapshotStore.findById(id);
+        } else {
+            shardRouter.route(id);
+            found = staleReads.device(id, () -> repository.findResponseById(id));
+        }
+        return found
                 .orElseThrow(() -> new DeviceNotFoundException(DEVICE_NOT_FOUND_WITH_ID + id));
     }
 
+    /**
+     * Resolves up to {@link #MAX_LOOKUP_IDS} ids at once, keeping the order they were asked in
+     * and listing each device once. Like {@link #getDevice} unflushed states and the snapshot
+     * are consulted first; the remaining ids go to {@link DeviceLookupRepository}, which reads
+     * the second-level cache before the database.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public DeviceLookupResponse lookupDevices(final List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("ids must contain between 1 and " + MAX_LOOKUP_IDS + " ids");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+        final List<Long> requested = List.copyOf(new LinkedHashSet<>(ids));
+        final Map<Long, DeviceResponse> found = new HashMap<>();
+        final List<Long> toLoad = new ArrayList<>();
+        for (final Long id : requested) {
+            final Optional<DeviceResponse> pending = writeBehind.pending(id);
+            if (pending.isPresent()) {
+                found.put(id, pending.get());
+            } else if (snapshotStore.isReady()) {
+                snapshotStore.findById(id).ifPresent(device -> found.put(id, device));
+            } else {
+                toLoad.add(id);
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            shardRouter.forEachShard(toLoad, Long::longValue, group -> {
+                for (final Device device : lookupRepository.findAllInOrder(group)) {
+                    if (device != null) {
+                        found.put(device.getId(), deviceConverter.toResponse(device));
+                    }
+                }
+            });
+        }
+        final List<DeviceResponse> devices = new ArrayList<>(found.size());
+        final List<Long> missing = new ArrayList<>();
+        for (final Long id : requested) {
+            final DeviceResponse device = found.get(id);
+            if (device == null) {
+                missing.add(id);
+            } else {
+                devices.add(device);
+            }
+        }
+        return new DeviceLookupResponse(devices, missing);
+    }
+
+    /**
+     * Moves up to {@code count} (default 1) available devices, optionally of one brand, to
+     * {@code IN_USE} in one transaction. Devices locked by concurrent claims are passed over,
+     * so two claims never get the same device; fewer come back when fewer are free. Devices
+     * with an unflushed write-behind state are left alone. Claims are refused with sharding,
+     * which requires {@code devices.claim.enabled} off.
+     */
+    public List<DeviceResponse> claimDevices(final String brand, final Integer count) {
+        final int wanted = count == null ? 1 : count;
+        if (wanted < 1 || wanted > MAX_CLAIM_COUNT) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_CLAIM_COUNT);
+        }
+        final OffsetDateTime now = OffsetDateTime.now();
+        final List<DeviceResponse> claimed = new ArrayList<>(wanted);
+        long afterId = 0;
+        while (claimed.size() < wanted) {
+            final int limit = wanted - claimed.size();
+            final List<Device> locked = claimRepository.lockAvailable(brand, afterId, limit);
+            for (final Device device : locked) {
+                if (writeBehind.pending(device.getId()).isEmpty()) {
+                    device.setState(DeviceState.IN_USE);
+                    device.setUpdateTime(now);
+                    historyService.recordStateChange(device.getId(), DeviceState.AVAILABLE, DeviceState.IN_USE, now);
+                    eventPublisher.publishEvent(DeviceChangedEvent.of(device));
+                    claimed.add(deviceConverter.toResponse(device));
+                }
+            }
+            if (locked.size() < limit) {
+                break;
+            }
+            afterId = locked.get(locked.size() - 1).getId();
+        }
+        return claimed;
+    }
+
     @Transactional(readOnly = true)
-    public List<Device> getAllDevices() {
+    public List<DeviceResponse> getAllDevices() {
         // TODO: Future enhancement: Add pagination and filtering for large datasets
-        return repository.findAll();
+        return shardRouter.gather(repository::findAllResponses, BY_ID);
     }
 
-    @Transactional(readOnly = true)
-    public List<Device> getDevicesByBrand(final String brand) {
-        return repository.findByBrand(brand);
+    /**
+     * With the membership index loaded only the devices it lists are fetched, by primary key
+     * in pages of {@link DeviceRepository#ID_PAGE_SIZE}; otherwise the finder filters the table.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<DeviceResponse> getDevicesByBrand(final String brand) {
+        if (snapshotStore.isReady()) {
+            return snapshotStore.findByBrand(brand);
+        }
+        if (membershipIndex.isReady()) {
+            return staleReads.list("brand:" + brand,
+                    () -> findMembers(membershipIndex.idsByBrand(brand), device -> device.brand().equals(brand)));
+        }
+        return staleReads.list("brand:" + brand,
+                () -> shardRouter.gather(() -> repository.findResponsesByBrand(brand), BY_ID));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<DeviceResponse> getDevicesByState(final DeviceState state) {
+        if (snapshotStore.isReady()) {
+            return snapshotStore.findByState(state);
+        }
+        if (membershipIndex.isReady()) {
+            final String name = state.name();
+            return staleReads.list("state:" + state,
+                    () -> findMembers(membershipIndex.idsByState(state), device -> device.state().equals(name)));
+        }
+        return staleReads.list("state:" + state,
+                () -> shardRouter.gather(() -> repository.findResponsesByState(state), BY_ID));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long countDevicesByBrand(final String brand) {
+        if (membershipIndex.isReady()) {
+            return membershipIndex.countByBrand(brand);
+        }
+        return shardRouter.gather(() -> List.of(repository.countByBrand(brand)), Comparator.naturalOrder())
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long countDevicesByState(final DeviceState state) {
+        if (membershipIndex.isReady()) {
+            return membershipIndex.countByState(state);
+        }
+        return shardRouter.gather(() -> List.of(repository.countByState(state)), Comparator.naturalOrder())
+                .stream().mapToLong(Long::longValue).sum();
     }
 
     @Transactional(readOnly = true)
-    public List<Device> getDevicesByState(final DeviceState state) {
-        return repository.findByState(state);
+    public List<DeviceResponse> getDevicesChangedSince(final OffsetDateTime since, final int limit) {
+        if (limit < 1 || limit > MAX_CHANGED_SINCE_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_CHANGED_SINCE_LIMIT);
+        }
+        final List<DeviceResponse> changed =
+                shardRouter.gather(() -> repository.findResponsesChangedSince(since, Limit.of(limit)), BY_CHANGE);
+        return changed.size() > limit ? changed.subList(0, limit) : changed;
+    }
+
+    /**
+     * Fetches {@code ids} page by page in id order. A device whose change committed after the
+     * ids were read may no longer match, so rows are checked against {@code stillMember}.
+     */
+    private List<DeviceResponse> findMembers(final long[] ids, final Predicate<DeviceResponse> stillMember) {
+        final List<DeviceResponse> members = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += DeviceRepository.ID_PAGE_SIZE) {
+            final List<Long> page = Arrays.stream(ids, from, Math.min(from + DeviceRepository.ID_PAGE_SIZE, ids.length))
+                    .boxed()
+                    .toList();
+            for (final DeviceResponse device : repository.findResponsesByIdIn(page)) {
+                if (stillMember.test(device)) {
+                    members.add(device);
+                }
+            }
+        }
+        return members;
     }
 }
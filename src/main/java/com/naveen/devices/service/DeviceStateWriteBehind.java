@@ -0,0 +1,262 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.repository.DeviceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in write-behind for state-only patches ({@code devices.write-behind.enabled}). A flip
+ * is applied to an in-memory map that is authoritative for the device until flushed; repeated
+ * flips of the same device coalesce into one entry, and a background thread writes all
+ * entries as a single batched {@code UPDATE} every {@code flush-interval-ms}, sooner once
+ * {@code max-pending} devices are waiting, and on shutdown. History and change events are
+ * still emitted per flip.
+ *
+ * <p>An entry stays in the map until its write has committed and the cached copies are
+ * evicted, so a flip racing a flush either lands on the entry being written (and is written
+ * next time) or starts from the committed row; a row read while a flush was committing is
+ * read again. Full updates and deletes first {@link #flush(Long) flush} the device so
+ * they load its latest state; purges and archiving drop the removed devices' entries. An
+ * entry whose row is gone by the time it is written is dropped with a warning. Lists by
+ * state or brand read the database and can lag
+ * by one flush interval; keep that interval below {@code devices.sync.commit-lag-ms} so the
+ * sync endpoint never skips a flushed change.
+ */
+@Slf4j
+@Component
+public class DeviceStateWriteBehind {
+
+    private static final String UPDATE_SQL = "update devices set state = ?, update_time = ? where id = ?";
+
+    private final DeviceRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactory sessionFactory;
+    private final DeviceHistoryService historyService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long flushIntervalMs;
+    private final int maxPending;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    /** Bumped by every write before its entries leave the map. */
+    private final AtomicLong flushes = new AtomicLong();
+    private volatile boolean running;
+    private Thread flusher;
+
+    private record Pending(DeviceResponse base, DeviceState state, OffsetDateTime updateTime) {
+
+        DeviceResponse toResponse() {
+            return new DeviceResponse(base.id(), base.name(), base.brand(), state, base.creationTime(), updateTime);
+        }
+    }
+
+    public DeviceStateWriteBehind(final DeviceRepository repository,
+                                  final JdbcTemplate jdbcTemplate,
+                                  final PlatformTransactionManager transactionManager,
+                                  final EntityManagerFactory entityManagerFactory,
+                                  final DeviceHistoryService historyService,
+                                  final ApplicationEventPublisher eventPublisher,
+                                  @Value("${devices.write-behind.enabled:false}") final boolean enabled,
+                                  @Value("${devices.write-behind.flush-interval-ms:100}") final long flushIntervalMs,
+                                  @Value("${devices.write-behind.max-pending:10000}") final int maxPending) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        // own transaction even when called from inside a service update
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.historyService = historyService;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxPending = maxPending;
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            running = true;
+            flusher = Thread.ofPlatform().name("device-state-write-behind").daemon().start(this::run);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher != null) {
+            running = false;
+            LockSupport.unpark(flusher);
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Final write-behind flush failed, {} device states not persisted", pending.size(), e);
+        }
+    }
+
+    /**
+     * @return whether the request only changes the state and write-behind is enabled
+     */
+    public boolean accepts(final DeviceRequest request) {
+        return enabled && request.getName() == null && request.getBrand() == null && request.getState() != null;
+    }
+
+    public DeviceResponse applyState(final Long id, final DeviceState state) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        final DeviceState[] previousState = new DeviceState[1];
+        Pending updated = null;
+        while (updated == null) {
+            // the row is read outside compute, which holds the map bin's lock; it is only used
+            // if no entry appeared and no flush completed meanwhile
+            final long flushesBefore = flushes.get();
+            final DeviceResponse row = pending.containsKey(id) ? null
+                    : repository.findResponseById(id).orElseThrow(() -> new IllegalArgumentException("Device not found"));
+            updated = pending.compute(id, (key, existing) -> {
+                if (existing != null) {
+                    previousState[0] = existing.state();
+                    return new Pending(existing.base(), state, now);
+                }
+                if (row == null || flushes.get() != flushesBefore) {
+                    return null;
+                }
+                previousState[0] = DeviceState.valueOf(row.state());
+                return new Pending(row, state, now);
+            });
+        }
+        historyService.recordStateChange(id, previousState[0], state, now);
+        final DeviceResponse response = updated.toResponse();
+        eventPublisher.publishEvent(new DeviceChangedEvent(id, response.name(), response.brand(), state,
+                response.creationTime(), now));
+        if (pending.size() >= maxPending && flusher != null) {
+            LockSupport.unpark(flusher);
+        }
+        return response;
+    }
+
+    /**
+     * @return the not yet flushed view of a device, if it has one
+     */
+    public Optional<DeviceResponse> pending(final Long id) {
+        return Optional.ofNullable(pending.get(id)).map(Pending::toResponse);
+    }
+
+    /**
+     * Writes one device's unflushed state in its own transaction, waiting for any flush in
+     * progress, so the database row is current once this returns.
+     */
+    public void flush(final Long id) {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            final Pending entry = pending.get(id);
+            if (entry != null) {
+                write(List.of(Map.entry(id, entry)));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every pending state in one batch on the calling thread.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            write(List.copyOf(pending.entrySet()));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Devices that were purged or archived have no row left to write to.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDevicesRemoved(final DevicesRemovedEvent event) {
+        if (enabled) {
+            event.ids().forEach(pending::remove);
+        }
+    }
+
+    /**
+     * Entries leave the map only after their write committed and the cached copies are
+     * evicted, so reads never fall back to a stale cached row, and only if no newer flip
+     * replaced them meanwhile; a failed write leaves them all in place for the next flush.
+     */
+    private void write(final List<Map.Entry<Long, Pending>> batch) {
+        final int[][] counts = transactionTemplate.execute(status ->
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, entry) -> {
+                    ps.setString(1, entry.getValue().state().name());
+                    ps.setTimestamp(2, Timestamp.from(entry.getValue().updateTime().toInstant()));
+                    ps.setLong(3, entry.getKey());
+                }));
+        // the update bypasses Hibernate, so cached copies are dropped once it commits
+        final Cache cache = sessionFactory.getCache();
+        batch.forEach(entry -> cache.evictEntityData(Device.class, entry.getKey()));
+        cache.evictQueryRegions();
+        flushes.incrementAndGet();
+        final List<Long> dropped = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            final Map.Entry<Long, Pending> entry = batch.get(i);
+            pending.remove(entry.getKey(), entry.getValue());
+            if (counts != null && counts.length > 0 && counts[0][i] == 0) {
+                dropped.add(entry.getKey());
+            }
+        }
+        if (!dropped.isEmpty()) {
+            log.warn("Dropped write-behind state of {} devices that no longer exist: {}", dropped.size(), dropped);
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Write-behind flush failed, will retry", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.dto.DeviceSyncResponse;
+import com.naveen.devices.exception.FeatureDisabledException;
+import com.naveen.devices.repository.DeviceRepository;
+import com.naveen.devices.repository.DeviceTombstoneRepository;
+import com.naveen.devices.repository.DeviceTombstoneRepository.Tombstone;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Delta sync for downstream replicas. Each call walks the {@code (update_time, id)} and
+ * {@code (deleted_at, device_id)} keysets from the client's token, so cost follows the
+ * number of changes rather than the table size. Rows newer than {@code commit-lag-ms} are
+ * held back until the next call: a transaction that stamped its update time earlier but
+ * commits later would otherwise land behind a token that already moved past it.
+ * <p>
+ * That is a bound, not a guarantee: resume is exact only for transactions that commit within
+ * {@code commit-lag-ms} of stamping {@code update_time} or {@code deleted_at}. Tombstones are
+ * written in the same transaction as the delete or archive move, so they share the bound.
+ * The writers here stamp their rows right before committing (single-device writes, one
+ * import batch, one bulk-job chunk or archive batch); a transaction held open longer, for
+ * example behind a lock wait, can be skipped by a client that synced in between. Raise
+ * {@code commit-lag-ms} above the longest expected write transaction where that matters.
+ * <p>
+ * The keysets are those of a single database, so sharding requires {@code devices.sync.enabled}
+ * off and the endpoint is refused.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DeviceSyncService {
+
+    public static final int MAX_SYNC_LIMIT = 5000;
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceTombstoneRepository tombstoneRepository;
+    private final long commitLagMs;
+    private final boolean enabled;
+
+    public DeviceSyncService(final DeviceRepository deviceRepository,
+                             final DeviceTombstoneRepository tombstoneRepository,
+                             @Value("${devices.sync.commit-lag-ms:1000}") final long commitLagMs,
+                             @Value("${devices.sync.enabled:true}") final boolean enabled) {
+        this.deviceRepository = deviceRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.commitLagMs = commitLagMs;
+        this.enabled = enabled;
+    }
+
+    public DeviceSyncResponse sync(final String token, final int limit) {
+        if (!enabled) {
+            throw new FeatureDisabledException("devices.sync.enabled");
+        }
+        if (limit < 1 || limit > MAX_SYNC_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SYNC_LIMIT);
+        }
+
+        final SyncToken from = SyncToken.decode(token);
+        final Instant until = Instant.now().minusMillis(commitLagMs);
+
+        final List<DeviceResponse> changed = deviceRepository.findResponsesChangedAfter(
+                SyncToken.fromMicros(from.changedMicros()).atOffset(ZoneOffset.UTC),
+                from.changedId(),
+                until.atOffset(ZoneOffset.UTC),
+                Limit.of(limit));
+        final List<Tombstone> tombstones = tombstoneRepository.findAfter(
+                SyncToken.fromMicros(from.deletedMicros()), from.deletedId(), until, limit);
+
+        final SyncToken next = new SyncToken(
+                changed.isEmpty() ? from.changedMicros() : SyncToken.toMicros(changed.getLast().updateTime().toInstant()),
+                changed.isEmpty() ? from.changedId() : changed.getLast().id(),
+                tombstones.isEmpty() ? from.deletedMicros() : SyncToken.toMicros(tombstones.getLast().deletedAt()),
+                tombstones.isEmpty() ? from.deletedId() : tombstones.getLast().deviceId());
+
+        final List<Long> deleted = tombstones.stream().map(Tombstone::deviceId).toList();
+        final boolean hasMore = changed.size() == limit || tombstones.size() == limit;
+        return new DeviceSyncResponse(changed, deleted, next.encode(), hasMore);
+    }
+}
@@ -3,14 +3,30 @@ package com.naveen.devices.service;
 import com.naveen.devices.domain.Device;
 import com.naveen.devices.domain.DeviceState;
 import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.exception.DeviceInUseException;
+import com.naveen.devices.exception.DeviceValidationException;
 
 public final class DeviceValidator {
 
+    static final int MAX_TEXT_LENGTH = 255;
+
     private DeviceValidator() {}
 
+    /**
+     * Checks a request carries everything the {@code devices} table requires. Every create
+     * path (POST, CSV import, the reactive service) applies these same rules.
+     */
+    public static void validateCreate(final DeviceRequest request) {
+        requireText("name", request.getName());
+        requireText("brand", request.getBrand());
+        if (request.getState() == null) {
+            throw new DeviceValidationException("state is required");
+        }
+    }
+
     public static void validateDelete(final Device device) {
         if (device.getState() == DeviceState.IN_USE) {
-            throw new IllegalArgumentException("Cannot delete a device in use");
+            throw new DeviceValidationException("Cannot delete a device in use");
         }
     }
 
@@ -20,8 +36,17 @@ public final class DeviceValidator {
             final boolean brandChanged = request.getBrand() != null && !request.getBrand().equals(device.getBrand());
 
             if (nameChanged || brandChanged) {
-                throw new IllegalStateException("Cannot update name/brand of a device in use");
+                throw new DeviceInUseException("Cannot update name/brand of a device in use");
             }
         }
     }
+
+    private static void requireText(final String field, final String value) {
+        if (value == null || value.isBlank()) {
+            throw new DeviceValidationException(field + " is required");
+        }
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new DeviceValidationException(field + " must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
 }
@@ -0,0 +1,171 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.BulkJob;
+import com.naveen.devices.domain.BulkJobType;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.repository.DeviceBatchRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports a CSV spooled to {@code devices.jobs.spool-dir} at submission, with the same
+ * format and row rules as {@link DeviceImportService}. The cursor is the number of data rows
+ * consumed, so a resumed job skips rows already committed or rejected. The spool directory
+ * must be shared when several instances poll the job table.
+ */
+@Slf4j
+@Component
+public class ImportJobHandler implements BulkJobHandler {
+
+    private final DeviceBatchRepository batchRepository;
+    private final SessionFactory sessionFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path spoolDir;
+    private final int maxRecordChars;
+
+    public ImportJobHandler(final DeviceBatchRepository batchRepository,
+                            final EntityManagerFactory entityManagerFactory,
+                            final ApplicationEventPublisher eventPublisher,
+                            @Value("${devices.jobs.spool-dir:${java.io.tmpdir}/devices-jobs}") final Path spoolDir,
+                            @Value("${devices.import.max-record-chars:8192}") final int maxRecordChars) {
+        this.batchRepository = batchRepository;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.eventPublisher = eventPublisher;
+        this.spoolDir = spoolDir;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    @Override
+    public BulkJobType type() {
+        return BulkJobType.IMPORT;
+    }
+
+    /**
+     * Streams the upload to disk so the request can return before the import runs.
+     *
+     * @return the job parameters: the spooled file's path
+     */
+    public String spool(final String jobId, final InputStream csv) {
+        try {
+            Files.createDirectories(spoolDir);
+            final Path file = spoolDir.resolve(jobId + ".csv");
+            Files.copy(csv, file);
+            return file.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Run open(final BulkJob job) {
+        final BufferedReader input;
+        try {
+            input = Files.newBufferedReader(Path.of(job.parameters()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final CsvRecordReader reader = new CsvRecordReader(input, maxRecordChars);
+        final int[] columns = DeviceImportService.readHeader(reader);
+        final long consumed = job.cursor() == null ? 0L : Long.parseLong(job.cursor());
+        long skipped = 0;
+        while (skipped < consumed && reader.next() != null) {
+            skipped++;
+        }
+        return new ImportRun(input, reader, columns, consumed);
+    }
+
+    @Override
+    public void finished(final BulkJob job) {
+        try {
+            Files.deleteIfExists(Path.of(job.parameters()));
+        } catch (IOException e) {
+            log.warn("Could not delete spooled import {}", job.parameters(), e);
+        }
+    }
+
+    private final class ImportRun implements Run {
+
+        private final BufferedReader input;
+        private final CsvRecordReader reader;
+        private final int[] columns;
+        private long consumed;
+
+        private ImportRun(final BufferedReader input, final CsvRecordReader reader, final int[] columns,
+                          final long consumed) {
+            this.input = input;
+            this.reader = reader;
+            this.columns = columns;
+            this.consumed = consumed;
+        }
+
+        @Override
+        public BulkJobChunk next(final int chunkSize) {
+            final List<Device> devices = new ArrayList<>(chunkSize);
+            int rows = 0;
+            int failed = 0;
+            String lastError = null;
+            List<String> record;
+            while (rows < chunkSize && (record = reader.next()) != null) {
+                rows++;
+                try {
+                    devices.add(DeviceImportService.toDevice(record, columns));
+                } catch (IllegalArgumentException e) {
+                    failed++;
+                    lastError = "line " + reader.recordLine() + ": " + e.getMessage();
+                }
+            }
+            if (rows == 0) {
+                return null;
+            }
+            if (!devices.isEmpty()) {
+                insert(devices);
+            }
+            consumed += rows;
+            return new BulkJobChunk(String.valueOf(consumed), rows, failed, lastError);
+        }
+
+        private void insert(final List<Device> devices) {
+            final OffsetDateTime now = OffsetDateTime.now();
+            devices.forEach(device -> {
+                device.setCreationTime(now);
+                device.setUpdateTime(now);
+            });
+            batchRepository.insertAll(devices);
+            devices.forEach(device -> eventPublisher.publishEvent(DeviceChangedEvent.of(device)));
+            // the inserts bypass Hibernate, so cached finder results are dropped once they commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessionFactory.getCache().evictQueryRegions();
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            try {
+                input.close();
+            } catch (IOException e) {
+                log.debug("Could not close spooled import", e);
+            }
+        }
+    }
+}
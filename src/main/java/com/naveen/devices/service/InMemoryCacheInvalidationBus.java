@@ -0,0 +1,56 @@
+package com.naveen.devices.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-JVM bus: every bus created by {@link #join()} from the same instance forms one group and
+ * messages are delivered synchronously on the publishing thread. Lets tests run several
+ * "instances" in one JVM; as the only member of its group it is a no-op.
+ */
+public class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<InMemoryCacheInvalidationBus> group;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public InMemoryCacheInvalidationBus() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private InMemoryCacheInvalidationBus(final List<InMemoryCacheInvalidationBus> group) {
+        this.group = group;
+        group.add(this);
+    }
+
+    /**
+     * @return a new member of this bus's group, standing for another instance
+     */
+    public InMemoryCacheInvalidationBus join() {
+        return new InMemoryCacheInvalidationBus(group);
+    }
+
+    @Override
+    public void publish(final Set<Long> deviceIds) {
+        final Set<Long> copy = Set.copyOf(deviceIds);
+        for (final InMemoryCacheInvalidationBus member : group) {
+            if (member != this) {
+                member.listeners.forEach(listener -> listener.invalidate(copy));
+            }
+        }
+    }
+
+    @Override
+    public void publishAll() {
+        for (final InMemoryCacheInvalidationBus member : group) {
+            if (member != this) {
+                member.listeners.forEach(Listener::invalidateAll);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(final Listener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,176 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.repository.CacheInvalidationRepository;
+import com.naveen.devices.repository.CacheInvalidationRepository.Invalidation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Default bus, needing nothing but the shared database. A publish inserts rows of
+ * comma-separated ids into {@code cache_invalidations}; every instance polls the rows after
+ * its cursor every {@code poll-interval-ms} and hands those from other instances to its
+ * listeners. The cursor only moves past rows older than {@code commit-lag-ms}, since a row
+ * with a lower id can commit after a higher one; younger rows are remembered so they are
+ * delivered once. Rows older than {@code retention-ms} are deleted.
+ */
+@Slf4j
+public class JdbcCacheInvalidationBus implements CacheInvalidationBus, AutoCloseable {
+
+    static final String ALL = "*";
+    /** Snowflake ids have at most 19 digits, so a row stays within the 4000 character column. */
+    static final int IDS_PER_ROW = 200;
+    private static final int POLL_LIMIT = 1000;
+
+    private final CacheInvalidationRepository repository;
+    private final String origin = UUID.randomUUID().toString();
+    private final long pollIntervalMs;
+    private final long commitLagMs;
+    private final long retentionMs;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final NavigableSet<Long> delivered = new TreeSet<>();
+    private long cursor = -1;
+    private Instant lastPurge = Instant.EPOCH;
+    private volatile boolean running;
+    private Thread poller;
+
+    public JdbcCacheInvalidationBus(final CacheInvalidationRepository repository,
+                                    final long pollIntervalMs,
+                                    final long commitLagMs,
+                                    final long retentionMs) {
+        this.repository = repository;
+        this.pollIntervalMs = pollIntervalMs;
+        this.commitLagMs = commitLagMs;
+        this.retentionMs = retentionMs;
+    }
+
+    @Override
+    public void publish(final Set<Long> deviceIds) {
+        if (!deviceIds.isEmpty()) {
+            repository.insertAll(origin, encode(deviceIds), Instant.now());
+        }
+    }
+
+    @Override
+    public void publishAll() {
+        repository.insertAll(origin, List.of(ALL), Instant.now());
+    }
+
+    /**
+     * Registers the listener; the first subscription starts polling from the current end of
+     * the table, so messages published before it are never delivered.
+     */
+    @Override
+    public synchronized void subscribe(final Listener listener) {
+        listeners.add(listener);
+        if (cursor < 0) {
+            cursor = repository.maxId();
+        }
+        if (poller == null && pollIntervalMs > 0) {
+            running = true;
+            poller = Thread.ofPlatform().name("cache-invalidation-poller").daemon().start(this::run);
+        }
+    }
+
+    /**
+     * Delivers the messages published by other instances since the last poll.
+     */
+    synchronized void poll() {
+        if (cursor < 0) {
+            return;
+        }
+        final Instant now = Instant.now();
+        final Instant settled = now.minusMillis(commitLagMs);
+        long settledCursor = cursor;
+        boolean settling = true;
+        for (final Invalidation row : repository.findAfter(cursor, POLL_LIMIT)) {
+            if (delivered.add(row.id()) && !origin.equals(row.origin())) {
+                deliver(row.deviceIds());
+            }
+            if (settling && row.createdAt().isBefore(settled)) {
+                settledCursor = row.id();
+            } else {
+                settling = false;
+            }
+        }
+        cursor = settledCursor;
+        delivered.headSet(cursor, true).clear();
+
+        if (lastPurge.isBefore(now.minusMillis(retentionMs))) {
+            repository.deleteBefore(now.minusMillis(retentionMs));
+            lastPurge = now;
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (poller != null) {
+            running = false;
+            LockSupport.unpark(poller);
+            poller.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    static List<String> encode(final Set<Long> deviceIds) {
+        final List<String> rows = new ArrayList<>(deviceIds.size() / IDS_PER_ROW + 1);
+        StringJoiner row = new StringJoiner(",");
+        int count = 0;
+        for (final Long id : new TreeSet<>(deviceIds)) {
+            row.add(Long.toString(id));
+            if (++count == IDS_PER_ROW) {
+                rows.add(row.toString());
+                row = new StringJoiner(",");
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+    static Set<Long> decode(final String deviceIds) {
+        final String[] parts = deviceIds.split(",");
+        final Set<Long> ids = new HashSet<>(parts.length * 2);
+        for (final String part : parts) {
+            ids.add(Long.parseLong(part));
+        }
+        return ids;
+    }
+
+    private void deliver(final String deviceIds) {
+        for (final Listener listener : listeners) {
+            try {
+                if (ALL.equals(deviceIds)) {
+                    listener.invalidateAll();
+                } else {
+                    listener.invalidate(decode(deviceIds));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation listener failed", e);
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMs));
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                log.warn("Polling cache invalidations failed, will retry", e);
+            }
+        }
+    }
+}
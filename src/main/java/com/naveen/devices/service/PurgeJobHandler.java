@@ -0,0 +1,66 @@
+package com.naveen.devices.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.domain.BulkJob;
+import com.naveen.devices.domain.BulkJobType;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.PurgeJobRequest;
+import com.naveen.devices.repository.DeviceRepository;
+import com.naveen.devices.repository.DeviceTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Deletes matching devices in id order, leaving tombstones for sync clients. The cursor is
+ * the last device id deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class PurgeJobHandler implements BulkJobHandler {
+
+    private final DeviceRepository repository;
+    private final DeviceTombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public BulkJobType type() {
+        return BulkJobType.PURGE;
+    }
+
+    @Override
+    public Run open(final BulkJob job) {
+        final PurgeJobRequest request = readParameters(job);
+        final long[] afterId = {job.cursor() == null ? 0L : Long.parseLong(job.cursor())};
+        return chunkSize -> {
+            final List<Device> devices = repository.findChunkAfter(afterId[0], request.brand(), request.state(),
+                    Limit.of(chunkSize));
+            if (devices.isEmpty()) {
+                return null;
+            }
+            devices.forEach(DeviceValidator::validateDelete);
+            final List<Long> ids = devices.stream().map(Device::getId).toList();
+            repository.deleteAll(devices);
+            tombstoneRepository.insertAll(ids, Instant.now());
+            eventPublisher.publishEvent(new DevicesRemovedEvent(ids));
+            afterId[0] = ids.get(ids.size() - 1);
+            return new BulkJobChunk(String.valueOf(afterId[0]), ids.size(), 0, null);
+        };
+    }
+
+    private PurgeJobRequest readParameters(final BulkJob job) {
+        try {
+            return objectMapper.readValue(job.parameters(), PurgeJobRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
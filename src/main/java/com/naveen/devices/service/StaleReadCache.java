@@ -0,0 +1,115 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.exception.DatabaseUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Last answers of the device reads, kept only to be served while the database is
+ * unreachable. Single devices follow committed changes through the domain events; lists are
+ * whatever the last successful query returned. Both are bounded LRU maps
+ * ({@code devices.circuit-breaker.stale-reads.*}); served stale answers are counted as
+ * {@code devices.stale-reads}.
+ */
+@Slf4j
+@Component
+public class StaleReadCache {
+
+    static final String STALE_READS_METRIC = "devices.stale-reads";
+
+    private final Map<Long, DeviceResponse> devices;
+    private final Map<String, List<DeviceResponse>> lists;
+    private final Counter served;
+
+    public StaleReadCache(final MeterRegistry meterRegistry,
+                          @Value("${devices.circuit-breaker.stale-reads.max-devices:10000}") final int maxDevices,
+                          @Value("${devices.circuit-breaker.stale-reads.max-lists:256}") final int maxLists) {
+        this.devices = lru(maxDevices);
+        this.lists = lru(maxLists);
+        this.served = Counter.builder(STALE_READS_METRIC)
+                .description("Reads answered from the stale cache because the database was unavailable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code query}; if the database is unavailable, answers with the last result
+     * seen for the device instead.
+     */
+    public Optional<DeviceResponse> device(final Long id, final Supplier<Optional<DeviceResponse>> query) {
+        final Optional<DeviceResponse> found;
+        try {
+            found = query.get();
+        } catch (RuntimeException e) {
+            return Optional.of(stale(e, devices.get(id)));
+        }
+        if (found.isPresent()) {
+            devices.put(id, found.get());
+        } else {
+            devices.remove(id);
+        }
+        return found;
+    }
+
+    /**
+     * Runs {@code query}; if the database is unavailable, answers with the last result
+     * seen for {@code key} instead.
+     */
+    public List<DeviceResponse> list(final String key, final Supplier<List<DeviceResponse>> query) {
+        final List<DeviceResponse> result;
+        try {
+            result = query.get();
+        } catch (RuntimeException e) {
+            return stale(e, lists.get(key));
+        }
+        lists.put(key, List.copyOf(result));
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(final DeviceChangedEvent event) {
+        devices.computeIfPresent(event.id(), (id, previous) -> new DeviceResponse(id, event.name(), event.brand(),
+                event.state(), event.creationTime(), event.updateTime()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDevicesRemoved(final DevicesRemovedEvent event) {
+        event.ids().forEach(devices::remove);
+    }
+
+    private <T> T stale(final RuntimeException failure, final T cached) {
+        if (!DatabaseUnavailableException.isCause(failure)) {
+            throw failure;
+        }
+        if (cached == null) {
+            throw failure instanceof DatabaseUnavailableException unavailable
+                    ? unavailable
+                    : new DatabaseUnavailableException(failure);
+        }
+        log.debug("Database unavailable, serving stale read", failure);
+        served.increment();
+        return cached;
+    }
+
+    private static <K, V> Map<K, V> lru(final int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+}
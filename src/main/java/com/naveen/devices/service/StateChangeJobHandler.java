@@ -0,0 +1,81 @@
+package com.naveen.devices.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.domain.BulkJob;
+import com.naveen.devices.domain.BulkJobType;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.StateChangeJobRequest;
+import com.naveen.devices.repository.DeviceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves matching devices to a new state, walking them in id order. The cursor is the last
+ * device id examined.
+ *
+ * <p>Unflushed write-behind states are written before the first chunk, outside its
+ * transaction, so the job starts from current rows. A device flipped through the write-behind
+ * while the job runs is skipped, as claims do, and keeps that later state.
+ */
+@Component
+@RequiredArgsConstructor
+public class StateChangeJobHandler implements BulkJobHandler {
+
+    private final DeviceRepository repository;
+    private final DeviceHistoryService historyService;
+    private final DeviceStateWriteBehind writeBehind;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public BulkJobType type() {
+        return BulkJobType.STATE_CHANGE;
+    }
+
+    @Override
+    public Run open(final BulkJob job) {
+        final StateChangeJobRequest request = readParameters(job);
+        final long[] afterId = {job.cursor() == null ? 0L : Long.parseLong(job.cursor())};
+        writeBehind.flush();
+        return chunkSize -> {
+            final List<Device> devices = repository.findChunkAfter(afterId[0], request.brand(), request.fromState(),
+                    Limit.of(chunkSize));
+            if (devices.isEmpty()) {
+                return null;
+            }
+            final OffsetDateTime now = OffsetDateTime.now();
+            final List<Device> changed = new ArrayList<>(devices.size());
+            for (final Device device : devices) {
+                final DeviceState previousState = device.getState();
+                if (previousState != request.toState() && writeBehind.pending(device.getId()).isEmpty()) {
+                    device.setState(request.toState());
+                    device.setUpdateTime(now);
+                    historyService.recordStateChange(device.getId(), previousState, request.toState(), now);
+                    changed.add(device);
+                }
+            }
+            repository.saveAll(changed);
+            changed.forEach(device -> eventPublisher.publishEvent(DeviceChangedEvent.of(device)));
+            afterId[0] = devices.get(devices.size() - 1).getId();
+            return new BulkJobChunk(String.valueOf(afterId[0]), devices.size(), 0, null);
+        };
+    }
+
+    private StateChangeJobRequest readParameters(final BulkJob job) {
+        try {
+            return objectMapper.readValue(job.parameters(), StateChangeJobRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
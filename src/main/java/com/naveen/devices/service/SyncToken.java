@@ -0,0 +1,48 @@
+package com.naveen.devices.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Resume position of a sync client: the last {@code (update_time, id)} seen on devices and
+ * the last {@code (deleted_at, device_id)} seen on tombstones. Serialized as an opaque
+ * URL-safe string so clients never depend on its layout.
+ */
+record SyncToken(long changedMicros, long changedId, long deletedMicros, long deletedId) {
+
+    static final SyncToken INITIAL = new SyncToken(0L, 0L, 0L, 0L);
+    private static final String VERSION = "v1";
+
+    String encode() {
+        final String raw = String.join(":", VERSION, Long.toString(changedMicros), Long.toString(changedId),
+                Long.toString(deletedMicros), Long.toString(deletedId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static SyncToken decode(final String token) {
+        if (token == null || token.isBlank()) {
+            return INITIAL;
+        }
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid sync token");
+            }
+            return new SyncToken(Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 decoding errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid sync token", e);
+        }
+    }
+
+    static long toMicros(final Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    static Instant fromMicros(final long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
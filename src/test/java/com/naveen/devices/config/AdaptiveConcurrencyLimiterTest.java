@@ -0,0 +1,81 @@
+package com.naveen.devices.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void tryAcquire_shouldRejectBeyondLimit_untilReleased() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(FAST);
+
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void release_shouldRaiseLimit_whileSaturatedAndLatencySteady() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+
+        saturate(limiter, FAST, 50);
+
+        assertThat(limiter.limit()).isEqualTo(100);
+    }
+
+    @Test
+    void release_shouldLowerLimit_whenLatencyClimbs() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 2, 100);
+        saturate(limiter, FAST, 5);
+        final int before = limiter.limit();
+
+        saturate(limiter, SLOW, 20);
+
+        assertThat(limiter.limit()).isLessThan(before / 2);
+    }
+
+    @Test
+    void release_shouldNotRaiseLimit_whenMostlyIdle() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void constructor_shouldRejectInconsistentLimits() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 10, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Fills the limit, then completes every request with {@code rttNanos}.
+     */
+    private static void saturate(final AdaptiveConcurrencyLimiter limiter, final long rttNanos, final int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
@@ -54,6 +54,36 @@ class ApiKeyFilterTest {
         assertThat(filterChain.isChainCalled()).isFalse();
     }
 
+    @Test
+    void doFilterInternal_shouldReturnUnauthorized_whenJfrEndpointCalledWithoutApiKey() throws ServletException, IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/actuator/jfr");
+        request.setMethod("POST");
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        apiKeyFilter.doFilterInternal(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        assertThat(filterChain.isChainCalled()).isFalse();
+    }
+
+    @Test
+    void doFilterInternal_shouldReturnUnauthorized_whenMetricsEndpointCalledWithoutApiKey() throws ServletException, IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/actuator/metrics/hibernate.sessions.open");
+        request.setMethod("GET");
+
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        apiKeyFilter.doFilterInternal(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        assertThat(filterChain.isChainCalled()).isFalse();
+    }
+
     @Test
     void doFilterInternal_shouldBypassSwaggerAndActuatorPaths() throws ServletException, IOException {
         String[] paths = {"/swagger-ui/index.html", "/v3/api-docs", "/swagger-ui.html", "/actuator/health"};
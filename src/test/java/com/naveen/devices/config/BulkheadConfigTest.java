@@ -0,0 +1,70 @@
+package com.naveen.devices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadConfigTest {
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @Test
+    void bulkheadDataSource_shouldDerivePermitsFromPoolSize_whenNotConfigured() {
+        final BulkheadDataSource bulkhead = postProcess(pool(5));
+
+        assertThat(bulkhead.availablePermits(BulkheadDataSource.Lane.READ)).isEqualTo(5);
+        assertThat(bulkhead.availablePermits(BulkheadDataSource.Lane.WRITE)).isEqualTo(3);
+    }
+
+    @Test
+    void bulkheadDataSource_shouldFindPoolBehindWrappers() {
+        final BulkheadDataSource bulkhead = postProcess(new LazyConnectionDataSourceProxy(pool(20)));
+
+        assertThat(bulkhead.availablePermits(BulkheadDataSource.Lane.WRITE)).isEqualTo(12);
+    }
+
+    @Test
+    void bulkheadDataSource_shouldFallBackToDefaultPoolSize_forOtherDataSources() {
+        final BulkheadDataSource bulkhead = postProcess(new DriverManagerDataSource("jdbc:h2:mem:bulkhead-config"));
+
+        assertThat(bulkhead.availablePermits(BulkheadDataSource.Lane.READ))
+                .isEqualTo(BulkheadConfig.BulkheadDataSourcePostProcessor.DEFAULT_POOL_SIZE);
+    }
+
+    @Test
+    void bulkheadDataSource_shouldRefuseWritePermitsNotBelowPoolSize() {
+        environment.setProperty("devices.bulkhead.write-permits", "6");
+
+        assertThatThrownBy(() -> postProcess(pool(5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("devices.bulkhead.write-permits (6)");
+    }
+
+    @Test
+    void bulkheadDataSource_shouldIgnorePoolSize_whenBulkheadDisabled() {
+        environment.setProperty("devices.bulkhead.enabled", "false");
+        environment.setProperty("devices.bulkhead.write-permits", "6");
+
+        assertThat(postProcess(pool(5)).availablePermits(BulkheadDataSource.Lane.WRITE)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    private BulkheadDataSource postProcess(final DataSource dataSource) {
+        final BulkheadConfig.BulkheadDataSourcePostProcessor postProcessor =
+                new BulkheadConfig.BulkheadDataSourcePostProcessor();
+        postProcessor.setEnvironment(environment);
+        return (BulkheadDataSource) postProcessor.postProcessAfterInitialization(dataSource, "dataSource");
+    }
+
+    private static HikariDataSource pool(final int size) {
+        final HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(size);
+        return pool;
+    }
+}
@@ -0,0 +1,131 @@
+package com.naveen.devices.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadDataSourceTest {
+
+    private final DelayedDataSource database = new DelayedDataSource("bulkhead");
+    private final BulkheadDataSource dataSource = new BulkheadDataSource(database, 2, 2, 200,
+            new DatabaseCircuitBreaker(3, 300));
+    private final List<Connection> held = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        for (final Connection connection : held) {
+            connection.close();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void getConnection_shouldServeReads_whileSlowWritesHoldEveryWritePermit() throws Exception {
+        database.delay(50);
+        held.add(connectionOnOtherThread());
+        held.add(connectionOnOtherThread());
+        assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.WRITE)).isZero();
+
+        final long started = System.nanoTime();
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("No write connection");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1000);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection read = dataSource.getConnection()) {
+            assertThat(read.isValid(1)).isTrue();
+            assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.READ)).isEqualTo(1);
+        }
+        assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.READ)).isEqualTo(2);
+        assertThat(dataSource.circuitState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void getConnection_shouldNotTakeSecondPermit_forConnectionNestedInOneThreadHolds() throws Exception {
+        held.add(connectionOnOtherThread());
+        try (Connection outer = dataSource.getConnection()) {
+            assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.WRITE)).isZero();
+
+            try (Connection nested = dataSource.getConnection()) {
+                assertThat(nested.isValid(1)).isTrue();
+            }
+            assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.WRITE)).isZero();
+        }
+        assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.WRITE)).isEqualTo(1);
+
+        try (Connection next = dataSource.getConnection()) {
+            assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.WRITE)).isZero();
+        }
+    }
+
+    @Test
+    void runInLane_shouldOverrideThreadReadOnlyFlag() throws Exception {
+        BulkheadDataSource.runInLane(BulkheadDataSource.Lane.READ, () -> {
+            try {
+                held.add(dataSource.getConnection());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.READ)).isEqualTo(1);
+        assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.WRITE)).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_shouldReleasePermitOnce_whenClosedTwice() throws Exception {
+        final Connection connection = dataSource.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.WRITE)).isEqualTo(2);
+    }
+
+    @Test
+    void getConnection_shouldFailFast_onceDatabaseIsDown_andRecoverAfterProbe() throws Exception {
+        database.delay(100);
+        database.down(true);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+        assertThat(dataSource.circuitState()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        assertThat(dataSource.availablePermits(BulkheadDataSource.Lane.WRITE)).isEqualTo(2);
+
+        final long started = System.nanoTime();
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage(BulkheadDataSource.CIRCUIT_OPEN_MESSAGE);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(100);
+        assertThat(database.requests()).isEqualTo(3);
+
+        database.down(false);
+        Thread.sleep(300);
+        try (Connection probe = dataSource.getConnection()) {
+            assertThat(probe.isValid(1)).isTrue();
+        }
+        assertThat(dataSource.circuitState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    private Connection connectionOnOtherThread() throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }, runnable -> Thread.ofPlatform().start(runnable)).get();
+    }
+}
@@ -0,0 +1,109 @@
+package com.naveen.devices.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ConcurrencyLimitFilter filter =
+            new ConcurrencyLimitFilter(meterRegistry, objectMapper, true, 1, 1, 10, 1, 10, 2);
+
+    @Test
+    void doFilter_shouldShedWithRetryAfter_whenLimitReached() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread holder = Thread.ofVirtual().start(() -> perform("PATCH", (request, response) -> {
+            entered.countDown();
+            await(release);
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final MockHttpServletResponse shed = perform("DELETE", new MockFilterChain());
+        final MockHttpServletResponse read = perform("GET", new MockFilterChain());
+        release.countDown();
+        holder.join();
+
+        assertThat(shed.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(shed.getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(objectMapper.readTree(shed.getContentAsByteArray()).get("detail").asText())
+                .isEqualTo(ConcurrencyLimitFilter.OVERLOADED_DETAIL);
+        assertThat(meterRegistry.get(GlobalExceptionHandler.ERRORS_METRIC).tag("type", "unavailable").counter().count())
+                .isEqualTo(1);
+        assertThat(read.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METRIC).tag("type", "write").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METRIC).tag("type", "read").counter().count())
+                .isZero();
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METRIC).tag("type", "write").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void doFilter_shouldReleasePermit_whenChainThrows() {
+        final MockHttpServletResponse failed = perform("POST", (request, response) -> {
+            throw new IllegalStateException("boom");
+        });
+        final MockHttpServletResponse next = perform("POST", new MockFilterChain());
+
+        assertThat(failed).isNull();
+        assertThat(next.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void shouldNotFilter_shouldSkipNonApiPaths_andDisabledFilter() {
+        final ConcurrencyLimitFilter disabled = new ConcurrencyLimitFilter(new SimpleMeterRegistry(), objectMapper, false, 1, 1, 10, 1, 10, 1);
+
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health"))).isTrue();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/devices"))).isFalse();
+        assertThat(disabled.shouldNotFilter(new MockHttpServletRequest("GET", "/api/devices"))).isTrue();
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.LIMIT_METRIC).tag("type", "read").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void isRead_shouldCountBatchLookupAsRead() {
+        assertThat(ConcurrencyLimitFilter.isRead(new MockHttpServletRequest("POST", ConcurrencyLimitFilter.LOOKUP_PATH)))
+                .isTrue();
+        assertThat(ConcurrencyLimitFilter.isRead(new MockHttpServletRequest("POST", "/api/devices"))).isFalse();
+        assertThat(ConcurrencyLimitFilter.isRead(new MockHttpServletRequest("HEAD", "/api/devices/1"))).isTrue();
+    }
+
+    private MockHttpServletResponse perform(final String method, final FilterChain chain) {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest(method, "/api/devices/1"), response, chain);
+        } catch (IllegalStateException | ServletException | IOException e) {
+            return null;
+        }
+        return response;
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
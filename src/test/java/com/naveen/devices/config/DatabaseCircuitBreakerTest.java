@@ -0,0 +1,78 @@
+package com.naveen.devices.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final DatabaseCircuitBreaker breaker = new DatabaseCircuitBreaker(3, 1000, now::get);
+
+    @Test
+    void onFailure_shouldOpen_afterConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_shouldLetOneProbeThrough_afterOpenPeriod() {
+        open();
+        advance(1000);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(DatabaseCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void onFailure_shouldReopen_whenProbeFails() {
+        open();
+        advance(1000);
+        breaker.tryAcquire();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        advance(999);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_shouldAllowNewProbe_whenPreviousNeverReported() {
+        open();
+        advance(1000);
+        breaker.tryAcquire();
+        advance(1000);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+    }
+
+    private void advance(final long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
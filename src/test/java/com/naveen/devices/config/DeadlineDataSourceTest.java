@@ -0,0 +1,67 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.repository.RequestDeadline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineDataSourceTest {
+
+    private final DeadlineDataSource dataSource = new DeadlineDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void prepareStatement_shouldUseRemainingTimeRoundedUp() throws Exception {
+        RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1500));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            assertThat(statement.getQueryTimeout()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void createStatement_shouldLeaveTimeoutAlone_withoutDeadline() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            assertThat(statement.getQueryTimeout()).isZero();
+            assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+        }
+    }
+
+    @Test
+    void getConnection_shouldFail_whenDeadlinePassed() {
+        RequestDeadline.set(System.nanoTime() - 1);
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTimeoutException.class)
+                .hasMessage(DeadlineDataSource.EXPIRED_MESSAGE);
+    }
+
+    @Test
+    void query_shouldBeCancelledByDatabase_whenItOutlivesDeadline() {
+        RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500));
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        final long started = System.nanoTime();
+
+        assertThatThrownBy(() -> jdbcTemplate.queryForObject(
+                "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b", Long.class))
+                .hasRootCauseInstanceOf(SQLTimeoutException.class);
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started)).isLessThan(5);
+    }
+}
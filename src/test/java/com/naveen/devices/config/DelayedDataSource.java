@@ -0,0 +1,54 @@
+package com.naveen.devices.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fault injection for tests: an in-memory H2 database whose connections take
+ * {@code delayMs} to hand out and which, while {@code down}, fails every request after that
+ * delay the way an exhausted pool does.
+ */
+class DelayedDataSource extends DelegatingDataSource {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long delayMs;
+    private volatile boolean down;
+
+    DelayedDataSource(final String name) {
+        super(new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+
+    void delay(final long millis) {
+        this.delayMs = millis;
+    }
+
+    void down(final boolean isDown) {
+        this.down = isDown;
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        requests.incrementAndGet();
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted", e);
+            }
+        }
+        if (down) {
+            throw new SQLTransientConnectionException("Connection is not available, request timed out");
+        }
+        return super.getConnection();
+    }
+}
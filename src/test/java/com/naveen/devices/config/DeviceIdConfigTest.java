@@ -0,0 +1,26 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.domain.DeviceIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeviceIdConfigTest {
+
+    private final DeviceIdConfig config = new DeviceIdConfig();
+
+    @Test
+    void deviceIdGenerator_shouldParseNodeId_whenSet() {
+        final DeviceIdGenerator generator = config.deviceIdGenerator(" 7 ");
+
+        assertThat(generator.nextId()).isPositive();
+    }
+
+    @Test
+    void deviceIdGenerator_shouldRefuseToStart_whenNodeIdIsBlank() {
+        assertThatThrownBy(() -> config.deviceIdGenerator(""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(DeviceIdConfig.NODE_ID_PROPERTY);
+    }
+}
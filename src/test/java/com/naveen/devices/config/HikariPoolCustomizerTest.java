@@ -0,0 +1,59 @@
+package com.naveen.devices.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HikariPoolCustomizerTest {
+
+    private MockEnvironment environment;
+    private HikariPoolCustomizer customizer;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        customizer = new HikariPoolCustomizer();
+        customizer.setEnvironment(environment);
+    }
+
+    @Test
+    void customize_shouldSizePoolFromCores_whenSizeNotConfigured() {
+        final HikariDataSource dataSource = new HikariDataSource();
+
+        customizer.customize(dataSource, 4);
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(9);
+    }
+
+    @Test
+    void customize_shouldKeepConfiguredSize_whenSizeConfigured() {
+        environment.setProperty(HikariPoolCustomizer.MAX_POOL_SIZE_PROPERTY, "30");
+        final HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(30);
+
+        customizer.customize(dataSource, 4);
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(30);
+    }
+
+    @Test
+    void customize_shouldUseFixedSizePool_whenVirtualThreadsEnabled() {
+        environment.setProperty(HikariPoolCustomizer.VIRTUAL_THREADS_PROPERTY, "true");
+        final HikariDataSource dataSource = new HikariDataSource();
+
+        customizer.customize(dataSource, 2);
+
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(5);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(5);
+    }
+
+    @Test
+    void postProcessAfterInitialization_shouldIgnoreOtherBeans() {
+        final Object bean = new Object();
+
+        assertThat(customizer.postProcessAfterInitialization(bean, "other")).isSameAs(bean);
+    }
+}
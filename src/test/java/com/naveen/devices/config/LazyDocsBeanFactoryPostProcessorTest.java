@@ -0,0 +1,34 @@
+package com.naveen.devices.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.web.filter.CorsFilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyDocsBeanFactoryPostProcessorTest {
+
+    private final LazyDocsBeanFactoryPostProcessor postProcessor = new LazyDocsBeanFactoryPostProcessor();
+
+    @Test
+    void postProcessBeanFactory_shouldMarkOnlyDocumentationBeansLazy() {
+        final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("openApiConfig", new RootBeanDefinition(OpenApiConfig.class));
+        final RootBeanDefinition devicesApi = new RootBeanDefinition();
+        devicesApi.setFactoryBeanName("openApiConfig");
+        devicesApi.setFactoryMethodName("devicesApi");
+        beanFactory.registerBeanDefinition("devicesApi", devicesApi);
+        final RootBeanDefinition springdocBean = new RootBeanDefinition();
+        springdocBean.setBeanClassName("org.springdoc.core.service.OpenAPIService");
+        beanFactory.registerBeanDefinition("openAPIService", springdocBean);
+        beanFactory.registerBeanDefinition("corsFilter", new RootBeanDefinition(CorsFilter.class));
+
+        postProcessor.postProcessBeanFactory(beanFactory);
+
+        assertThat(beanFactory.getBeanDefinition("openApiConfig").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("devicesApi").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("openAPIService").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("corsFilter").isLazyInit()).isFalse();
+    }
+}
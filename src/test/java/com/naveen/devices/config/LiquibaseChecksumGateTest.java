@@ -0,0 +1,94 @@
+package com.naveen.devices.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LiquibaseChecksumGateTest {
+
+    private DriverManagerDataSource dataSource;
+    private LiquibaseChecksumGate gate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:checksum-gate-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        gate = new LiquibaseChecksumGate();
+        gate.setEnvironment(new MockEnvironment());
+    }
+
+    @Test
+    void postProcessBeforeInitialization_shouldRunLiquibase_whenNoFingerprintStored() {
+        final SpringLiquibase liquibase = liquibase();
+
+        gate.postProcessBeforeInitialization(liquibase, "liquibase");
+
+        assertThat(shouldRun(liquibase)).isTrue();
+    }
+
+    @Test
+    void postProcessBeforeInitialization_shouldSkipLiquibase_whenFingerprintMatches() {
+        createFingerprintTable();
+        new JdbcTemplate(dataSource).update(
+                "insert into schema_fingerprint (id, fingerprint, applied_at) values (1, ?, current_timestamp)",
+                LiquibaseChecksumGate.changelogFingerprint());
+        final SpringLiquibase liquibase = liquibase();
+
+        gate.postProcessBeforeInitialization(liquibase, "liquibase");
+
+        assertThat(shouldRun(liquibase)).isFalse();
+    }
+
+    @Test
+    void postProcessAfterInitialization_shouldStoreFingerprint_whenLiquibaseRan() {
+        createFingerprintTable();
+        final SpringLiquibase liquibase = liquibase();
+
+        gate.postProcessBeforeInitialization(liquibase, "liquibase");
+        gate.postProcessAfterInitialization(liquibase, "liquibase");
+
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "select fingerprint from schema_fingerprint where id = 1", String.class))
+                .isEqualTo(LiquibaseChecksumGate.changelogFingerprint());
+    }
+
+    @Test
+    void storeFingerprint_shouldUpdate_whenAnotherInstanceInsertedFirst() {
+        final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(startsWith("update"), eq("abc"), any())).thenReturn(0, 1);
+        when(jdbcTemplate.update(startsWith("insert"), eq("abc"), any()))
+                .thenThrow(new DuplicateKeyException("schema_fingerprint.PRIMARY"));
+
+        LiquibaseChecksumGate.storeFingerprint(jdbcTemplate, "abc");
+
+        verify(jdbcTemplate, times(2)).update(startsWith("update"), eq("abc"), any());
+    }
+
+    private SpringLiquibase liquibase() {
+        final SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        return liquibase;
+    }
+
+    private void createFingerprintTable() {
+        new JdbcTemplate(dataSource).execute(
+                "create table schema_fingerprint (id int primary key, fingerprint varchar(64) not null, applied_at timestamp not null)");
+    }
+
+    private static boolean shouldRun(final SpringLiquibase liquibase) {
+        return (boolean) ReflectionTestUtils.getField(liquibase, "shouldRun");
+    }
+}
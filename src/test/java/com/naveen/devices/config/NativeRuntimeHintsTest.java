@@ -0,0 +1,46 @@
+package com.naveen.devices.config;
+
+import com.naveen.devices.domain.DeviceIdGenerator;
+import com.naveen.devices.domain.DeviceIdentifierGenerator;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.dto.PurgeJobRequest;
+import com.naveen.devices.dto.StateChangeJobRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_shouldIncludeCacheConfig() {
+        assertThat(RuntimeHintsPredicates.resource().forResource(NativeRuntimeHints.EHCACHE_CONFIG)).accepts(hints);
+    }
+
+    @Test
+    void registerHints_shouldAllowHibernateToInstantiateGeneratorAndProjections() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onConstructor(DeviceIdentifierGenerator.class.getConstructor(DeviceIdGenerator.class)))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(DeviceResponse.class.getConstructors()[0]))
+                .accepts(hints);
+    }
+
+    @Test
+    void registerHints_shouldBindJobParametersAndProxyConnections() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(StateChangeJobRequest.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(PurgeJobRequest.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,106 @@
+package com.naveen.devices.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.exception.GlobalExceptionHandler;
+import com.naveen.devices.repository.RequestDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestDeadlineFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter(meterRegistry, objectMapper, 0, 5000);
+
+    @Test
+    void doFilter_shouldBindTimeout_andClearAfterwards() throws Exception {
+        final AtomicReference<OptionalLong> seen = new AtomicReference<>();
+
+        final MockHttpServletResponse response = perform(request(RequestDeadlineFilter.TIMEOUT_HEADER, "2000"),
+                (req, res) -> seen.set(RequestDeadline.remainingMillis()));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(seen.get().getAsLong()).isBetween(1000L, 2000L);
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    void doFilter_shouldCapTimeoutAtMaximum() throws Exception {
+        final AtomicReference<OptionalLong> seen = new AtomicReference<>();
+
+        perform(request(RequestDeadlineFilter.TIMEOUT_HEADER, "600000"),
+                (req, res) -> seen.set(RequestDeadline.remainingMillis()));
+
+        assertThat(seen.get().getAsLong()).isBetween(4000L, 5000L);
+    }
+
+    @Test
+    void doFilter_shouldAnswerGatewayTimeout_whenDeadlineAlreadyPassed() throws Exception {
+        final AtomicReference<Boolean> called = new AtomicReference<>(false);
+        final String past = Long.toString(System.currentTimeMillis() - 1000);
+
+        final MockHttpServletResponse response = perform(request(RequestDeadlineFilter.DEADLINE_HEADER, past),
+                (req, res) -> called.set(true));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(objectMapper.readTree(response.getContentAsByteArray()).get("detail").asText())
+                .isEqualTo(GlobalExceptionHandler.DEADLINE_DETAIL);
+        assertThat(meterRegistry.get(GlobalExceptionHandler.ERRORS_METRIC).tag("type", "deadline").counter().count())
+                .isEqualTo(1);
+        assertThat(called.get()).isFalse();
+    }
+
+    @Test
+    void doFilter_shouldRejectMalformedHeader() throws Exception {
+        final MockHttpServletResponse response = perform(request(RequestDeadlineFilter.TIMEOUT_HEADER, "soon"),
+                (req, res) -> {
+                });
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_BAD_REQUEST);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(objectMapper.readTree(response.getContentAsByteArray()).get("detail").asText())
+                .contains(RequestDeadlineFilter.TIMEOUT_HEADER);
+        assertThat(meterRegistry.get(GlobalExceptionHandler.ERRORS_METRIC).tag("type", "bad_request").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_shouldApplyDefaultTimeout_whenNoHeader() throws Exception {
+        final RequestDeadlineFilter withDefault = new RequestDeadlineFilter(new SimpleMeterRegistry(), objectMapper, 1500, 5000);
+        final AtomicReference<Long> noDefault = new AtomicReference<>(0L);
+        final AtomicReference<OptionalLong> seen = new AtomicReference<>();
+
+        perform(new MockHttpServletRequest("GET", "/api/devices"), (req, res) -> noDefault.set(RequestDeadline.current()));
+        withDefault.doFilter(new MockHttpServletRequest("GET", "/api/devices"), new MockHttpServletResponse(),
+                (req, res) -> seen.set(RequestDeadline.remainingMillis()));
+
+        assertThat(noDefault.get()).isNull();
+        assertThat(seen.get().getAsLong()).isBetween(500L, 1500L);
+    }
+
+    private MockHttpServletResponse perform(final MockHttpServletRequest request, final FilterChain chain)
+            throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(final String header, final String value) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/devices/1");
+        request.addHeader(header, value);
+        return request;
+    }
+}
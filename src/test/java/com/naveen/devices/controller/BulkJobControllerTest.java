@@ -0,0 +1,83 @@
+package com.naveen.devices.controller;
+
+import com.naveen.devices.domain.BulkJobStatus;
+import com.naveen.devices.domain.BulkJobType;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.BulkJobResponse;
+import com.naveen.devices.dto.PurgeJobRequest;
+import com.naveen.devices.dto.StateChangeJobRequest;
+import com.naveen.devices.service.BulkJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class BulkJobControllerTest {
+
+    @Mock
+    private BulkJobService bulkJobService;
+
+    @InjectMocks
+    private BulkJobController bulkJobController;
+
+    private BulkJobResponse job;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        job = new BulkJobResponse("job-1", BulkJobType.STATE_CHANGE, BulkJobStatus.QUEUED, 0, 0, 0, null,
+                OffsetDateTime.now(), null, null);
+    }
+
+    @Test
+    void submitStateChange_should_return_accepted_with_location() {
+        final StateChangeJobRequest request = new StateChangeJobRequest(null, null, DeviceState.INACTIVE);
+        when(bulkJobService.submitStateChange(request)).thenReturn(job);
+
+        final ResponseEntity<BulkJobResponse> result = bulkJobController.submitStateChange(request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(result.getHeaders().getLocation()).hasToString("/api/jobs/job-1");
+        assertThat(result.getBody()).isEqualTo(job);
+    }
+
+    @Test
+    void submitPurge_should_return_accepted() {
+        final PurgeJobRequest request = new PurgeJobRequest("Acme", DeviceState.INACTIVE);
+        when(bulkJobService.submitPurge(request)).thenReturn(job);
+
+        final ResponseEntity<BulkJobResponse> result = bulkJobController.submitPurge(request);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+    }
+
+    @Test
+    void submitImport_should_return_accepted() {
+        final InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(bulkJobService.submitImport(body)).thenReturn(job);
+
+        final ResponseEntity<BulkJobResponse> result = bulkJobController.submitImport(body);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+    }
+
+    @Test
+    void getJob_should_return_job() {
+        when(bulkJobService.getJob("job-1")).thenReturn(job);
+
+        final ResponseEntity<BulkJobResponse> result = bulkJobController.getJob("job-1");
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(job);
+    }
+}
@@ -5,6 +5,7 @@ import com.naveen.devices.domain.Device;
 import com.naveen.devices.domain.DeviceState;
 import com.naveen.devices.dto.DeviceRequest;
 import com.naveen.devices.repository.DeviceRepository;
+import com.naveen.devices.service.DeviceHistoryWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +37,9 @@ class DeviceControllerIT {
     @Autowired
     private DeviceRepository deviceRepository;
 
+    @Autowired
+    private DeviceHistoryWriter deviceHistoryWriter;
+
     @Value("${api.key}")
     private String apiKey;
 
@@ -57,11 +61,41 @@ class DeviceControllerIT {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").isString())
                 .andExpect(jsonPath("$.name").value("iPhone 15"))
                 .andExpect(jsonPath("$.brand").value("Apple"))
                 .andExpect(jsonPath("$.state").value("AVAILABLE"));
     }
 
+    @Test
+    void createDevice_shouldReturnBadRequest_whenRequiredFieldMissing() throws Exception {
+        mockMvc.perform(post("/api/devices")
+                        .with(apiKeyHeader())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Phone\",\"state\":\"AVAILABLE\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("brand is required"));
+    }
+
+    @Test
+    void importDevices_shouldInsertRowsAndReportErrors() throws Exception {
+        final String csv = "name,brand,state\nPhone,Acme,AVAILABLE\nTablet,,AVAILABLE\n";
+
+        mockMvc.perform(post("/api/devices/import")
+                        .with(apiKeyHeader())
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("brand is required"));
+
+        mockMvc.perform(get("/api/devices/brand/Acme").with(apiKeyHeader()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
     @Test
     void getDevice_shouldReturnDevice() throws Exception {
         final Device request = Device.builder()
@@ -81,6 +115,56 @@ class DeviceControllerIT {
                 .andExpect(jsonPath("$.brand").value("Google"));
     }
 
+    @Test
+    void getDevice_shouldReturnProblemDetail_whenMissing() throws Exception {
+        mockMvc.perform(get("/api/devices/{id}", 999_999L)
+                        .with(apiKeyHeader()))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("Device not found with id: 999999"));
+    }
+
+    @Test
+    void malformedRequests_shouldReturnClientErrors_notInternalErrors() throws Exception {
+        mockMvc.perform(get("/api/devices/{id}", "not-a-number")
+                        .with(apiKeyHeader()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        mockMvc.perform(post("/api/devices/lookup")
+                        .with(apiKeyHeader())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/no-such-endpoint")
+                        .with(apiKeyHeader()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
+    @Test
+    void lookupDevices_shouldReturnDevicesInRequestOrder_andMissingIds() throws Exception {
+        final Long first = deviceRepository.save(device("Pixel", "Google", DeviceState.AVAILABLE)).getId();
+        final Long second = deviceRepository.save(device("Galaxy", "Samsung", DeviceState.IN_USE)).getId();
+
+        mockMvc.perform(post("/api/devices/lookup")
+                        .with(apiKeyHeader())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + second + ",999999,\"" + first + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.devices.length()").value(2))
+                .andExpect(jsonPath("$.devices[0].name").value("Galaxy"))
+                .andExpect(jsonPath("$.devices[1].name").value("Pixel"))
+                .andExpect(jsonPath("$.missing[0]").value("999999"));
+
+        mockMvc.perform(post("/api/devices/lookup")
+                        .with(apiKeyHeader())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAllDevices_shouldReturnList() throws Exception {
         final Device device = Device.builder()
@@ -160,6 +244,34 @@ class DeviceControllerIT {
                 .andExpect(jsonPath("$.brand").value("PartialNewBrand"));
     }
 
+    @Test
+    void getDeviceHistory_shouldReturnStateChanges() throws Exception {
+        final Device device = Device.builder()
+                .name("Tracked")
+                .brand("BrandH")
+                .state(DeviceState.AVAILABLE)
+                .creationTime(OffsetDateTime.now())
+                .updateTime(OffsetDateTime.now())
+                .build();
+
+        final Long id = deviceRepository.save(device).getId();
+
+        mockMvc.perform(patch("/api/devices/{id}", id)
+                        .with(apiKeyHeader())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(DeviceRequest.builder().state(DeviceState.IN_USE).build())))
+                .andExpect(status().isOk());
+        deviceHistoryWriter.flush();
+
+        mockMvc.perform(get("/api/devices/{id}/history", id)
+                        .with(apiKeyHeader()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].fromState").value("AVAILABLE"))
+                .andExpect(jsonPath("$.content[0].toState").value("IN_USE"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     @Test
     void deleteDevice_shouldReturnNoContent() throws Exception {
         final Device device = Device.builder()
@@ -204,6 +316,34 @@ class DeviceControllerIT {
                 .andExpect(jsonPath("$[0].brand").value("BrandA"));
     }
 
+    @Test
+    void getDevicesChangedSince_shouldReturnRecentlyChanged() throws Exception {
+        final Device stale = Device.builder()
+                .name("Stale")
+                .brand("BrandC")
+                .state(DeviceState.AVAILABLE)
+                .creationTime(OffsetDateTime.now().minusDays(10))
+                .updateTime(OffsetDateTime.now().minusDays(10))
+                .build();
+
+        final Device fresh = Device.builder()
+                .name("Fresh")
+                .brand("BrandC")
+                .state(DeviceState.AVAILABLE)
+                .creationTime(OffsetDateTime.now())
+                .updateTime(OffsetDateTime.now())
+                .build();
+
+        deviceRepository.saveAll(List.of(stale, fresh));
+
+        mockMvc.perform(get("/api/devices/changed-since")
+                        .param("ts", OffsetDateTime.now().minusDays(1).toString())
+                        .with(apiKeyHeader()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Fresh"));
+    }
+
     @Test
     void getDevicesByState_shouldReturnFiltered() throws Exception {
         final Device device = Device.builder()
@@ -231,6 +371,16 @@ class DeviceControllerIT {
                 .andExpect(jsonPath("$[0].state").value("IN_USE"));
     }
 
+    private static Device device(final String name, final String brand, final DeviceState state) {
+        return Device.builder()
+                .name(name)
+                .brand(brand)
+                .state(state)
+                .creationTime(OffsetDateTime.now())
+                .updateTime(OffsetDateTime.now())
+                .build();
+    }
+
     private RequestPostProcessor apiKeyHeader() {
         return request -> {
             request.addHeader("X-API-KEY", apiKey);
@@ -2,10 +2,20 @@ package com.naveen.devices.controller;
 
 import com.naveen.devices.domain.Device;
 import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceClaimRequest;
+import com.naveen.devices.dto.DeviceCountResponse;
+import com.naveen.devices.dto.DeviceHistoryPage;
+import com.naveen.devices.dto.DeviceImportResult;
+import com.naveen.devices.dto.DeviceLookupRequest;
+import com.naveen.devices.dto.DeviceLookupResponse;
 import com.naveen.devices.dto.DeviceRequest;
 import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.dto.DeviceSyncResponse;
 import com.naveen.devices.converter.DeviceConverter;
+import com.naveen.devices.service.DeviceHistoryService;
+import com.naveen.devices.service.DeviceImportService;
 import com.naveen.devices.service.DeviceService;
+import com.naveen.devices.service.DeviceSyncService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -14,6 +24,10 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,6 +41,15 @@ class DeviceControllerTest {
     @Mock
     private DeviceConverter deviceConverter;
 
+    @Mock
+    private DeviceHistoryService deviceHistoryService;
+
+    @Mock
+    private DeviceSyncService deviceSyncService;
+
+    @Mock
+    private DeviceImportService deviceImportService;
+
     @InjectMocks
     private DeviceController deviceController;
 
@@ -68,8 +91,7 @@ class DeviceControllerTest {
     @Test
     void getDevice_by_id_should_return_device() {
         final Long id = 1L;
-        when(deviceService.getDevice(id)).thenReturn(device);
-        when(deviceConverter.toResponse(device)).thenReturn(response);
+        when(deviceService.getDevice(id)).thenReturn(response);
 
         final ResponseEntity<DeviceResponse> result = deviceController.getDevice(id);
 
@@ -77,11 +99,20 @@ class DeviceControllerTest {
         assertThat(result.getBody()).isEqualTo(response);
     }
 
+    @Test
+    void getDeviceHistory_should_return_page() {
+        final DeviceHistoryPage page = new DeviceHistoryPage(1L, 0, 50, false, List.of());
+        when(deviceHistoryService.getHistory(1L, 0, 50)).thenReturn(page);
+
+        final ResponseEntity<DeviceHistoryPage> result = deviceController.getDeviceHistory(1L, 0, 50);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(page);
+    }
+
     @Test
     void getAllDevices_should_return_devices() {
-        final List<Device> devices = List.of(device);
-        when(deviceService.getAllDevices()).thenReturn(devices);
-        when(deviceConverter.toResponse(device)).thenReturn(response);
+        when(deviceService.getAllDevices()).thenReturn(List.of(response));
 
         final ResponseEntity<List<DeviceResponse>> result = deviceController.getAllDevices();
 
@@ -92,9 +123,7 @@ class DeviceControllerTest {
     @Test
     void getDevicesByBrand_should_return_devices() {
         final String brand = "Samsung";
-        final List<Device> devices = List.of(device);
-        when(deviceService.getDevicesByBrand(brand)).thenReturn(devices);
-        when(deviceConverter.toResponse(device)).thenReturn(response);
+        when(deviceService.getDevicesByBrand(brand)).thenReturn(List.of(response));
 
         final ResponseEntity<List<DeviceResponse>> result = deviceController.getDevicesByBrand(brand);
 
@@ -102,12 +131,59 @@ class DeviceControllerTest {
         assertThat(result.getBody()).containsExactly(response);
     }
 
+    @Test
+    void lookupDevices_should_return_found_and_missing() {
+        final DeviceLookupResponse lookup = new DeviceLookupResponse(List.of(response), List.of(9L));
+        when(deviceService.lookupDevices(List.of(1L, 9L))).thenReturn(lookup);
+
+        final ResponseEntity<DeviceLookupResponse> result =
+                deviceController.lookupDevices(new DeviceLookupRequest(List.of(1L, 9L)));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(lookup);
+    }
+
+    @Test
+    void claimDevices_should_return_claimed_devices() {
+        when(deviceService.claimDevices("Samsung", 3)).thenReturn(List.of(response));
+
+        final ResponseEntity<List<DeviceResponse>> result =
+                deviceController.claimDevices(new DeviceClaimRequest("Samsung", 3));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).containsExactly(response);
+    }
+
+    @Test
+    void claimDevices_should_use_defaults_without_body() {
+        when(deviceService.claimDevices(null, null)).thenReturn(List.of());
+
+        assertThat(deviceController.claimDevices(null).getBody()).isEmpty();
+    }
+
+    @Test
+    void countDevicesByBrand_should_return_count() {
+        when(deviceService.countDevicesByBrand("Samsung")).thenReturn(7L);
+
+        final ResponseEntity<DeviceCountResponse> result = deviceController.countDevicesByBrand("Samsung");
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(new DeviceCountResponse(7L));
+    }
+
+    @Test
+    void countDevicesByState_should_return_count() {
+        when(deviceService.countDevicesByState(DeviceState.INACTIVE)).thenReturn(2L);
+
+        final ResponseEntity<DeviceCountResponse> result = deviceController.countDevicesByState(DeviceState.INACTIVE);
+
+        assertThat(result.getBody()).isEqualTo(new DeviceCountResponse(2L));
+    }
+
     @Test
     void getDevicesByState_should_return_devices() {
         final DeviceState state = DeviceState.AVAILABLE;
-        final List<Device> devices = List.of(device);
-        when(deviceService.getDevicesByState(state)).thenReturn(devices);
-        when(deviceConverter.toResponse(device)).thenReturn(response);
+        when(deviceService.getDevicesByState(state)).thenReturn(List.of(response));
 
         final ResponseEntity<List<DeviceResponse>> result = deviceController.getDevicesByState(state);
 
@@ -115,6 +191,28 @@ class DeviceControllerTest {
         assertThat(result.getBody()).containsExactly(response);
     }
 
+    @Test
+    void getDevicesChangedSince_should_return_devices() {
+        final OffsetDateTime since = OffsetDateTime.now();
+        when(deviceService.getDevicesChangedSince(since, 500)).thenReturn(List.of(response));
+
+        final ResponseEntity<List<DeviceResponse>> result = deviceController.getDevicesChangedSince(since, 500);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).containsExactly(response);
+    }
+
+    @Test
+    void syncDevices_should_return_changes() {
+        final DeviceSyncResponse sync = new DeviceSyncResponse(List.of(response), List.of(2L), "token", false);
+        when(deviceSyncService.sync("previous", 100)).thenReturn(sync);
+
+        final ResponseEntity<DeviceSyncResponse> result = deviceController.syncDevices("previous", 100);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(sync);
+    }
+
     @Test
     void partialUpdate_should_return_ok() {
         final Long id = 1L;
@@ -135,4 +233,16 @@ class DeviceControllerTest {
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
         assertThat(result.getBody()).isNull();
     }
+
+    @Test
+    void importDevices_should_return_import_result() {
+        final InputStream body = new ByteArrayInputStream("name,brand,state\n".getBytes(StandardCharsets.UTF_8));
+        final DeviceImportResult importResult = new DeviceImportResult(0, 0, 0, List.of(), false, 1);
+        when(deviceImportService.importCsv(body)).thenReturn(importResult);
+
+        final ResponseEntity<DeviceImportResult> result = deviceController.importDevices(body);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(importResult);
+    }
 }
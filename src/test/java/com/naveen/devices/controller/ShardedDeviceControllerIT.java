@@ -0,0 +1,196 @@
+package com.naveen.devices.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "devices.sharding.enabled=true",
+        "devices.sharding.urls=" + ShardedDeviceControllerIT.SHARD_0 + "," + ShardedDeviceControllerIT.SHARD_1
+                + "," + ShardedDeviceControllerIT.SHARD_2,
+        "devices.sharding.username=sa",
+        "devices.sharding.password=",
+        "devices.sharding.id-block-size=5",
+        "devices.import.enabled=false",
+        "devices.jobs.enabled=false",
+        "devices.claim.enabled=false",
+        "devices.sync.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ShardedDeviceControllerIT {
+
+    static final String SHARD_0 = "jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.key}")
+    private String apiKey;
+
+    private final List<JdbcTemplate> shards = List.of(shard(SHARD_0), shard(SHARD_1), shard(SHARD_2));
+
+    @BeforeEach
+    void cleanup() {
+        shards.forEach(shard -> shard.update("delete from devices"));
+    }
+
+    @Test
+    void createDevice_shouldSpreadDevicesAcrossShards() throws Exception {
+        final List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(create("Phone " + i, "Spread", DeviceState.AVAILABLE));
+        }
+
+        assertThat(ids).doesNotHaveDuplicates();
+        for (final JdbcTemplate shard : shards) {
+            assertThat(shard.queryForObject("select count(*) from devices", Integer.class)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void getDevice_shouldReadFromOwningShard_andUpdateInPlace() throws Exception {
+        final List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(create("Tablet " + i, "Routed", DeviceState.AVAILABLE));
+        }
+
+        for (final Long id : ids) {
+            mockMvc.perform(get("/api/devices/{id}", id).with(apiKeyHeader()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(String.valueOf(id)));
+            mockMvc.perform(patch("/api/devices/{id}", id)
+                            .with(apiKeyHeader())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"state\":\"IN_USE\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.state").value("IN_USE"));
+        }
+
+        final Integer inUse = shards.stream()
+                .mapToInt(shard -> shard.queryForObject("select count(*) from devices where state = 'IN_USE'", Integer.class))
+                .sum();
+        assertThat(inUse).isEqualTo(3);
+    }
+
+    @Test
+    void listEndpoints_shouldMergeAllShardsInIdOrder() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            create("Watch " + i, "Gathered", i % 2 == 0 ? DeviceState.AVAILABLE : DeviceState.INACTIVE);
+        }
+        create("Other", "Elsewhere", DeviceState.INACTIVE);
+
+        mockMvc.perform(get("/api/devices/brand/{brand}", "Gathered").with(apiKeyHeader()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].name").value("Watch 0"))
+                .andExpect(jsonPath("$[3].name").value("Watch 3"));
+
+        mockMvc.perform(get("/api/devices/state/{state}", "INACTIVE").with(apiKeyHeader()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        mockMvc.perform(get("/api/devices").with(apiKeyHeader()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+    }
+
+    @Test
+    void lookupDevices_shouldResolveIdsFromEveryShardInRequestOrder() throws Exception {
+        final List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(create("Lookup " + i, "Looked", DeviceState.AVAILABLE));
+        }
+
+        mockMvc.perform(post("/api/devices/lookup")
+                        .with(apiKeyHeader())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + ids.get(2) + "," + ids.get(0) + "," + ids.get(1) + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.devices[0].name").value("Lookup 2"))
+                .andExpect(jsonPath("$.devices[1].name").value("Lookup 0"))
+                .andExpect(jsonPath("$.devices[2].name").value("Lookup 1"))
+                .andExpect(jsonPath("$.missing.length()").value(0));
+    }
+
+    @Test
+    void deleteDevice_shouldRemoveFromOwningShard() throws Exception {
+        final Long id = create("Laptop", "Deleted", DeviceState.AVAILABLE);
+
+        mockMvc.perform(delete("/api/devices/{id}", id).with(apiKeyHeader()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/devices/{id}", id).with(apiKeyHeader()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void singleDatabaseWrites_shouldBeRefused() throws Exception {
+        mockMvc.perform(post("/api/devices/import")
+                        .with(apiKeyHeader())
+                        .contentType("text/csv")
+                        .content("name,brand,state\nPhone,Acme,AVAILABLE\n"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Disabled by devices.import.enabled"));
+        mockMvc.perform(post("/api/jobs/purge")
+                        .with(apiKeyHeader())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"state\":\"INACTIVE\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/devices/claim").with(apiKeyHeader()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/devices/sync").with(apiKeyHeader()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Disabled by devices.sync.enabled"));
+
+        for (final JdbcTemplate shard : shards) {
+            assertThat(shard.queryForObject("select count(*) from devices", Integer.class)).isZero();
+        }
+    }
+
+    private Long create(final String name, final String brand, final DeviceState state) throws Exception {
+        final DeviceRequest request = DeviceRequest.builder().name(name).brand(brand).state(state).build();
+        final String body = mockMvc.perform(post("/api/devices")
+                        .with(apiKeyHeader())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private static JdbcTemplate shard(final String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+
+    private RequestPostProcessor apiKeyHeader() {
+        return request -> {
+            request.addHeader("X-API-KEY", apiKey);
+            return request;
+        };
+    }
+}
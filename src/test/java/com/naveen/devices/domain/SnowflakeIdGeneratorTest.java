@@ -0,0 +1,97 @@
+package com.naveen.devices.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final Instant NOW = SnowflakeIdGenerator.EPOCH.plus(Duration.ofDays(300));
+
+    @Test
+    void nextId_shouldEncodeTimestampAndNode() {
+        final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        final long id = generator.nextId();
+
+        assertThat(SnowflakeIdGenerator.timestampOf(id)).isEqualTo(Duration.ofDays(300).toMillis());
+        assertThat(SnowflakeIdGenerator.nodeOf(id)).isEqualTo(7);
+    }
+
+    @Test
+    void nextId_shouldCarryIntoNextMillisecond_whenSequenceExhausted() {
+        final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        long previous = generator.nextId();
+        for (int i = 0; i < (1 << SnowflakeIdGenerator.SEQUENCE_BITS); i++) {
+            final long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat(SnowflakeIdGenerator.nodeOf(id)).isEqualTo(1);
+            previous = id;
+        }
+
+        assertThat(SnowflakeIdGenerator.timestampOf(previous)).isEqualTo(Duration.ofDays(300).toMillis() + 1);
+    }
+
+    @Test
+    void nextId_shouldKeepIncreasing_whenClockStepsBack() {
+        final AtomicLong millis = new AtomicLong(NOW.toEpochMilli());
+        final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(final ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis.get());
+            }
+        });
+
+        final long before = generator.nextId();
+        millis.addAndGet(-5_000);
+
+        assertThat(generator.nextId()).isGreaterThan(before);
+    }
+
+    @Test
+    void nextId_shouldBeUnique_whenCalledConcurrently() throws InterruptedException {
+        final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, Clock.systemUTC());
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                });
+            }
+        }
+
+        assertThat(ids).hasSize(160_000);
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgument_whenNodeIdOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(1024, Clock.systemUTC()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
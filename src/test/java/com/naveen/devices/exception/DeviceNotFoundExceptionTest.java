@@ -27,4 +27,11 @@ class DeviceNotFoundExceptionTest {
                 .hasMessage(null)
                 .hasNoCause();
     }
+
+    @Test
+    void constructor_shouldNotCaptureStackTrace() {
+        final DeviceNotFoundException exception = new DeviceNotFoundException("Device not found");
+
+        assertThat(exception.getStackTrace()).isEmpty();
+    }
 }
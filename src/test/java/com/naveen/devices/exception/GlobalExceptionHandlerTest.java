@@ -1,48 +1,159 @@
 package com.naveen.devices.exception;
 
+import com.naveen.devices.repository.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import java.sql.SQLTransientConnectionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class GlobalExceptionHandlerTest {
 
+    private SimpleMeterRegistry meterRegistry;
     private GlobalExceptionHandler handler;
 
     @BeforeEach
     void setUp() {
-        handler = new GlobalExceptionHandler();
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new GlobalExceptionHandler(meterRegistry);
     }
 
     @Test
     void handleDeviceNotFound_shouldReturnNotFound_whenExceptionThrown() {
         final DeviceNotFoundException ex = new DeviceNotFoundException("Device missing");
 
-        final ResponseEntity<String> response = handler.handleDeviceNotFound(ex);
+        final ResponseEntity<ProblemDetail> response = handler.handleDeviceNotFound(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
-        assertThat(response.getBody()).isEqualTo("Device missing");
+        assertThat(response.getBody().getStatus()).isEqualTo(404);
+        assertThat(response.getBody().getDetail()).isEqualTo("Device missing");
+        assertThat(errorCount("not_found")).isEqualTo(1.0);
+    }
+
+    @Test
+    void handleBulkJobNotFound_shouldReturnNotFound_whenExceptionThrown() {
+        final BulkJobNotFoundException ex = new BulkJobNotFoundException("Job missing");
+
+        final ResponseEntity<ProblemDetail> response = handler.handleBulkJobNotFound(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody().getDetail()).isEqualTo("Job missing");
+        assertThat(errorCount("not_found")).isEqualTo(1.0);
+    }
+
+    @Test
+    void handleFeatureDisabled_shouldReturnNotFound_namingTheProperty() {
+        final ResponseEntity<ProblemDetail> response =
+                handler.handleFeatureDisabled(new FeatureDisabledException("devices.claim.enabled"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody().getDetail()).isEqualTo("Disabled by devices.claim.enabled");
+        assertThat(errorCount("not_found")).isEqualTo(1.0);
     }
 
     @Test
     void handleIllegalArgument_shouldReturnBadRequest_whenExceptionThrown() {
         final IllegalArgumentException ex = new IllegalArgumentException("Invalid value");
 
-        final ResponseEntity<String> response = handler.handleIllegalArgument(ex);
+        final ResponseEntity<ProblemDetail> response = handler.handleIllegalArgument(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
-        assertThat(response.getBody()).isEqualTo("Invalid value");
+        assertThat(response.getBody().getDetail()).isEqualTo("Invalid value");
+        assertThat(errorCount("bad_request")).isEqualTo(1.0);
+    }
+
+    @Test
+    void handleDeviceInUse_shouldReturnConflict_whenExceptionThrown() {
+        final DeviceInUseException ex = new DeviceInUseException("Device busy");
+
+        final ResponseEntity<ProblemDetail> response = handler.handleDeviceInUse(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getDetail()).isEqualTo("Device busy");
+        assertThat(errorCount("conflict")).isEqualTo(1.0);
     }
 
     @Test
-    void handleGeneral_shouldReturnInternalServerError_whenExceptionThrown() {
+    void handleGeneral_shouldReturnInternalServerError_withoutLeakingMessage() {
         final Exception ex = new Exception("Something went wrong");
 
-        final ResponseEntity<String> response = handler.handleGeneral(ex);
+        final ResponseEntity<ProblemDetail> response = handler.handleGeneral(ex);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
-        assertThat(response.getBody()).isEqualTo("Something went wrong");
+        assertThat(response.getBody().getDetail())
+                .isEqualTo(GlobalExceptionHandler.INTERNAL_ERROR_DETAIL)
+                .doesNotContain("Something went wrong");
+        assertThat(errorCount("internal")).isEqualTo(1.0);
+    }
+
+    @Test
+    void handleGeneral_shouldReturnGatewayTimeout_whenRequestDeadlinePassed() {
+        RequestDeadline.set(System.nanoTime() - 1);
+        try {
+            final ResponseEntity<ProblemDetail> response = handler.handleGeneral(new RuntimeException("cancelled"));
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+            assertThat(response.getBody().getDetail()).isEqualTo(GlobalExceptionHandler.DEADLINE_DETAIL);
+            assertThat(errorCount("deadline")).isEqualTo(1.0);
+            assertThat(errorCount("internal")).isZero();
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    @Test
+    void handleGeneral_shouldReturnServiceUnavailable_whenConnectionCannotBeObtained() {
+        final Exception ex = new RuntimeException("Could not open JPA EntityManager for transaction",
+                new SQLTransientConnectionException("Database circuit open"));
+
+        final ResponseEntity<ProblemDetail> response = handler.handleGeneral(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody().getDetail()).isEqualTo(GlobalExceptionHandler.UNAVAILABLE_DETAIL);
+        assertThat(errorCount("unavailable")).isEqualTo(1.0);
+        assertThat(errorCount("internal")).isZero();
+    }
+
+    @Test
+    void handleGeneral_shouldKeepSpringClientErrorStatus_whenExceptionIsErrorResponse() {
+        final ResponseEntity<ProblemDetail> response =
+                handler.handleGeneral(new NoResourceFoundException(HttpMethod.GET, "api/unknown"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody().getStatus()).isEqualTo(404);
+        assertThat(errorCount("client_error")).isEqualTo(1.0);
+        assertThat(errorCount("internal")).isZero();
+    }
+
+    @Test
+    void handleMalformedRequest_shouldReturnBadRequest_whenValueCannotBeConverted() {
+        final ResponseEntity<ProblemDetail> response =
+                handler.handleMalformedRequest(new TypeMismatchException("abc", Long.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getDetail()).isEqualTo(GlobalExceptionHandler.MALFORMED_REQUEST_DETAIL);
+        assertThat(errorCount("bad_request")).isEqualTo(1.0);
+    }
+
+    @Test
+    void clientExceptions_shouldNotCaptureStackTraces() {
+        assertThat(new BulkJobNotFoundException("Job missing").getStackTrace()).isEmpty();
+        assertThat(new DeviceInUseException("Device in use").getStackTrace()).isEmpty();
+        assertThat(new DeviceValidationException("Invalid").getStackTrace()).isEmpty();
+        assertThat(new FeatureDisabledException("devices.jobs.enabled").getStackTrace()).isEmpty();
+    }
+
+    private double errorCount(final String type) {
+        return meterRegistry.get(GlobalExceptionHandler.ERRORS_METRIC).tag("type", type).counter().count();
     }
 }
@@ -0,0 +1,66 @@
+package com.naveen.devices.loadtest;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ids of the devices that currently exist, so reads and patches hit live rows and deletes
+ * never race each other for the same id. Removal swaps the last id into the freed slot.
+ */
+final class DeviceIdPool {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] ids;
+    private int size;
+
+    DeviceIdPool(final int initialCapacity) {
+        this.ids = new long[Math.max(initialCapacity, 16)];
+    }
+
+    void add(final long id) {
+        lock.lock();
+        try {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[size++] = id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    OptionalLong pick(final SplittableRandom random) {
+        lock.lock();
+        try {
+            return size == 0 ? OptionalLong.empty() : OptionalLong.of(ids[random.nextInt(size)]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    OptionalLong take(final SplittableRandom random) {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return OptionalLong.empty();
+            }
+            final int index = random.nextInt(size);
+            final long id = ids[index];
+            ids[index] = ids[--size];
+            return OptionalLong.of(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
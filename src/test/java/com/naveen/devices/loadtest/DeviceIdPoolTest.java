@@ -0,0 +1,42 @@
+package com.naveen.devices.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceIdPoolTest {
+
+    @Test
+    void take_shouldReturnEachIdOnce_untilEmpty() {
+        final DeviceIdPool pool = new DeviceIdPool(1);
+        for (long id = 1; id <= 100; id++) {
+            pool.add(id);
+        }
+        final SplittableRandom random = new SplittableRandom(1);
+
+        final Set<Long> taken = new HashSet<>();
+        OptionalLong id = pool.take(random);
+        while (id.isPresent()) {
+            assertThat(taken.add(id.getAsLong())).isTrue();
+            id = pool.take(random);
+        }
+
+        assertThat(taken).hasSize(100);
+        assertThat(pool.size()).isZero();
+        assertThat(pool.pick(random)).isEmpty();
+    }
+
+    @Test
+    void pick_shouldNotRemoveId() {
+        final DeviceIdPool pool = new DeviceIdPool(4);
+        pool.add(7);
+
+        assertThat(pool.pick(new SplittableRandom(1))).hasValue(7);
+        assertThat(pool.size()).isEqualTo(1);
+    }
+}
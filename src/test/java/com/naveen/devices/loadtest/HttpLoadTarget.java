@@ -0,0 +1,97 @@
+package com.naveen.devices.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+
+/**
+ * Calls the running API over HTTP with the API key. Patches only move devices between
+ * {@code AVAILABLE} and {@code INACTIVE}, so a later delete of the same device is always allowed
+ * unless the profile also claims. A claim takes one device of any brand; an empty answer once
+ * none is free still counts as a success.
+ */
+final class HttpLoadTarget implements LoadTarget {
+
+    private static final String API_KEY_HEADER = "X-API-KEY";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final URI devicesUri;
+    private final String apiKey;
+    private final LoadProfile profile;
+    private final DeviceIdPool ids;
+
+    HttpLoadTarget(final String baseUrl, final String apiKey, final LoadProfile profile,
+                   final DeviceIdPool ids, final ObjectMapper objectMapper) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        this.objectMapper = objectMapper;
+        this.devicesUri = URI.create(baseUrl + "/api/devices");
+        this.apiKey = apiKey;
+        this.profile = profile;
+        this.ids = ids;
+    }
+
+    @Override
+    public boolean execute(final LoadOperation operation, final SplittableRandom random) throws Exception {
+        return switch (operation) {
+            case READ_BY_ID -> withId(ids.pick(random), id -> send(request("/" + id).GET()) == 200);
+            case LIST_BY_BRAND -> send(request("/brand/" + profile.brand(random.nextInt(profile.brands()))).GET()) == 200;
+            case PATCH_STATE -> withId(ids.pick(random), id -> send(request("/" + id)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            random.nextBoolean() ? "{\"state\":\"AVAILABLE\"}" : "{\"state\":\"INACTIVE\"}"))) == 200);
+            case CREATE -> create(random);
+            case DELETE -> withId(ids.take(random), id -> send(request("/" + id).DELETE()) == 204);
+            case CLAIM -> send(request("/claim")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"count\":1}"))) == 200;
+        };
+    }
+
+    private boolean create(final SplittableRandom random) throws Exception {
+        final String body = objectMapper.writeValueAsString(new CreateBody(
+                "load-" + Long.toHexString(random.nextLong()),
+                profile.brand(random.nextInt(profile.brands())),
+                "AVAILABLE"));
+        final HttpResponse<String> response = client.send(request("")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+        return true;
+    }
+
+    private HttpRequest.Builder request(final String path) {
+        return HttpRequest.newBuilder(URI.create(devicesUri + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header(API_KEY_HEADER, apiKey);
+    }
+
+    private int send(final HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static boolean withId(final OptionalLong id, final IdCall call) throws Exception {
+        return id.isPresent() && call.apply(id.getAsLong());
+    }
+
+    @FunctionalInterface
+    private interface IdCall {
+        boolean apply(long id) throws Exception;
+    }
+
+    private record CreateBody(String name, String brand, String state) {}
+}
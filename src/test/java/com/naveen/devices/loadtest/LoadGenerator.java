@@ -0,0 +1,124 @@
+package com.naveen.devices.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link LoadTarget} with the mix and model of a {@link LoadProfile} on virtual
+ * threads. Calls started during the warm-up are executed but not recorded. Random sources are
+ * split from the profile seed in a fixed order, so each closed-model worker and the open-model
+ * pacer draw the same operation sequence on every run.
+ */
+final class LoadGenerator {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final LoadProfile profile;
+    private final LoadTarget target;
+    private final Map<LoadOperation, Histogram> latencies = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+    private long measureFrom;
+    private long measureUntil;
+
+    LoadGenerator(final LoadProfile profile, final LoadTarget target) {
+        this.profile = profile;
+        this.target = target;
+        for (final LoadOperation operation : LoadOperation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    LoadReport run() {
+        final long start = System.nanoTime();
+        measureFrom = start + profile.warmup().toNanos();
+        measureUntil = measureFrom + profile.duration().toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (profile.model() == LoadProfile.Model.CLOSED) {
+                runClosed(executor);
+            } else {
+                runOpen(executor, start);
+            }
+        }
+        return report();
+    }
+
+    private void runClosed(final ExecutorService executor) {
+        final SplittableRandom root = new SplittableRandom(profile.seed());
+        for (int worker = 0; worker < profile.concurrency(); worker++) {
+            final SplittableRandom random = root.split();
+            executor.execute(() -> {
+                long now = System.nanoTime();
+                while (now < measureUntil) {
+                    call(profile.pick(random), random, now);
+                    now = System.nanoTime();
+                }
+            });
+        }
+    }
+
+    private void runOpen(final ExecutorService executor, final long start) {
+        final SplittableRandom random = new SplittableRandom(profile.seed());
+        final double intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) profile.ratePerSecond();
+        for (long i = 0; ; i++) {
+            final long intended = start + (long) (i * intervalNanos);
+            if (intended >= measureUntil) {
+                return;
+            }
+            final long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            final LoadOperation operation = profile.pick(random);
+            final SplittableRandom callRandom = random.split();
+            executor.execute(() -> call(operation, callRandom, intended));
+        }
+    }
+
+    private void call(final LoadOperation operation, final SplittableRandom random, final long startedAt) {
+        boolean success;
+        try {
+            success = target.execute(operation, random);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            success = false;
+        }
+        if (startedAt < measureFrom || startedAt >= measureUntil) {
+            return;
+        }
+        latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    private LoadReport report() {
+        final double measuredSeconds = profile.duration().toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        final Map<LoadOperation, LoadReport.OperationStats> operations = new EnumMap<>(LoadOperation.class);
+        long requests = 0;
+        long failed = 0;
+        for (final LoadOperation operation : LoadOperation.values()) {
+            final Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            final long operationErrors = errors.get(operation).sum();
+            operations.put(operation, LoadReport.OperationStats.of(histogram, operationErrors, measuredSeconds));
+            requests += histogram.getTotalCount();
+            failed += operationErrors;
+        }
+        return new LoadReport(profile.name(), profile.model().name(), profile.devices(), measuredSeconds,
+                requests, failed, requests / measuredSeconds, operations);
+    }
+}
@@ -0,0 +1,57 @@
+package com.naveen.devices.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadGeneratorTest {
+
+    @Test
+    void run_shouldRecordLatencyAndErrorsPerOperation_inClosedModel() {
+        final LoadProfile profile = profile(LoadProfile.Model.CLOSED, 4, 1);
+
+        final LoadReport report = new LoadGenerator(profile, (operation, random) -> {
+            Thread.sleep(1);
+            return operation != LoadOperation.DELETE;
+        }).run();
+
+        assertThat(report.operations()).containsOnlyKeys(LoadOperation.READ_BY_ID, LoadOperation.DELETE);
+        assertThat(report.requests()).isPositive();
+        assertThat(report.errors()).isEqualTo(report.operations().get(LoadOperation.DELETE).requests());
+        assertThat(report.operations().get(LoadOperation.READ_BY_ID).errors()).isZero();
+        assertThat(report.operations().get(LoadOperation.READ_BY_ID).p50Ms()).isGreaterThanOrEqualTo(1.0);
+        assertThat(report.throughputPerSecond()).isEqualTo(report.requests() / report.measuredSeconds());
+    }
+
+    @Test
+    void run_shouldStartRequestsAtConfiguredRate_inOpenModel() {
+        final LoadProfile profile = profile(LoadProfile.Model.OPEN, 1, 200);
+
+        final LoadReport report = new LoadGenerator(profile, (operation, random) -> true).run();
+
+        assertThat(report.requests()).isBetween(90L, 110L);
+    }
+
+    @Test
+    void run_shouldCountExceptionsAsErrors() {
+        final LoadProfile profile = profile(LoadProfile.Model.OPEN, 1, 100);
+
+        final LoadReport report = new LoadGenerator(profile, (operation, random) -> {
+            throw new IllegalStateException("boom");
+        }).run();
+
+        assertThat(report.errors()).isEqualTo(report.requests()).isPositive();
+    }
+
+    private static LoadProfile profile(final LoadProfile.Model model, final int concurrency, final int rate) {
+        final Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+        mix.put(LoadOperation.READ_BY_ID, 1);
+        mix.put(LoadOperation.DELETE, 1);
+        return new LoadProfile("test", 10, 1, model, concurrency, rate,
+                Duration.ofMillis(100), Duration.ofMillis(500), 42, mix);
+    }
+}
@@ -0,0 +1,13 @@
+package com.naveen.devices.loadtest;
+
+/**
+ * The {@code DeviceController} calls a workload profile can mix.
+ */
+enum LoadOperation {
+    READ_BY_ID,
+    LIST_BY_BRAND,
+    PATCH_STATE,
+    CREATE,
+    DELETE,
+    CLAIM
+}
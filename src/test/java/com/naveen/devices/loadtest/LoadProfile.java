@@ -0,0 +1,107 @@
+package com.naveen.devices.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * A reproducible workload: how many devices to seed, the weighted operation mix and how load
+ * is applied. Profiles live in {@code src/test/resources/loadtest/<name>.properties}; any key
+ * can be overridden with a {@code loadtest.<key>} system property.
+ *
+ * <p>In the closed model {@code concurrency} workers each issue the next request as soon as
+ * the previous one returns. In the open model requests are started at {@code rate-per-second}
+ * regardless of how many are still in flight, and latency is measured from the intended start
+ * time so a stalled server is not hidden by the generator slowing down.
+ */
+record LoadProfile(String name,
+                   int devices,
+                   int brands,
+                   Model model,
+                   int concurrency,
+                   int ratePerSecond,
+                   Duration warmup,
+                   Duration duration,
+                   long seed,
+                   Map<LoadOperation, Integer> mix) {
+
+    static final String OVERRIDE_PREFIX = "loadtest.";
+
+    enum Model { CLOSED, OPEN }
+
+    LoadProfile {
+        if (devices < 1 || brands < 1) {
+            throw new IllegalArgumentException("devices and brands must be at least 1");
+        }
+        if (model == Model.CLOSED && concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1 for the closed model");
+        }
+        if (model == Model.OPEN && ratePerSecond < 1) {
+            throw new IllegalArgumentException("rate-per-second must be at least 1 for the open model");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix must give at least one operation a positive weight");
+        }
+        mix = Map.copyOf(mix);
+    }
+
+    static LoadProfile load(final String name) {
+        final Properties properties = new Properties();
+        try (InputStream input = LoadProfile.class.getResourceAsStream("/loadtest/" + name + ".properties")) {
+            if (input == null) {
+                throw new IllegalArgumentException("Unknown load profile: " + name);
+            }
+            properties.load(input);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read load profile " + name, e);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(key -> key.startsWith(OVERRIDE_PREFIX))
+                .forEach(key -> properties.setProperty(key.substring(OVERRIDE_PREFIX.length()), System.getProperty(key)));
+        return fromProperties(name, properties);
+    }
+
+    static LoadProfile fromProperties(final String name, final Properties properties) {
+        final Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+        for (final LoadOperation operation : LoadOperation.values()) {
+            mix.put(operation, Integer.parseInt(properties.getProperty("mix." + operation.name(), "0")));
+        }
+        return new LoadProfile(
+                name,
+                Integer.parseInt(properties.getProperty("devices", "10000")),
+                Integer.parseInt(properties.getProperty("brands", "50")),
+                Model.valueOf(properties.getProperty("model", "closed").toUpperCase()),
+                Integer.parseInt(properties.getProperty("concurrency", "32")),
+                Integer.parseInt(properties.getProperty("rate-per-second", "1000")),
+                Duration.ofSeconds(Long.parseLong(properties.getProperty("warmup-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(properties.getProperty("duration-seconds", "30"))),
+                Long.parseLong(properties.getProperty("seed", "42")),
+                mix);
+    }
+
+    /**
+     * Picks an operation with probability proportional to its weight.
+     */
+    LoadOperation pick(final SplittableRandom random) {
+        int remaining = random.nextInt(totalWeight());
+        for (final LoadOperation operation : LoadOperation.values()) {
+            remaining -= mix.getOrDefault(operation, 0);
+            if (remaining < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights changed while picking");
+    }
+
+    String brand(final int index) {
+        return "LoadBrand-" + index;
+    }
+
+    private int totalWeight() {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,70 @@
+package com.naveen.devices.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadProfileTest {
+
+    @Test
+    void load_shouldReadBundledProfile() {
+        final LoadProfile profile = LoadProfile.load("write-heavy-open");
+
+        assertThat(profile.model()).isEqualTo(LoadProfile.Model.OPEN);
+        assertThat(profile.ratePerSecond()).isEqualTo(500);
+        assertThat(profile.duration()).isEqualTo(Duration.ofSeconds(60));
+        assertThat(profile.mix()).containsEntry(LoadOperation.PATCH_STATE, 50);
+    }
+
+    @Test
+    void load_shouldApplySystemPropertyOverrides() {
+        System.setProperty("loadtest.devices", "123");
+        try {
+            assertThat(LoadProfile.load("mixed").devices()).isEqualTo(123);
+        } finally {
+            System.clearProperty("loadtest.devices");
+        }
+    }
+
+    @Test
+    void load_shouldThrowIllegalArgument_whenProfileUnknown() {
+        assertThatThrownBy(() -> LoadProfile.load("nope"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown load profile: nope");
+    }
+
+    @Test
+    void fromProperties_shouldThrowIllegalArgument_whenMixEmpty() {
+        assertThatThrownBy(() -> LoadProfile.fromProperties("empty", new Properties()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("mix");
+    }
+
+    @Test
+    void pick_shouldFollowWeights_andRepeatForSameSeed() {
+        final Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+        mix.put(LoadOperation.READ_BY_ID, 3);
+        mix.put(LoadOperation.DELETE, 1);
+        final LoadProfile profile = new LoadProfile("test", 1, 1, LoadProfile.Model.CLOSED, 1, 1,
+                Duration.ZERO, Duration.ofSeconds(1), 7, mix);
+
+        final Map<LoadOperation, Integer> counts = new EnumMap<>(LoadOperation.class);
+        final SplittableRandom random = new SplittableRandom(7);
+        final SplittableRandom replay = new SplittableRandom(7);
+        for (int i = 0; i < 40_000; i++) {
+            final LoadOperation operation = profile.pick(random);
+            assertThat(profile.pick(replay)).isEqualTo(operation);
+            counts.merge(operation, 1, Integer::sum);
+        }
+
+        assertThat(counts).containsOnlyKeys(LoadOperation.READ_BY_ID, LoadOperation.DELETE);
+        assertThat(counts.get(LoadOperation.READ_BY_ID) / 40_000.0).isBetween(0.73, 0.77);
+    }
+}
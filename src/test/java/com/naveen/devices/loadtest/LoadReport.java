@@ -0,0 +1,44 @@
+package com.naveen.devices.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+/**
+ * Result of one load run, written as JSON. Latencies are in milliseconds and come from
+ * HdrHistograms recorded in microseconds, so percentiles are exact to three significant digits.
+ */
+record LoadReport(String profile,
+                  String model,
+                  int devices,
+                  double measuredSeconds,
+                  long requests,
+                  long errors,
+                  double throughputPerSecond,
+                  Map<LoadOperation, OperationStats> operations) {
+
+    record OperationStats(long requests,
+                          long errors,
+                          double throughputPerSecond,
+                          double meanMs,
+                          double p50Ms,
+                          double p90Ms,
+                          double p99Ms,
+                          double p999Ms,
+                          double maxMs) {
+
+        static OperationStats of(final Histogram micros, final long errors, final double measuredSeconds) {
+            final long requests = micros.getTotalCount();
+            return new OperationStats(
+                    requests,
+                    errors,
+                    requests / measuredSeconds,
+                    micros.getMean() / 1000.0,
+                    micros.getValueAtPercentile(50) / 1000.0,
+                    micros.getValueAtPercentile(90) / 1000.0,
+                    micros.getValueAtPercentile(99) / 1000.0,
+                    micros.getValueAtPercentile(99.9) / 1000.0,
+                    micros.getMaxValue() / 1000.0);
+        }
+    }
+}
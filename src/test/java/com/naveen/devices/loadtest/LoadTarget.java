@@ -0,0 +1,15 @@
+package com.naveen.devices.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Executes one operation against the system under test. Implementations must be safe to call
+ * from many threads; the random source is owned by the calling worker.
+ */
+interface LoadTarget {
+
+    /**
+     * @return whether the call succeeded; failures are counted but still timed
+     */
+    boolean execute(LoadOperation operation, SplittableRandom random) throws Exception;
+}
@@ -0,0 +1,131 @@
+package com.naveen.devices.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.naveen.devices.DevicesApiApplication;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceIdGenerator;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.reactive.ReactiveDevicesApplication;
+import com.naveen.devices.repository.DeviceBatchRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application on the {@code test} profile's in-memory H2 database with a random
+ * port, seeds the profile's devices through JDBC batches, runs the workload over HTTP and
+ * writes the {@link LoadReport} as JSON to stdout and {@code target/loadtest/<profile>.json}.
+ *
+ * <pre>
+ *   mvn -Pload-test test-compile exec:java -Dloadtest.profile=read-heavy -Dloadtest.duration-seconds=120
+ * </pre>
+ *
+ * Arguments after the profile name are passed to Spring, e.g. {@code --devices.snapshot.enabled=true},
+ * so the same workload can be compared across configurations. {@code -Dloadtest.stack=reactive}
+ * runs it against {@link ReactiveDevicesApplication} on R2DBC instead; the {@code fan-in}
+ * profile is meant for comparing the two stacks.
+ */
+public final class LoadTestRunner {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final String REACTIVE_JDBC_URL = "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1";
+    private static final String REACTIVE_R2DBC_URL = "r2dbc:h2:mem:///loadtest;DB_CLOSE_DELAY=-1";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final String profileName = args.length > 0 ? args[0] : System.getProperty("loadtest.profile", "mixed");
+        final LoadProfile profile = LoadProfile.load(profileName);
+        final String[] springArgs = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : new String[0];
+        final boolean reactive = "reactive".equals(System.getProperty("loadtest.stack", "servlet"));
+
+        try (ConfigurableApplicationContext context = reactive ? startReactive(springArgs) : startServlet(springArgs)) {
+            final DeviceIdPool ids = new DeviceIdPool(profile.devices());
+            if (reactive) {
+                final DeviceBatchRepository batchRepository = new DeviceBatchRepository(
+                        new JdbcTemplate(new DriverManagerDataSource(REACTIVE_JDBC_URL, "sa", "")),
+                        context.getBean(DeviceIdGenerator.class));
+                seed(profile, ids, batchRepository::insertAll);
+            } else {
+                final DeviceBatchRepository batchRepository = context.getBean(DeviceBatchRepository.class);
+                final TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+                seed(profile, ids, batch -> transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(batch)));
+            }
+
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final ObjectMapper objectMapper = new ObjectMapper();
+            final LoadTarget target = new HttpLoadTarget("http://localhost:" + port,
+                    context.getEnvironment().getRequiredProperty("api.key"), profile, ids, objectMapper);
+
+            System.err.printf("Running %s (%s model, %s stack) for %ds after %ds warm-up against %d devices%n",
+                    profile.name(), profile.model(), reactive ? "reactive" : "servlet", profile.duration().toSeconds(),
+                    profile.warmup().toSeconds(), profile.devices());
+            final LoadReport report = new LoadGenerator(profile, target).run();
+
+            final String json = objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+            final Path output = Path.of(System.getProperty("loadtest.output", "target/loadtest/" + profile.name() + ".json"));
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            Files.writeString(output, json);
+            System.out.println(json);
+            System.err.println("Report written to " + output.toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext startServlet(final String[] springArgs) {
+        return new SpringApplicationBuilder(DevicesApiApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.jpa.show-sql=false")
+                .run(springArgs);
+    }
+
+    /**
+     * The reactive application has no JDBC data source of its own, so Liquibase is pointed at
+     * the same in-memory database the R2DBC pool opens.
+     */
+    private static ConfigurableApplicationContext startReactive(final String[] springArgs) {
+        final String[] args = Stream.concat(Stream.of(
+                        "--spring.r2dbc.url=" + REACTIVE_R2DBC_URL,
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        "--spring.liquibase.url=" + REACTIVE_JDBC_URL,
+                        "--spring.liquibase.user=sa",
+                        "--spring.liquibase.password="),
+                Arrays.stream(springArgs)).toArray(String[]::new);
+        return ReactiveDevicesApplication.application()
+                .profiles("test")
+                .properties("server.port=0")
+                .run(args);
+    }
+
+    private static void seed(final LoadProfile profile, final DeviceIdPool ids, final Consumer<List<Device>> insert) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        for (int from = 0; from < profile.devices(); from += SEED_BATCH_SIZE) {
+            final List<Device> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, profile.devices()); i++) {
+                batch.add(Device.builder()
+                        .name("seed-" + i)
+                        .brand(profile.brand(i % profile.brands()))
+                        .state(DeviceState.AVAILABLE)
+                        .creationTime(now)
+                        .updateTime(now)
+                        .build());
+            }
+            insert.accept(batch);
+            batch.forEach(device -> ids.add(device.getId()));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.naveen.devices.profiling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrRecordingEndpointTest {
+
+    @TempDir
+    private Path directory;
+
+    private JfrRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new JfrRecordingEndpoint(directory, 60, 120, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.stop();
+    }
+
+    @Test
+    void status_shouldReportNone_whenNothingStarted() {
+        assertThat(endpoint.status().state()).isEqualTo("NONE");
+    }
+
+    @Test
+    void start_shouldCapDuration_andRejectSecondRecording() {
+        final JfrRecordingEndpoint.RecordingStatus status = endpoint.start(3600);
+
+        assertThat(status.state()).isEqualTo("RUNNING");
+        assertThat(status.durationSeconds()).isEqualTo(120);
+        assertThatThrownBy(() -> endpoint.start(null)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void stop_shouldWriteRecordingToDirectory() {
+        endpoint.start(null);
+
+        final JfrRecordingEndpoint.RecordingStatus status = endpoint.stop();
+
+        assertThat(status.state()).isEqualTo("CLOSED");
+        assertThat(Files.exists(Path.of(status.file()))).isTrue();
+        assertThat(Path.of(status.file()).getParent()).isEqualTo(directory);
+    }
+}
@@ -0,0 +1,85 @@
+package com.naveen.devices.profiling;
+
+import com.naveen.devices.controller.DeviceController;
+import com.naveen.devices.converter.DeviceConverter;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.repository.DeviceHistoryRepository;
+import com.naveen.devices.repository.DeviceRepository;
+import com.naveen.devices.service.DeviceService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StageProfilingPostProcessorTest {
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Test
+    void stageOf_shouldClassifyApplicationComponents() {
+        assertThat(StageProfilingPostProcessor.stageOf(DeviceController.class)).isEqualTo("controller");
+        assertThat(StageProfilingPostProcessor.stageOf(DeviceService.class)).isEqualTo("service");
+        assertThat(StageProfilingPostProcessor.stageOf(DeviceConverter.class)).isEqualTo("converter");
+        assertThat(StageProfilingPostProcessor.stageOf(DeviceHistoryRepository.class)).isEqualTo("repository");
+        assertThat(StageProfilingPostProcessor.stageOf(SimpleJpaRepository.class)).isEqualTo("repository");
+        assertThat(StageProfilingPostProcessor.stageOf(String.class)).isNull();
+    }
+
+    @Test
+    void profile_shouldEmitStageEvents_whileRecording(@TempDir final Path dir) throws IOException {
+        deviceRepository.save(Device.builder()
+                .name("Phone").brand("Profiled").state(DeviceState.AVAILABLE)
+                .creationTime(OffsetDateTime.now()).updateTime(OffsetDateTime.now()).build());
+        final Path file = dir.resolve("stages.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(StageEvent.NAME);
+            recording.start();
+            deviceService.getDevicesByBrand("Profiled");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).extracting(event -> event.getString("stage")).contains("service", "repository");
+        assertThat(events).extracting(event -> event.getString("operation"))
+                .contains("DeviceService.getDevicesByBrand", "DeviceRepository.findResponsesByBrand");
+        assertThat(events).allSatisfy(event -> assertThat(event.getLong("allocatedBytes")).isNotNegative());
+    }
+
+    @Test
+    void profile_shouldMarkAllocationUnknown_onVirtualThreads(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("virtual.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(StageEvent.NAME);
+            recording.start();
+            Thread.ofVirtual().start(() -> deviceService.getDevicesByBrand("Profiled")).join();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).isNotEmpty().allSatisfy(event ->
+                assertThat(event.getLong("allocatedBytes")).isEqualTo(StageProfilingPostProcessor.UNKNOWN_ALLOCATION));
+    }
+}
@@ -0,0 +1,170 @@
+package com.naveen.devices.reactive;
+
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.dto.DeviceResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = ReactiveDevicesApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.liquibase.url=" + ReactiveDeviceControllerTest.JDBC_URL,
+        "spring.liquibase.user=sa",
+        "spring.liquibase.password="
+})
+@ActiveProfiles({ReactiveDevicesApplication.PROFILE, "test"})
+class ReactiveDeviceControllerTest {
+
+    static final String JDBC_URL = "jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1";
+    private static final String API_KEY = "test-api-key";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(JDBC_URL, "sa", ""));
+
+    @BeforeEach
+    void cleanup() {
+        jdbcTemplate.update("delete from devices");
+        jdbcTemplate.update("delete from device_history");
+        jdbcTemplate.update("delete from device_tombstones");
+    }
+
+    @Test
+    void createAndGet_shouldRoundTripDevice() {
+        final DeviceResponse created = create("Pixel", "Google", DeviceState.AVAILABLE);
+
+        assertThat(created.id()).isNotNull();
+        client().get().uri("/api/devices/{id}", created.id()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Pixel")
+                .jsonPath("$.brand").isEqualTo("Google")
+                .jsonPath("$.state").isEqualTo("AVAILABLE");
+    }
+
+    @Test
+    void createDevice_shouldReturnBadRequest_whenNameMissing() {
+        client().post().uri("/api/devices")
+                .bodyValue(DeviceRequest.builder().brand("Google").state(DeviceState.AVAILABLE).build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.detail").isEqualTo("name is required");
+    }
+
+    @Test
+    void listEndpoints_shouldStreamDevicesInIdOrder_asJsonArrayOrNdjson() {
+        final DeviceResponse first = create("Watch 0", "Streamed", DeviceState.AVAILABLE);
+        final DeviceResponse second = create("Watch 1", "Streamed", DeviceState.INACTIVE);
+        create("Other", "Elsewhere", DeviceState.INACTIVE);
+
+        client().get().uri("/api/devices/brand/{brand}", "Streamed").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBodyList(DeviceResponse.class)
+                .value(devices -> assertThat(devices).extracting(DeviceResponse::id)
+                        .containsExactly(first.id(), second.id()));
+
+        final List<DeviceResponse> inactive = client().get().uri("/api/devices/state/{state}", "INACTIVE")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(DeviceResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertThat(inactive).extracting(DeviceResponse::name).containsExactly("Watch 1", "Other");
+
+        client().get().uri("/api/devices").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(3);
+    }
+
+    @Test
+    void partialUpdate_shouldChangeStateAndRecordHistory() {
+        final DeviceResponse created = create("Tablet", "Apple", DeviceState.AVAILABLE);
+
+        client().patch().uri("/api/devices/{id}", created.id())
+                .bodyValue(DeviceRequest.builder().state(DeviceState.IN_USE).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.state").isEqualTo("IN_USE");
+
+        assertThat(jdbcTemplate.queryForList("select to_state from device_history where device_id = ? order by id",
+                String.class, created.id())).containsExactly("AVAILABLE", "IN_USE");
+    }
+
+    @Test
+    void updateDevice_shouldReturnConflict_whenRenamingDeviceInUse() {
+        final DeviceResponse created = create("Laptop", "Dell", DeviceState.IN_USE);
+
+        client().put().uri("/api/devices/{id}", created.id())
+                .bodyValue(DeviceRequest.builder().name("Renamed").build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        client().patch().uri("/api/devices/{id}", 999_999L)
+                .bodyValue(DeviceRequest.builder().state(DeviceState.INACTIVE).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void deleteDevice_shouldRemoveDeviceAndLeaveTombstone() {
+        final DeviceResponse inUse = create("Phone", "Acme", DeviceState.IN_USE);
+        final DeviceResponse available = create("Phone 2", "Acme", DeviceState.AVAILABLE);
+
+        client().delete().uri("/api/devices/{id}", inUse.id()).exchange()
+                .expectStatus().isBadRequest();
+        client().delete().uri("/api/devices/{id}", available.id()).exchange()
+                .expectStatus().isNoContent();
+
+        client().get().uri("/api/devices/{id}", available.id()).exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.detail").isEqualTo("Device not found with id: " + available.id());
+        assertThat(jdbcTemplate.queryForList("select device_id from device_tombstones", Long.class))
+                .containsExactly(available.id());
+    }
+
+    @Test
+    void requests_shouldBeRejected_withoutApiKey() {
+        webTestClient.get().uri("/api/devices").exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/actuator/health").exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/actuator/metrics").exchange()
+                .expectStatus().isUnauthorized();
+        client().get().uri("/actuator/metrics").exchange()
+                .expectStatus().isOk();
+    }
+
+    private DeviceResponse create(final String name, final String brand, final DeviceState state) {
+        return client().post().uri("/api/devices")
+                .bodyValue(DeviceRequest.builder().name(name).brand(brand).state(state).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(DeviceResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private WebTestClient client() {
+        return webTestClient.mutate().defaultHeader(ReactiveSecurityConfig.API_KEY_HEADER, API_KEY).build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.naveen.devices.reactive;
+
+import com.naveen.devices.converter.DeviceConverter;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.dto.DeviceResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveDeviceServiceTest {
+
+    private static final long ID = 42L;
+
+    @Mock
+    private ReactiveDeviceRepository repository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.insert(any(Device.class))).thenReturn(Mono.empty());
+        when(repository.insertHistory(eq(ID), isNull(), any(DeviceState.class), any(OffsetDateTime.class)))
+                .thenReturn(Mono.empty());
+    }
+
+    @Test
+    void createDevice_shouldLeaveInvalidationInTransaction_whenCacheBusEnabled() {
+        when(repository.insertInvalidation(anyString(), eq(ID), any(OffsetDateTime.class))).thenReturn(Mono.empty());
+
+        final DeviceResponse created = service(true).createDevice(request()).block();
+
+        assertThat(created.id()).isEqualTo(ID);
+        verify(repository).insertInvalidation(anyString(), eq(ID), eq(created.creationTime()));
+        verify(transactionalOperator).transactional(any(Mono.class));
+    }
+
+    @Test
+    void createDevice_shouldNotTouchCacheBus_whenDisabled() {
+        service(false).createDevice(request()).block();
+
+        verify(repository).insert(any(Device.class));
+        verify(repository).insertHistory(eq(ID), isNull(), eq(DeviceState.AVAILABLE), any(OffsetDateTime.class));
+        verify(repository, never()).insertInvalidation(anyString(), anyLong(), any());
+    }
+
+    private ReactiveDeviceService service(final boolean cacheBus) {
+        return new ReactiveDeviceService(repository, new DeviceConverter(), () -> ID, transactionalOperator, cacheBus);
+    }
+
+    private static DeviceRequest request() {
+        return DeviceRequest.builder().name("Pixel").brand("Google").state(DeviceState.AVAILABLE).build();
+    }
+}
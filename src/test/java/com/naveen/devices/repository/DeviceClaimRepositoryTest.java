@@ -0,0 +1,113 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.service.DeviceService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.dialect=com.naveen.devices.repository.SkipLockedH2Dialect")
+@ActiveProfiles("test")
+class DeviceClaimRepositoryTest {
+
+    private static final int CLAIMERS = 64;
+    private static final int AVAILABLE = 40;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        final List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < AVAILABLE; i++) {
+            devices.add(device("Free " + i, "Claimed", DeviceState.AVAILABLE));
+        }
+        devices.add(device("Busy", "Claimed", DeviceState.IN_USE));
+        devices.add(device("Other", "Elsewhere", DeviceState.AVAILABLE));
+        deviceRepository.saveAll(devices);
+    }
+
+    @Test
+    void claimDevices_shouldGiveEveryDeviceToOneClaimer_withSkipLocked() throws Exception {
+        final List<Long> claimed = runClaimers(() -> deviceService.claimDevices("Claimed", 1).stream()
+                .map(DeviceResponse::id)
+                .toList());
+
+        assertThat(claimed).hasSize(AVAILABLE).doesNotHaveDuplicates();
+        assertThat(deviceRepository.countByState(DeviceState.AVAILABLE)).isEqualTo(1);
+        assertThat(deviceService.getDevicesByBrand("Elsewhere")).extracting(DeviceResponse::state)
+                .containsExactly("AVAILABLE");
+    }
+
+    @Test
+    void lockAvailable_shouldGiveEveryDeviceToOneClaimer_withRowByRowLocking() throws Exception {
+        final DeviceClaimRepository rowByRow = new DeviceClaimRepository(entityManager, false, true);
+
+        final List<Long> claimed = runClaimers(() -> transactionTemplate.execute(status -> {
+            final List<Device> locked = rowByRow.lockAvailable("Claimed", 0, 1);
+            locked.forEach(device -> device.setState(DeviceState.IN_USE));
+            return locked.stream().map(Device::getId).toList();
+        }));
+
+        assertThat(claimed).hasSize(AVAILABLE).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void claimDevices_shouldReturnFewer_whenNotEnoughAvailable() {
+        final List<DeviceResponse> first = deviceService.claimDevices(null, 30);
+        final List<DeviceResponse> second = deviceService.claimDevices(null, 30);
+
+        assertThat(first).hasSize(30).extracting(DeviceResponse::state).containsOnly("IN_USE");
+        assertThat(second).hasSize(AVAILABLE + 1 - 30);
+        assertThat(first).extracting(DeviceResponse::id).doesNotContainAnyElementsOf(
+                second.stream().map(DeviceResponse::id).toList());
+        assertThat(deviceService.claimDevices(null, 1)).isEmpty();
+    }
+
+    private List<Long> runClaimers(final Callable<List<Long>> claim) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(CLAIMERS);
+        try {
+            final List<Future<List<Long>>> results = executor.invokeAll(
+                    IntStream.range(0, CLAIMERS).mapToObj(i -> claim).toList());
+            final List<Long> claimed = new ArrayList<>();
+            for (final Future<List<Long>> result : results) {
+                claimed.addAll(result.get());
+            }
+            return claimed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Device device(final String name, final String brand, final DeviceState state) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        return Device.builder().name(name).brand(brand).state(state).creationTime(now).updateTime(now).build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.DeviceResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceMembershipIndexTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DeviceMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        index = new DeviceMembershipIndex(jdbcTemplate, new SimpleMeterRegistry(), true);
+    }
+
+    @Test
+    void load_shouldIndexExistingRowsByBrandAndState() {
+        final Device phone = save("Phone", "Acme", DeviceState.IN_USE);
+        final Device tablet = save("Tablet", "Acme", DeviceState.AVAILABLE);
+        save("Watch", "Other", DeviceState.AVAILABLE);
+
+        index.load();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.idsByBrand("Acme")).containsExactly(phone.getId(), tablet.getId());
+        assertThat(index.idsByState(DeviceState.IN_USE)).containsExactly(phone.getId());
+        assertThat(index.countByBrand("Acme")).isEqualTo(2);
+        assertThat(index.countByState(DeviceState.AVAILABLE)).isEqualTo(2);
+        assertThat(index.idsByBrand("Missing")).isEmpty();
+        assertThat(index.countByBrand("Missing")).isZero();
+    }
+
+    @Test
+    void load_shouldIndexRow_whenUpdateTimeIsNull() {
+        jdbcTemplate.update("insert into devices (id, name, brand, state, creation_time, update_time)"
+                + " values (42, 'Legacy', 'Acme', 'AVAILABLE', current_timestamp, null)");
+
+        index.load();
+
+        assertThat(index.idsByBrand("Acme")).containsExactly(42L);
+    }
+
+    @Test
+    void findResponsesByIdIn_shouldFetchIndexedIdsInIdOrder() {
+        final Device phone = save("Phone", "Acme", DeviceState.IN_USE);
+        save("Watch", "Other", DeviceState.AVAILABLE);
+        final Device tablet = save("Tablet", "Acme", DeviceState.AVAILABLE);
+        index.load();
+
+        final List<Long> ids = Arrays.stream(index.idsByBrand("Acme")).boxed().toList();
+
+        assertThat(deviceRepository.findResponsesByIdIn(ids))
+                .extracting(DeviceResponse::name)
+                .containsExactly(phone.getName(), tablet.getName());
+    }
+
+    @Test
+    void upsert_shouldMoveDeviceBetweenSets_whenBrandAndStateChange() {
+        index.upsert(1L, "Acme", DeviceState.AVAILABLE, T0);
+        index.upsert(1L, "Other", DeviceState.IN_USE, T0.plusSeconds(1));
+
+        assertThat(index.idsByBrand("Acme")).isEmpty();
+        assertThat(index.idsByState(DeviceState.AVAILABLE)).isEmpty();
+        assertThat(index.idsByBrand("Other")).containsExactly(1L);
+        assertThat(index.countByState(DeviceState.IN_USE)).isEqualTo(1);
+    }
+
+    @Test
+    void upsert_shouldIgnoreOlderEvent_whenArrivingOutOfOrder() {
+        index.upsert(1L, "Acme", DeviceState.IN_USE, T0.plusSeconds(5));
+        index.upsert(1L, "Acme", DeviceState.AVAILABLE, T0);
+
+        assertThat(index.idsByState(DeviceState.IN_USE)).containsExactly(1L);
+        assertThat(index.countByState(DeviceState.AVAILABLE)).isZero();
+    }
+
+    @Test
+    void upsert_shouldNotResurrectDevice_whenStaleEventArrivesAfterRemoval() {
+        index.upsert(1L, "Acme", DeviceState.AVAILABLE, T0);
+        index.remove(1L);
+        index.upsert(1L, "Acme", DeviceState.IN_USE, T0.plusSeconds(1));
+
+        assertThat(index.idsByBrand("Acme")).isEmpty();
+        assertThat(index.countByState(DeviceState.IN_USE)).isZero();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void events_shouldAddAndRemoveDevices_whenNoTransactionActive() {
+        index.onDeviceChanged(new DeviceChangedEvent(3L, "Phone", "Acme", DeviceState.AVAILABLE, T0, T0));
+        index.onDeviceChanged(new DeviceChangedEvent(2L, "Tablet", "Acme", DeviceState.AVAILABLE, T0, T0));
+        index.onDevicesRemoved(new DevicesRemovedEvent(List.of(3L)));
+        index.onDeviceChanged(new DeviceChangedEvent(4L, "Watch", "Other", DeviceState.INACTIVE, T0, T0));
+
+        assertThat(index.idsByBrand("Acme")).containsExactly(2L);
+        assertThat(index.idsByState(DeviceState.INACTIVE)).containsExactly(4L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void estimatedBytes_shouldStaySmallPerDevice() {
+        for (long id = 1; id <= 10_000; id++) {
+            index.upsert(id, "Brand" + (id % 20), DeviceState.values()[(int) (id % 3)], T0);
+        }
+
+        assertThat(index.estimatedBytes() / index.size()).isLessThan(80);
+    }
+
+    private Device save(final String name, final String brand, final DeviceState state) {
+        return deviceRepository.save(Device.builder()
+                .name(name).brand(brand).state(state)
+                .creationTime(T0).updateTime(T0).build());
+    }
+}
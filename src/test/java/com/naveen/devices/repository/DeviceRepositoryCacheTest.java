@@ -0,0 +1,117 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceRepositoryCacheTest {
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceLookupRepository lookupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        deviceRepository.saveAll(List.of(device("Pixel", "Google", DeviceState.AVAILABLE),
+                device("Galaxy", "Samsung", DeviceState.IN_USE)));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveAll_shouldInsertInOneBatch() {
+        final List<Device> saved = deviceRepository.saveAll(List.of(
+                device("A", "Batch", DeviceState.AVAILABLE),
+                device("B", "Batch", DeviceState.AVAILABLE),
+                device("C", "Batch", DeviceState.AVAILABLE)));
+
+        assertThat(saved).extracting(Device::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findResponsesByBrand_shouldIssueNoSql_whenCalledRepeatedly() {
+        deviceRepository.findResponsesByBrand("Google");
+        final long statementsAfterFirstCall = statistics.getPrepareStatementCount();
+
+        final List<DeviceResponse> result = deviceRepository.findResponsesByBrand("Google");
+
+        assertThat(result).extracting(DeviceResponse::name).containsExactly("Pixel");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstCall);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByState_shouldIssueNoSql_whenCalledRepeatedly() {
+        deviceRepository.findByState(DeviceState.IN_USE);
+        final long statementsAfterFirstCall = statistics.getPrepareStatementCount();
+
+        final List<Device> result = deviceRepository.findByState(DeviceState.IN_USE);
+
+        assertThat(result).extracting(Device::getName).containsExactly("Galaxy");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstCall);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findResponsesByBrand_shouldSeeNewDevice_whenDeviceSavedAfterCaching() {
+        deviceRepository.findResponsesByBrand("Google");
+
+        deviceRepository.save(device("Pixel Fold", "Google", DeviceState.AVAILABLE));
+
+        assertThat(deviceRepository.findResponsesByBrand("Google"))
+                .extracting(DeviceResponse::name)
+                .containsExactlyInAnyOrder("Pixel", "Pixel Fold");
+    }
+
+    @Test
+    void findAllInOrder_shouldKeepRequestOrder_andServeCachedDevicesWithoutSql() {
+        final List<Long> ids = deviceRepository.findAll().stream().map(Device::getId).sorted().toList();
+        final List<Long> requested = List.of(ids.get(1), -1L, ids.get(0));
+
+        final List<Device> first = lookupRepository.findAllInOrder(requested);
+        final long statementsAfterFirstCall = statistics.getPrepareStatementCount();
+        final List<Device> second = lookupRepository.findAllInOrder(requested);
+
+        assertThat(first).extracting(device -> device == null ? null : device.getId())
+                .containsExactly(ids.get(1), null, ids.get(0));
+        assertThat(second).extracting(device -> device == null ? null : device.getName())
+                .containsExactly(first.get(0).getName(), null, first.get(2).getName());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount() - statementsAfterFirstCall).isLessThanOrEqualTo(1);
+    }
+
+    private static Device device(final String name, final String brand, final DeviceState state) {
+        return Device.builder()
+                .name(name)
+                .brand(brand)
+                .state(state)
+                .creationTime(OffsetDateTime.now())
+                .updateTime(OffsetDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.DeviceState;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceSlotTableTest {
+
+    private final DeviceSlotTable table = new DeviceSlotTable();
+
+    @Test
+    void put_shouldMoveDeviceBetweenBrandAndStateSets() {
+        final int slot = table.put(7L, "Acme", DeviceState.AVAILABLE, 1);
+        assertThat(table.put(7L, "Other", DeviceState.IN_USE, 2)).isEqualTo(slot);
+
+        assertThat(table.brandSlots("Acme").isEmpty()).isTrue();
+        assertThat(table.stateSlots(DeviceState.AVAILABLE).isEmpty()).isTrue();
+        assertThat(table.brand(slot)).isEqualTo("Other");
+        assertThat(table.state(slot)).isEqualTo(DeviceState.IN_USE);
+        assertThat(table.isStale(7L, 1)).isTrue();
+        assertThat(table.isStale(7L, 2)).isFalse();
+    }
+
+    @Test
+    void remove_shouldFreeSlotForReuse() {
+        final int slot = table.put(1L, "Acme", DeviceState.AVAILABLE, 1);
+        table.put(2L, "Acme", DeviceState.AVAILABLE, 1);
+
+        assertThat(table.remove(1L, 10)).isEqualTo(slot);
+        assertThat(table.remove(1L, 10)).isEqualTo(LongIntHashMap.MISSING);
+        assertThat(table.slotOf(1L)).isEqualTo(LongIntHashMap.MISSING);
+        assertThat(table.put(3L, "Acme", DeviceState.AVAILABLE, 1)).isEqualTo(slot);
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    void isStale_shouldRejectEventsNotNewerThanRemoval_untilTombstoneIsPruned() {
+        table.put(1L, "Acme", DeviceState.AVAILABLE, 5);
+        table.remove(1L, 10);
+
+        assertThat(table.isStale(1L, 7)).isTrue();
+        assertThat(table.isStale(1L, 10)).isTrue();
+        assertThat(table.isStale(1L, 11)).isFalse();
+        assertThat(table.isStale(2L, 7)).isFalse();
+
+        table.remove(2L, 10 + DeviceSlotTable.TOMBSTONE_HORIZON_MICROS + 1);
+
+        assertThat(table.tombstones()).isEqualTo(1);
+        assertThat(table.isStale(1L, 7)).isFalse();
+    }
+
+    @Test
+    void idsOf_shouldReturnIdsAscending_whateverTheirSlots() {
+        for (long id = 5_000; id > 0; id--) {
+            table.put(id, id % 2 == 0 ? "Even" : "Odd", DeviceState.AVAILABLE, 1);
+        }
+        for (long id = 1; id <= 5_000; id += 3) {
+            table.remove(id, 10);
+        }
+        table.put(10_001L, "Even", DeviceState.AVAILABLE, 1);
+
+        final long[] even = table.idsOf(table.brandSlots("Even"));
+
+        assertThat(even).isSorted().doesNotHaveDuplicates().contains(2L, 10_001L).doesNotContain(4L);
+        assertThat(even).hasSize(table.brandSlots("Even").cardinality());
+        assertThat(table.idsOf(table.brandSlots("Missing"))).isEmpty();
+        assertThat(table.capacity()).isGreaterThanOrEqualTo(5_000);
+    }
+}
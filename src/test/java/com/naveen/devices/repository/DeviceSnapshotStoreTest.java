@@ -0,0 +1,137 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceSnapshotStoreTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 1, 1, 12, 0, 0, 123_456_000, ZoneOffset.UTC);
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DeviceSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        store = new DeviceSnapshotStore(jdbcTemplate, new SimpleMeterRegistry(), true);
+    }
+
+    @Test
+    void load_shouldServeExistingRowsByIdBrandAndState() {
+        final Device saved = deviceRepository.save(Device.builder()
+                .name("Phone").brand("Acme").state(DeviceState.IN_USE)
+                .creationTime(T0).updateTime(T0).build());
+        deviceRepository.save(Device.builder()
+                .name("Tablet").brand("Other").state(DeviceState.AVAILABLE)
+                .creationTime(T0).updateTime(T0).build());
+
+        store.load();
+
+        assertThat(store.isReady()).isTrue();
+        assertThat(store.size()).isEqualTo(2);
+        final DeviceResponse found = store.findById(saved.getId()).orElseThrow();
+        assertThat(found.name()).isEqualTo("Phone");
+        assertThat(found.state()).isEqualTo("IN_USE");
+        assertThat(found.updateTime().toInstant()).isEqualTo(T0.toInstant());
+        assertThat(store.findByBrand("Acme")).extracting(DeviceResponse::id).containsExactly(saved.getId());
+        assertThat(store.findByState(DeviceState.IN_USE)).extracting(DeviceResponse::id).containsExactly(saved.getId());
+        assertThat(store.findByBrand("Missing")).isEmpty();
+    }
+
+    @Test
+    void load_shouldUseCreationTime_whenUpdateTimeIsNull() {
+        jdbcTemplate.update("insert into devices (id, name, brand, state, creation_time, update_time)"
+                + " values (42, 'Legacy', 'Acme', 'AVAILABLE', ?, null)", T0);
+
+        store.load();
+
+        assertThat(store.findById(42L).orElseThrow().updateTime().toInstant()).isEqualTo(T0.toInstant());
+    }
+
+    @Test
+    void upsert_shouldMoveDeviceBetweenIndexes_whenStateAndBrandChange() {
+        store.upsert(event(1L, "Acme", DeviceState.AVAILABLE, T0));
+        store.upsert(event(1L, "Other", DeviceState.IN_USE, T0.plusSeconds(1)));
+
+        assertThat(store.findByBrand("Acme")).isEmpty();
+        assertThat(store.findByState(DeviceState.AVAILABLE)).isEmpty();
+        assertThat(store.findByBrand("Other")).extracting(DeviceResponse::state).containsExactly("IN_USE");
+    }
+
+    @Test
+    void upsert_shouldIgnoreOlderEvent_whenArrivingOutOfOrder() {
+        store.upsert(event(1L, "Acme", DeviceState.IN_USE, T0.plusSeconds(5)));
+        store.upsert(event(1L, "Acme", DeviceState.AVAILABLE, T0));
+
+        assertThat(store.findById(1L).orElseThrow().state()).isEqualTo("IN_USE");
+    }
+
+    @Test
+    void remove_shouldDropDeviceAndReuseSlot() {
+        store.upsert(event(1L, "Acme", DeviceState.AVAILABLE, T0));
+        store.remove(1L);
+        store.upsert(event(2L, "Other", DeviceState.INACTIVE, T0));
+
+        assertThat(store.findById(1L)).isEmpty();
+        assertThat(store.findByBrand("Acme")).isEmpty();
+        assertThat(store.findByState(DeviceState.INACTIVE)).extracting(DeviceResponse::id).containsExactly(2L);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void upsert_shouldNotResurrectDevice_whenStaleEventArrivesAfterRemoval() {
+        store.upsert(event(1L, "Acme", DeviceState.AVAILABLE, T0));
+        store.remove(1L);
+        store.upsert(event(1L, "Acme", DeviceState.IN_USE, T0.plusSeconds(1)));
+
+        assertThat(store.findById(1L)).isEmpty();
+        assertThat(store.findByState(DeviceState.IN_USE)).isEmpty();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void estimatedBytes_shouldStayCompactPerDevice() {
+        for (long id = 1; id <= 10_000; id++) {
+            store.upsert(event(id, "Brand" + (id % 20), DeviceState.values()[(int) (id % 3)], T0));
+        }
+
+        assertThat(store.estimatedBytes() / store.size()).isLessThan(160);
+    }
+
+    @Test
+    void onDeviceChanged_shouldApplyEvent_whenNoTransactionActive() {
+        final List<DeviceResponse> before = store.findByBrand("Acme");
+
+        store.onDeviceChanged(event(9L, "Acme", DeviceState.AVAILABLE, T0));
+
+        assertThat(before).isEmpty();
+        assertThat(store.findByBrand("Acme")).hasSize(1);
+    }
+
+    private static DeviceChangedEvent event(final long id, final String brand, final DeviceState state,
+                                            final OffsetDateTime updateTime) {
+        return new DeviceChangedEvent(id, "Device" + id, brand, state, T0, updateTime);
+    }
+}
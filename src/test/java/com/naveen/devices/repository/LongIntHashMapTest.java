@@ -0,0 +1,60 @@
+package com.naveen.devices.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongIntHashMapTest {
+
+    @Test
+    void get_shouldReturnMissing_whenKeyAbsent() {
+        final LongIntHashMap map = new LongIntHashMap(4);
+
+        assertThat(map.get(42L)).isEqualTo(LongIntHashMap.MISSING);
+    }
+
+    @Test
+    void put_shouldOverwrite_whenKeyPresent() {
+        final LongIntHashMap map = new LongIntHashMap(4);
+        map.put(7L, 1);
+        map.put(7L, 2);
+
+        assertThat(map.get(7L)).isEqualTo(2);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void put_shouldRejectReservedKey() {
+        final LongIntHashMap map = new LongIntHashMap(4);
+
+        assertThatThrownBy(() -> map.put(0L, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void operations_shouldMatchHashMap_underRandomPutsAndRemovesWithGrowth() {
+        final LongIntHashMap map = new LongIntHashMap(4);
+        final Map<Long, Integer> expected = new HashMap<>();
+        final Random random = new Random(17);
+
+        for (int i = 0; i < 50_000; i++) {
+            final long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                final Integer removed = expected.remove(key);
+                assertThat(map.remove(key)).isEqualTo(removed == null ? LongIntHashMap.MISSING : removed);
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, LongIntHashMap.MISSING));
+        }
+    }
+}
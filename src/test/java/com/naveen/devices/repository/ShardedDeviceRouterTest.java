@@ -0,0 +1,103 @@
+package com.naveen.devices.repository;
+
+import com.naveen.devices.domain.Device;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardedDeviceRouterTest {
+
+    @Test
+    void encode_shouldProduceIdsOwnedByTheirShard() {
+        for (int shardCount = 1; shardCount <= 7; shardCount++) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                for (long sequence = 1; sequence < 3000; sequence += 37) {
+                    final long id = ShardedDeviceRouter.encode(sequence, shard, shardCount);
+
+                    assertThat(ShardedDeviceRouter.shardOf(id, shardCount)).isEqualTo(shard);
+                    assertThat(id >>> ShardedDeviceRouter.BUCKET_BITS).isEqualTo(sequence);
+                }
+            }
+        }
+    }
+
+    @Test
+    void encode_shouldCycleThroughAllBucketsOfShard() {
+        final long distinctBuckets = LongStream.range(0, ShardedDeviceRouter.BUCKETS)
+                .map(sequence -> ShardedDeviceRouter.encode(sequence, 1, 4) & (ShardedDeviceRouter.BUCKETS - 1))
+                .distinct()
+                .count();
+
+        assertThat(distinctBuckets).isEqualTo(ShardedDeviceRouter.BUCKETS / 4);
+    }
+
+    @Test
+    void gather_shouldQueryEveryShardAndMergeInOrder() {
+        final ShardedDeviceRouter router = new ShardedDeviceRouter(3, mock(ShardIdAllocator.class), inlineTransactions());
+
+        final List<Integer> merged = router.gather(() -> List.of(ShardContext.current() + 6, ShardContext.current()),
+                Comparator.naturalOrder());
+
+        assertThat(merged).containsExactly(0, 1, 2, 6, 7, 8);
+        assertThat(ShardContext.current()).isNull();
+    }
+
+    @Test
+    void gather_shouldRethrowShardFailure() {
+        final ShardedDeviceRouter router = new ShardedDeviceRouter(2, mock(ShardIdAllocator.class), inlineTransactions());
+
+        assertThatThrownBy(() -> router.gather(() -> {
+            throw new IllegalArgumentException("shard down");
+        }, Comparator.naturalOrder()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("shard down");
+    }
+
+    @Test
+    void forEachShard_shouldGroupItemsByOwningShard() {
+        final ShardedDeviceRouter router = new ShardedDeviceRouter(2, mock(ShardIdAllocator.class), inlineTransactions());
+        final long onShard0 = ShardedDeviceRouter.encode(10, 0, 2);
+        final long onShard1 = ShardedDeviceRouter.encode(11, 1, 2);
+        final Map<Integer, List<Long>> written = new ConcurrentHashMap<>();
+
+        router.forEachShard(List.of(onShard0, onShard1, onShard0), Long::longValue,
+                group -> written.put(ShardContext.current(), group));
+
+        assertThat(written).containsOnly(
+                Map.entry(0, List.of(onShard0, onShard0)),
+                Map.entry(1, List.of(onShard1)));
+    }
+
+    @Test
+    void assignId_shouldThrowIllegalState_whenNoTransaction() {
+        final ShardIdAllocator allocator = mock(ShardIdAllocator.class);
+        final AtomicLong sequence = new AtomicLong();
+        when(allocator.next(any(Integer.class))).thenAnswer(invocation -> sequence.incrementAndGet());
+        final ShardedDeviceRouter router = new ShardedDeviceRouter(2, allocator, inlineTransactions());
+        final Device device = new Device();
+
+        assertThatThrownBy(() -> router.assignId(device))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Routing to a shard requires a transaction");
+        assertThat(device.getId()).isNotNull();
+    }
+
+    private static PlatformTransactionManager inlineTransactions() {
+        final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        return transactionManager;
+    }
+}
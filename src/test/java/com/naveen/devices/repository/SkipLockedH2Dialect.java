@@ -0,0 +1,25 @@
+package com.naveen.devices.repository;
+
+import org.hibernate.dialect.H2Dialect;
+
+/**
+ * H2 has understood {@code FOR UPDATE SKIP LOCKED} since 2.2, but Hibernate's dialect does not
+ * declare it. Lets tests run the claim query the way it runs on MySQL.
+ */
+public class SkipLockedH2Dialect extends H2Dialect {
+
+    @Override
+    public boolean supportsSkipLocked() {
+        return true;
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString() {
+        return " for update skip locked";
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString(final String aliases) {
+        return getForUpdateSkipLockedString();
+    }
+}
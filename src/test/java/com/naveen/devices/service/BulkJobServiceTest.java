@@ -0,0 +1,163 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.BulkJobStatus;
+import com.naveen.devices.domain.BulkJobType;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.BulkJobResponse;
+import com.naveen.devices.dto.PurgeJobRequest;
+import com.naveen.devices.dto.StateChangeJobRequest;
+import com.naveen.devices.exception.BulkJobNotFoundException;
+import com.naveen.devices.exception.DeviceValidationException;
+import com.naveen.devices.repository.BulkJobRepository;
+import com.naveen.devices.repository.DeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkJobServiceTest {
+
+    @Autowired
+    private BulkJobService bulkJobService;
+
+    @Autowired
+    private BulkJobRepository jobRepository;
+
+    @Autowired
+    private ImportJobHandler importJobHandler;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        jdbcTemplate.update("delete from bulk_jobs");
+    }
+
+    @Test
+    void submitStateChange_shouldMoveMatchingDevicesInBackground() throws InterruptedException {
+        deviceRepository.save(device("A", "Acme", DeviceState.AVAILABLE));
+        deviceRepository.save(device("B", "Acme", DeviceState.AVAILABLE));
+        deviceRepository.save(device("C", "Other", DeviceState.AVAILABLE));
+
+        final BulkJobResponse submitted = bulkJobService.submitStateChange(
+                new StateChangeJobRequest("Acme", DeviceState.AVAILABLE, DeviceState.INACTIVE));
+        final BulkJobResponse finished = awaitFinished(submitted.id());
+
+        assertThat(finished.status()).isEqualTo(BulkJobStatus.COMPLETED);
+        assertThat(finished.processed()).isEqualTo(2);
+        assertThat(deviceRepository.findByState(DeviceState.INACTIVE)).extracting(Device::getBrand)
+                .containsOnly("Acme").hasSize(2);
+    }
+
+    @Test
+    void submitPurge_shouldDeleteMatchingDevices() throws InterruptedException {
+        deviceRepository.save(device("A", "Acme", DeviceState.INACTIVE));
+        deviceRepository.save(device("B", "Acme", DeviceState.AVAILABLE));
+
+        final BulkJobResponse finished = awaitFinished(
+                bulkJobService.submitPurge(new PurgeJobRequest(null, DeviceState.INACTIVE)).id());
+
+        assertThat(finished.status()).isEqualTo(BulkJobStatus.COMPLETED);
+        assertThat(deviceRepository.findAll()).extracting(Device::getName).containsExactly("B");
+    }
+
+    @Test
+    void submitPurge_shouldThrowValidation_whenStateInUse() {
+        assertThatThrownBy(() -> bulkJobService.submitPurge(new PurgeJobRequest(null, DeviceState.IN_USE)))
+                .isInstanceOf(DeviceValidationException.class);
+    }
+
+    @Test
+    void submitImport_shouldImportRowsAndCountRejected() throws InterruptedException {
+        final String csv = "name,brand,state\nPhone,Acme,AVAILABLE\nBad,,AVAILABLE\n";
+
+        final BulkJobResponse finished = awaitFinished(bulkJobService.submitImport(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).id());
+
+        assertThat(finished.status()).isEqualTo(BulkJobStatus.COMPLETED);
+        assertThat(finished.processed()).isEqualTo(2);
+        assertThat(finished.failed()).isEqualTo(1);
+        assertThat(finished.lastError()).isEqualTo("line 3: brand is required");
+        assertThat(deviceRepository.findByBrand("Acme")).hasSize(1);
+    }
+
+    @Test
+    void run_shouldResumeAfterCommittedCursor() {
+        final String id = UUID.randomUUID().toString();
+        final String csv = "name,brand,state\nOne,Acme,AVAILABLE\nTwo,Acme,AVAILABLE\nThree,Acme,AVAILABLE\n";
+        final String file = importJobHandler.spool(id, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        final OffsetDateTime now = OffsetDateTime.now();
+        jobRepository.insert(id, BulkJobType.IMPORT, file, now);
+        assertThat(jobRepository.claim(id, "owner", now.minusMinutes(1), now)).isTrue();
+        jobRepository.advance(id, "owner", "2", 2, 0, null, now);
+
+        bulkJobService.run(id, "owner");
+
+        assertThat(deviceRepository.findByBrand("Acme")).extracting(Device::getName).containsExactly("Three");
+        assertThat(bulkJobService.getJob(id).processed()).isEqualTo(3);
+        assertThat(bulkJobService.getJob(id).status()).isEqualTo(BulkJobStatus.COMPLETED);
+    }
+
+    @Test
+    void run_shouldRollBackAndStop_whenJobWasReclaimedByAnotherWorker() {
+        final String id = UUID.randomUUID().toString();
+        final String csv = "name,brand,state\nOne,Acme,AVAILABLE\n";
+        final String file = importJobHandler.spool(id, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        final OffsetDateTime now = OffsetDateTime.now();
+        jobRepository.insert(id, BulkJobType.IMPORT, file, now);
+        assertThat(jobRepository.claim(id, "slow", now.minusMinutes(1), now)).isTrue();
+        assertThat(jobRepository.claim(id, "new", now.plusMinutes(1), now.plusMinutes(1))).isTrue();
+
+        bulkJobService.run(id, "slow");
+
+        assertThat(deviceRepository.findByBrand("Acme")).isEmpty();
+        assertThat(bulkJobService.getJob(id).status()).isEqualTo(BulkJobStatus.RUNNING);
+        assertThat(bulkJobService.getJob(id).processed()).isZero();
+        assertThat(jobRepository.finish(id, "slow", BulkJobStatus.FAILED, "late", now)).isFalse();
+    }
+
+    @Test
+    void getJob_shouldThrowNotFound_whenUnknown() {
+        assertThatThrownBy(() -> bulkJobService.getJob("missing"))
+                .isInstanceOf(BulkJobNotFoundException.class);
+    }
+
+    private BulkJobResponse awaitFinished(final String id) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        BulkJobResponse job = bulkJobService.getJob(id);
+        while (job.status() != BulkJobStatus.COMPLETED && job.status() != BulkJobStatus.FAILED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = bulkJobService.getJob(id);
+        }
+        return job;
+    }
+
+    private static Device device(final String name, final String brand, final DeviceState state) {
+        return Device.builder()
+                .name(name)
+                .brand(brand)
+                .state(state)
+                .creationTime(OffsetDateTime.now())
+                .updateTime(OffsetDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.exception.DeviceValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void next_shouldSplitPlainRecords_withMixedLineEnds() {
+        final CsvRecordReader reader = reader("a,b,c\r\nd,,f\ng,h,i");
+
+        assertThat(reader.next()).containsExactly("a", "b", "c");
+        assertThat(reader.next()).containsExactly("d", "", "f");
+        assertThat(reader.recordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("g", "h", "i");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void next_shouldHandleQuotedSeparatorsQuotesAndNewlines() {
+        final CsvRecordReader reader = reader("\"Phone, 5G\",\"Say \"\"hi\"\"\",\"multi\nline\"\nnext,x,y\n");
+
+        assertThat(reader.next()).containsExactly("Phone, 5G", "Say \"hi\"", "multi\nline");
+        assertThat(reader.next()).containsExactly("next", "x", "y");
+        assertThat(reader.recordLine()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void next_shouldSkipBlankLines() {
+        final CsvRecordReader reader = reader("\n\na,b\n\n");
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.recordLine()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void next_shouldThrowValidation_whenQuoteUnterminated() {
+        final CsvRecordReader reader = reader("\"open,b");
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(DeviceValidationException.class)
+                .hasMessageContaining("Unterminated");
+    }
+
+    @Test
+    void next_shouldThrowValidation_whenRecordTooLong() {
+        final CsvRecordReader reader = new CsvRecordReader(new StringReader("abcdefghij,k"), 5);
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(DeviceValidationException.class)
+                .hasMessageContaining("exceeds 5 characters");
+    }
+
+    private static CsvRecordReader reader(final String csv) {
+        return new CsvRecordReader(new StringReader(csv), 1024);
+    }
+}
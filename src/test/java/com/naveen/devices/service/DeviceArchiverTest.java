@@ -0,0 +1,106 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.repository.DeviceArchiveRepository;
+import com.naveen.devices.repository.DeviceRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceArchiverTest {
+
+    @Autowired
+    private DeviceArchiver deviceArchiver;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceArchiveRepository deviceArchiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        jdbcTemplate.update("delete from devices_archive");
+    }
+
+    @Test
+    void archiveInactive_shouldMoveOnlyStaleInactiveDevices() {
+        final OffsetDateTime old = OffsetDateTime.now().minusDays(120);
+        final Device staleInactive = deviceRepository.save(device("Old", DeviceState.INACTIVE, old));
+        final Device staleAvailable = deviceRepository.save(device("OldAvailable", DeviceState.AVAILABLE, old));
+        final Device freshInactive = deviceRepository.save(device("New", DeviceState.INACTIVE, OffsetDateTime.now()));
+        deviceRepository.findById(staleInactive.getId());
+
+        final int moved = deviceArchiver.archiveInactive(OffsetDateTime.now().minusDays(90));
+
+        assertThat(moved).isEqualTo(1);
+        assertThat(deviceRepository.findById(staleInactive.getId())).isEmpty();
+        assertThat(deviceRepository.findAllById(List.of(staleAvailable.getId(), freshInactive.getId()))).hasSize(2);
+        assertThat(deviceArchiveRepository.countArchived()).isEqualTo(1);
+    }
+
+    @Test
+    void rollPartitionsForward_shouldAddMissingYearsUpToNextYear() {
+        final DeviceArchiveRepository repository = mock(DeviceArchiveRepository.class);
+        when(repository.lastPartitionYear()).thenReturn(OptionalInt.of(2027));
+
+        archiver(repository).rollPartitionsForward(2029);
+
+        verify(repository).addYearPartition(2028);
+        verify(repository).addYearPartition(2029);
+        verify(repository).addYearPartition(2030);
+    }
+
+    @Test
+    void rollPartitionsForward_shouldDoNothing_whenArchiveIsNotPartitioned() {
+        final DeviceArchiveRepository repository = mock(DeviceArchiveRepository.class);
+        when(repository.lastPartitionYear()).thenReturn(OptionalInt.empty());
+
+        archiver(repository).rollPartitionsForward(2029);
+
+        verify(repository, never()).addYearPartition(anyInt());
+        assertThat(deviceArchiveRepository.lastPartitionYear()).isEmpty();
+    }
+
+    private static DeviceArchiver archiver(final DeviceArchiveRepository repository) {
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class));
+        return new DeviceArchiver(repository, mock(TransactionTemplate.class), entityManagerFactory,
+                mock(ApplicationEventPublisher.class), true, 90, 500, 100);
+    }
+
+    private static Device device(final String name, final DeviceState state, final OffsetDateTime updateTime) {
+        return Device.builder()
+                .name(name)
+                .brand("Archive")
+                .state(state)
+                .creationTime(updateTime)
+                .updateTime(updateTime)
+                .build();
+    }
+}
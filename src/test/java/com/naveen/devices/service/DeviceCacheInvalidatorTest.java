@@ -0,0 +1,124 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DeviceCacheInvalidatorTest {
+
+    private final InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+    private final List<DeviceCacheInvalidator> started = new ArrayList<>();
+    private Cache localCache;
+    private Cache remoteCache;
+    private DeviceCacheInvalidator local;
+
+    @BeforeEach
+    void setUp() {
+        localCache = mock(Cache.class);
+        remoteCache = mock(Cache.class);
+        local = start(bus, localCache, 3);
+        start(bus.join(), remoteCache, 3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (final DeviceCacheInvalidator invalidator : started) {
+            invalidator.stop();
+        }
+    }
+
+    @Test
+    void flush_shouldEvictCoalescedIdsOnOtherInstancesOnly() {
+        local.onDeviceChanged(changed(1L));
+        local.onDeviceChanged(changed(1L));
+        local.onDeviceChanged(changed(2L));
+        local.onDevicesRemoved(new DevicesRemovedEvent(List.of(2L, 3L)));
+
+        assertThat(local.pendingCount()).isEqualTo(3);
+
+        local.flush();
+
+        assertThat(local.pendingCount()).isZero();
+        verify(remoteCache).evictEntityData(Device.class, 1L);
+        verify(remoteCache).evictEntityData(Device.class, 2L);
+        verify(remoteCache).evictEntityData(Device.class, 3L);
+        verify(remoteCache, times(1)).evictQueryRegions();
+        verifyNoInteractions(localCache);
+    }
+
+    @Test
+    void flush_shouldEvictAllDevices_whenBatchExceedsLimit() {
+        for (long id = 1; id <= 4; id++) {
+            local.onDeviceChanged(changed(id));
+        }
+
+        local.flush();
+
+        verify(remoteCache).evictEntityData(Device.class);
+        verify(remoteCache).evictQueryRegions();
+        verify(remoteCache, times(0)).evictEntityData(any(Class.class), any());
+    }
+
+    @Test
+    void flush_shouldKeepIds_whenPublishFails() {
+        final CacheInvalidationBus failing = mock(CacheInvalidationBus.class);
+        doThrow(new IllegalStateException("database down")).when(failing).publish(any());
+        final DeviceCacheInvalidator invalidator = start(failing, mock(Cache.class), 10);
+        invalidator.onDeviceChanged(changed(7L));
+
+        assertThatThrownBy(invalidator::flush).isInstanceOf(IllegalStateException.class);
+        assertThat(invalidator.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onDeviceChanged_shouldIgnoreEvents_whenDisabled() {
+        final DeviceCacheInvalidator disabled = new DeviceCacheInvalidator(bus, sessionFactoryWith(localCache),
+                false, 60_000, 10);
+
+        disabled.onDeviceChanged(changed(1L));
+
+        assertThat(disabled.pendingCount()).isZero();
+    }
+
+    private DeviceCacheInvalidator start(final CacheInvalidationBus instanceBus, final Cache cache, final int maxBatchIds) {
+        final DeviceCacheInvalidator invalidator = new DeviceCacheInvalidator(instanceBus, sessionFactoryWith(cache),
+                true, 60_000, maxBatchIds);
+        invalidator.start();
+        started.add(invalidator);
+        return invalidator;
+    }
+
+    private static EntityManagerFactory sessionFactoryWith(final Cache cache) {
+        final SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        return entityManagerFactory;
+    }
+
+    private static DeviceChangedEvent changed(final Long id) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        return new DeviceChangedEvent(id, "Phone", "Acme", DeviceState.AVAILABLE, now, now);
+    }
+}
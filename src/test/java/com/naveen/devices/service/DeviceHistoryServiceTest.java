@@ -0,0 +1,113 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceHistoryEntry;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceHistoryPage;
+import com.naveen.devices.dto.DeviceHistoryResponse;
+import com.naveen.devices.repository.DeviceHistoryRepository;
+import com.naveen.devices.repository.DeviceShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeviceHistoryServiceTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.now();
+
+    @Mock
+    private DeviceHistoryRepository repository;
+
+    @Mock
+    private DeviceHistoryWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void recordStateChange_shouldIgnore_whenStateUnchanged() {
+        final DeviceHistoryService service = new DeviceHistoryService(repository, writer, DeviceShardRouter.SINGLE, false);
+
+        service.recordStateChange(1L, DeviceState.AVAILABLE, DeviceState.AVAILABLE, NOW);
+
+        verifyNoInteractions(repository, writer);
+    }
+
+    @Test
+    void recordStateChange_shouldInsertInline_whenSynchronous() {
+        final DeviceHistoryService service = new DeviceHistoryService(repository, writer, DeviceShardRouter.SINGLE, true);
+
+        service.recordStateChange(1L, DeviceState.AVAILABLE, DeviceState.IN_USE, NOW);
+
+        verify(repository).insertAll(List.of(new DeviceHistoryEntry(1L, DeviceState.AVAILABLE, DeviceState.IN_USE, NOW)));
+        verifyNoInteractions(writer);
+    }
+
+    @Test
+    void recordStateChange_shouldEnqueueAfterCommit_whenTransactionActive() {
+        final DeviceHistoryService service = new DeviceHistoryService(repository, writer, DeviceShardRouter.SINGLE, false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.recordStateChange(1L, DeviceState.AVAILABLE, DeviceState.IN_USE, NOW);
+
+        verifyNoInteractions(writer);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(writer).enqueue(new DeviceHistoryEntry(1L, DeviceState.AVAILABLE, DeviceState.IN_USE, NOW));
+    }
+
+    @Test
+    void recordCreations_shouldEnqueueEntryFromNoState_withOneHookPerBatch() {
+        final DeviceHistoryService service = new DeviceHistoryService(repository, writer, DeviceShardRouter.SINGLE, false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.recordCreations(List.of(device(1L, DeviceState.AVAILABLE), device(2L, DeviceState.IN_USE)), NOW);
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(writer).enqueue(new DeviceHistoryEntry(1L, null, DeviceState.AVAILABLE, NOW));
+        verify(writer).enqueue(new DeviceHistoryEntry(2L, null, DeviceState.IN_USE, NOW));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getHistory_shouldReportNextPage_whenMoreRowsExist() {
+        final DeviceHistoryService service = new DeviceHistoryService(repository, writer, DeviceShardRouter.SINGLE, false);
+        final DeviceHistoryResponse row = new DeviceHistoryResponse("AVAILABLE", "IN_USE", NOW);
+        when(repository.findPage(1L, 3, 2L)).thenReturn(List.of(row, row, row));
+
+        final DeviceHistoryPage page = service.getHistory(1L, 1, 2);
+
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.content()).hasSize(2);
+    }
+
+    @Test
+    void getHistory_shouldReject_whenSizeOutOfRange() {
+        final DeviceHistoryService service = new DeviceHistoryService(repository, writer, DeviceShardRouter.SINGLE, false);
+
+        assertThatThrownBy(() -> service.getHistory(1L, 0, DeviceHistoryService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(repository, never()).findPage(any(), anyInt(), anyLong());
+    }
+
+    private static Device device(final long id, final DeviceState state) {
+        return Device.builder().id(id).name("D" + id).brand("Acme").state(state).build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.DeviceHistoryEntry;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.repository.DeviceHistoryRepository;
+import com.naveen.devices.repository.DeviceShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class DeviceHistoryWriterTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DeviceHistoryRepository repository = mock(DeviceHistoryRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void flush_shouldWriteQueuedEntriesInBatches() {
+        final DeviceHistoryWriter writer = writer(10, 2, 200);
+        for (long id = 1; id <= 3; id++) {
+            writer.enqueue(entry(id));
+        }
+
+        writer.flush();
+
+        verify(repository).insertAll(List.of(entry(1L), entry(2L)));
+        verify(repository).insertAll(List.of(entry(3L)));
+        assertThat(writer.pending()).isZero();
+    }
+
+    @Test
+    void enqueue_shouldWriteInline_whenQueueFull() {
+        final DeviceHistoryWriter writer = writer(1, 10, 200);
+        writer.enqueue(entry(1L));
+
+        writer.enqueue(entry(2L));
+
+        verify(repository).insertAll(List.of(entry(2L)));
+        assertThat(writer.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void start_shouldDrainQueueInBackground() throws InterruptedException {
+        final DeviceHistoryWriter writer = writer(10, 10, 20);
+        writer.start();
+        try {
+            writer.enqueue(entry(1L));
+
+            verify(repository, timeout(2000)).insertAll(anyList());
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void flush_shouldRetryFailedBatch_untilItIsWritten() {
+        final DeviceHistoryWriter writer = writer(10, 10, 200);
+        doThrow(new DataAccessResourceFailureException("connection reset"))
+                .doNothing()
+                .when(repository).insertAll(anyList());
+        writer.enqueue(entry(1L));
+
+        writer.flush();
+
+        verify(repository, times(2)).insertAll(List.of(entry(1L)));
+        assertThat(droppedCount()).isZero();
+    }
+
+    @Test
+    void flush_shouldDropAndCountBatch_whenEveryAttemptFails() {
+        final DeviceHistoryWriter writer = writer(10, 10, 200);
+        doThrow(new DataAccessResourceFailureException("database down")).when(repository).insertAll(anyList());
+        writer.enqueue(entry(1L));
+        writer.enqueue(entry(2L));
+
+        writer.flush();
+
+        verify(repository, times(MAX_ATTEMPTS)).insertAll(List.of(entry(1L), entry(2L)));
+        assertThat(droppedCount()).isEqualTo(2.0);
+        assertThat(writer.pending()).isZero();
+    }
+
+    private DeviceHistoryWriter writer(final int queueCapacity, final int batchSize, final long flushIntervalMs) {
+        return new DeviceHistoryWriter(repository, DeviceShardRouter.SINGLE, queueCapacity, batchSize,
+                flushIntervalMs, MAX_ATTEMPTS, 1, meterRegistry);
+    }
+
+    private double droppedCount() {
+        return meterRegistry.get(DeviceHistoryWriter.DROPPED_METRIC).counter().count();
+    }
+
+    private static DeviceHistoryEntry entry(final long deviceId) {
+        return new DeviceHistoryEntry(deviceId, DeviceState.AVAILABLE, DeviceState.IN_USE,
+                OffsetDateTime.parse("2026-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceImportError;
+import com.naveen.devices.dto.DeviceImportResult;
+import com.naveen.devices.exception.DeviceValidationException;
+import com.naveen.devices.repository.DeviceBatchRepository;
+import com.naveen.devices.repository.DeviceRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceImportServiceTest {
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceBatchRepository batchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DeviceHistoryService historyService;
+
+    @Autowired
+    private DeviceHistoryWriter historyWriter;
+
+    private DeviceImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        importService = new DeviceImportService(batchRepository, transactionTemplate, entityManagerFactory,
+                eventPublisher, historyService, 2, 1, 2, 1024, true);
+    }
+
+    @Test
+    void importCsv_shouldInsertValidRowsAndReportRejectedOnes() {
+        final String csv = """
+                state,name,brand
+                AVAILABLE,Phone,Acme
+                in_use,"Tablet, 10""\",Acme
+                BROKEN,Laptop,Acme
+                INACTIVE,,Acme
+                AVAILABLE,Watch,Other
+                """;
+        final List<Long> progress = new ArrayList<>();
+
+        final DeviceImportResult result = importService.importCsv(stream(csv),
+                (rowsRead, imported, rejected) -> progress.add(imported));
+
+        assertThat(result.rowsRead()).isEqualTo(5);
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors()).containsExactly(
+                new DeviceImportError(4, "Unknown state: BROKEN"),
+                new DeviceImportError(5, "name is required"));
+        assertThat(result.errorsTruncated()).isFalse();
+        assertThat(progress).containsExactly(2L, 3L);
+        assertThat(deviceRepository.findByBrand("Acme")).hasSize(2)
+                .anySatisfy(device -> {
+                    assertThat(device.getName()).isEqualTo("Tablet, 10\"");
+                    assertThat(device.getState()).isEqualTo(DeviceState.IN_USE);
+                    assertThat(device.getCreationTime()).isNotNull();
+                });
+    }
+
+    @Test
+    void importCsv_shouldRecordCreationInHistory() {
+        importService.importCsv(stream("name,brand,state\nPhone,Acme,IN_USE\n"));
+        historyWriter.flush();
+
+        final Device phone = deviceRepository.findByBrand("Acme").get(0);
+        assertThat(historyService.getHistory(phone.getId(), 0, 10).content()).singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.fromState()).isNull();
+                    assertThat(entry.toState()).isEqualTo("IN_USE");
+                    assertThat(entry.changedAt()).isEqualTo(phone.getCreationTime());
+                });
+    }
+
+    @Test
+    void importCsv_shouldTruncateReportedErrors_whenOverLimit() {
+        final String csv = "name,brand,state\na,,AVAILABLE\nb,,AVAILABLE\nc,,AVAILABLE\n";
+
+        final DeviceImportResult result = importService.importCsv(stream(csv));
+
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.errors()).hasSize(2);
+        assertThat(result.errorsTruncated()).isTrue();
+    }
+
+    @Test
+    void importCsv_shouldThrowValidation_whenHeaderMissingColumn() {
+        assertThatThrownBy(() -> importService.importCsv(stream("name,state\nPhone,AVAILABLE\n")))
+                .isInstanceOf(DeviceValidationException.class)
+                .hasMessageContaining("'brand'");
+    }
+
+    @Test
+    void importCsv_shouldFail_whenWriterStopsWithoutRecordingFailure() {
+        final String csv = "name,brand,state\na,Acme,AVAILABLE\nb,Acme,AVAILABLE\nc,Acme,AVAILABLE\n"
+                + "d,Acme,AVAILABLE\ne,Acme,AVAILABLE\n";
+
+        assertThatThrownBy(() -> importService.importCsv(stream(csv), (rowsRead, imported, rejected) -> {
+            throw new AssertionError("listener broke");
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Import failed after")
+                .hasRootCauseMessage("Import writer stopped unexpectedly");
+    }
+
+    private static InputStream stream(final String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
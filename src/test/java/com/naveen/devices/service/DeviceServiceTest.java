@@ -1,20 +1,37 @@
 package com.naveen.devices.service;
 
 import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceChangedEvent;
 import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.DeviceLookupResponse;
 import com.naveen.devices.dto.DeviceRequest;
 import com.naveen.devices.dto.DeviceResponse;
 import com.naveen.devices.exception.DeviceNotFoundException;
+import com.naveen.devices.exception.DeviceValidationException;
 import com.naveen.devices.converter.DeviceConverter;
+import com.naveen.devices.repository.DeviceClaimRepository;
+import com.naveen.devices.repository.DeviceLookupRepository;
+import com.naveen.devices.repository.DeviceMembershipIndex;
 import com.naveen.devices.repository.DeviceRepository;
+import com.naveen.devices.repository.DeviceShardRouter;
+import com.naveen.devices.repository.DeviceSnapshotStore;
+import com.naveen.devices.repository.DeviceTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.LongStream;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -29,6 +46,39 @@ class DeviceServiceTest {
     @Mock
     private DeviceConverter converter;
 
+    @Mock
+    private DeviceHistoryService historyService;
+
+    @Mock
+    private DeviceTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private DeviceSnapshotStore snapshotStore;
+
+    @Mock
+    private DeviceMembershipIndex membershipIndex;
+
+    @Mock
+    private DeviceLookupRepository lookupRepository;
+
+    @Mock
+    private DeviceClaimRepository claimRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DeviceStateWriteBehind writeBehind;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private DeviceShardRouter shardRouter = DeviceShardRouter.SINGLE;
+
+    @Spy
+    private StaleReadCache staleReads = new StaleReadCache(new SimpleMeterRegistry(), 100, 10);
+
     @InjectMocks
     private DeviceService service;
 
@@ -63,10 +113,23 @@ class DeviceServiceTest {
         assertThat(result).isEqualTo(device);
         verify(repository).save(device);
         verify(converter).toEntity(request);
+        verify(historyService).recordStateChange(eq(1L), isNull(), eq(device.getState()), any());
+        verify(eventPublisher).publishEvent(DeviceChangedEvent.of(device));
+    }
+
+    @Test
+    void createDevice_shouldRejectRequest_whenImportWouldRejectTheRow() {
+        final DeviceRequest noBrand = DeviceRequest.builder().name("Phone").state(DeviceState.AVAILABLE).build();
+
+        assertThatThrownBy(() -> service.createDevice(noBrand))
+                .isInstanceOf(DeviceValidationException.class)
+                .hasMessage("brand is required");
+        verifyNoInteractions(repository);
     }
 
     @Test
     void updateDevice_shouldUpdateAndReturnDevice_whenDeviceExists() {
+        runTransactionsInline();
         when(repository.findById(1L)).thenReturn(Optional.of(device));
         doNothing().when(converter).updateEntity(request, device);
         when(repository.save(device)).thenReturn(device);
@@ -79,8 +142,22 @@ class DeviceServiceTest {
         verify(repository).save(device);
     }
 
+    @Test
+    void updateDevice_shouldRecordStateChange_whenStateChanges() {
+        runTransactionsInline();
+        final DeviceRequest inUse = DeviceRequest.builder().state(DeviceState.IN_USE).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(device));
+        doCallRealMethod().when(converter).updateEntity(inUse, device);
+        when(repository.save(device)).thenReturn(device);
+
+        service.updateDevice(1L, inUse);
+
+        verify(historyService).recordStateChange(eq(1L), eq(DeviceState.AVAILABLE), eq(DeviceState.IN_USE), any());
+    }
+
     @Test
     void updateDevice_shouldThrowDeviceNotFound_whenDeviceDoesNotExist() {
+        runTransactionsInline();
         when(repository.findById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.updateDevice(1L, request))
@@ -90,6 +167,7 @@ class DeviceServiceTest {
 
     @Test
     void partialUpdateDevice_shouldUpdateAndReturnResponse_whenDeviceExists() {
+        runTransactionsInline();
         when(repository.findById(1L)).thenReturn(Optional.of(device));
         doNothing().when(converter).updateEntity(request, device);
         when(repository.save(device)).thenReturn(device);
@@ -106,6 +184,7 @@ class DeviceServiceTest {
 
     @Test
     void partialUpdateDevice_shouldThrowIllegalArgument_whenDeviceNotFound() {
+        runTransactionsInline();
         when(repository.findById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.partialUpdateDevice(1L, request))
@@ -113,8 +192,58 @@ class DeviceServiceTest {
                 .hasMessageContaining("Device not found");
     }
 
+    @Test
+    void partialUpdateDevice_shouldUseWriteBehind_whenStateOnlyPatchAccepted() {
+        final DeviceRequest statePatch = DeviceRequest.builder().state(DeviceState.IN_USE).build();
+        when(writeBehind.accepts(statePatch)).thenReturn(true);
+        when(writeBehind.applyState(1L, DeviceState.IN_USE)).thenReturn(response);
+
+        final DeviceResponse result = service.partialUpdateDevice(1L, statePatch);
+
+        assertThat(result).isEqualTo(response);
+        verifyNoInteractions(repository, transactionTemplate);
+    }
+
+    @Test
+    void deleteDevice_shouldFlushPendingStateBeforeTransactionBegins() {
+        runTransactionsInline();
+        when(repository.findById(1L)).thenReturn(Optional.of(device));
+
+        service.deleteDevice(1L);
+
+        final InOrder inOrder = inOrder(writeBehind, transactionTemplate, repository);
+        inOrder.verify(writeBehind).flush(1L);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(repository).findById(1L);
+    }
+
+    @Test
+    void updateDevice_shouldFlushPendingStateBeforeTransactionBegins() {
+        runTransactionsInline();
+        when(repository.findById(1L)).thenReturn(Optional.of(device));
+        when(repository.save(any(Device.class))).thenReturn(device);
+
+        service.updateDevice(1L, request);
+
+        final InOrder inOrder = inOrder(writeBehind, transactionTemplate, repository);
+        inOrder.verify(writeBehind).flush(1L);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(repository).findById(1L);
+    }
+
+    @Test
+    void getDevice_shouldReturnPendingState_whenWriteBehindHasUnflushedFlip() {
+        when(writeBehind.pending(1L)).thenReturn(Optional.of(response));
+
+        final DeviceResponse result = service.getDevice(1L);
+
+        assertThat(result).isEqualTo(response);
+        verifyNoInteractions(repository, snapshotStore);
+    }
+
     @Test
     void deleteDevice_shouldDelete_whenDeviceExistsAndNotInUse() {
+        runTransactionsInline();
         when(repository.findById(1L)).thenReturn(Optional.of(device));
         doNothing().when(repository).delete(device);
 
@@ -122,10 +251,13 @@ class DeviceServiceTest {
 
         verify(repository).findById(1L);
         verify(repository).delete(device);
+        verify(tombstoneRepository).insert(eq(1L), any());
+        verify(eventPublisher).publishEvent(new DevicesRemovedEvent(List.of(1L)));
     }
 
     @Test
     void deleteDevice_shouldThrowDeviceNotFound_whenDeviceDoesNotExist() {
+        runTransactionsInline();
         when(repository.findById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.deleteDevice(1L))
@@ -134,17 +266,162 @@ class DeviceServiceTest {
     }
 
     @Test
-    void getDevice_shouldReturnDevice_whenDeviceExists() {
-        when(repository.findById(1L)).thenReturn(Optional.of(device));
+    void getDevice_shouldReturnResponse_whenDeviceExists() {
+        when(repository.findResponseById(1L)).thenReturn(Optional.of(response));
 
-        final Device result = service.getDevice(1L);
+        final DeviceResponse result = service.getDevice(1L);
 
-        assertThat(result).isEqualTo(device);
+        assertThat(result).isEqualTo(response);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void getDevice_shouldReadSnapshot_whenSnapshotReady() {
+        when(snapshotStore.isReady()).thenReturn(true);
+        when(snapshotStore.findById(1L)).thenReturn(Optional.of(response));
+
+        final DeviceResponse result = service.getDevice(1L);
+
+        assertThat(result).isEqualTo(response);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getDevicesByBrand_shouldReadSnapshot_whenSnapshotReady() {
+        when(snapshotStore.isReady()).thenReturn(true);
+        when(snapshotStore.findByBrand("Samsung")).thenReturn(List.of(response));
+
+        final List<DeviceResponse> result = service.getDevicesByBrand("Samsung");
+
+        assertThat(result).containsExactly(response);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getDevicesByState_shouldFetchIndexedIdsInPages_andDropDevicesThatMovedOn() {
+        final long[] ids = LongStream.rangeClosed(1, DeviceRepository.ID_PAGE_SIZE + 1).toArray();
+        final DeviceResponse moved = new DeviceResponse(2L, "Tablet", "Samsung", "IN_USE",
+                OffsetDateTime.now(), OffsetDateTime.now());
+        final DeviceResponse last = new DeviceResponse(ids[ids.length - 1], "Watch", "Samsung", "AVAILABLE",
+                OffsetDateTime.now(), OffsetDateTime.now());
+        when(membershipIndex.isReady()).thenReturn(true);
+        when(membershipIndex.idsByState(DeviceState.AVAILABLE)).thenReturn(ids);
+        when(repository.findResponsesByIdIn(anyCollection()))
+                .thenReturn(List.of(response, moved))
+                .thenReturn(List.of(last));
+
+        final List<DeviceResponse> result = service.getDevicesByState(DeviceState.AVAILABLE);
+
+        assertThat(result).containsExactly(response, last);
+        final ArgumentCaptor<List<Long>> pages = ArgumentCaptor.captor();
+        verify(repository, times(2)).findResponsesByIdIn(pages.capture());
+        assertThat(pages.getAllValues()).extracting(List::size).containsExactly(DeviceRepository.ID_PAGE_SIZE, 1);
+        verify(repository, never()).findResponsesByState(any());
+    }
+
+    @Test
+    void countDevicesByBrand_shouldAnswerFromIndex_whenIndexReady() {
+        when(membershipIndex.isReady()).thenReturn(true);
+        when(membershipIndex.countByBrand("Samsung")).thenReturn(3);
+
+        assertThat(service.countDevicesByBrand("Samsung")).isEqualTo(3);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void countDevicesByState_shouldQueryRepository_whenIndexNotReady() {
+        when(repository.countByState(DeviceState.IN_USE)).thenReturn(4L);
+
+        assertThat(service.countDevicesByState(DeviceState.IN_USE)).isEqualTo(4);
+    }
+
+    @Test
+    void lookupDevices_shouldKeepRequestOrder_andReportMissingIds() {
+        final Device other = Device.builder().id(3L).name("Tablet").brand("Apple").state(DeviceState.IN_USE).build();
+        final DeviceResponse otherResponse = new DeviceResponse(3L, "Tablet", "Apple", "IN_USE",
+                OffsetDateTime.now(), OffsetDateTime.now());
+        final DeviceResponse pending = new DeviceResponse(5L, "Watch", "Apple", "INACTIVE",
+                OffsetDateTime.now(), OffsetDateTime.now());
+        when(writeBehind.pending(anyLong())).thenReturn(Optional.empty());
+        when(writeBehind.pending(5L)).thenReturn(Optional.of(pending));
+        when(lookupRepository.findAllInOrder(List.of(3L, 2L, 1L))).thenReturn(Arrays.asList(other, null, device));
+        when(converter.toResponse(other)).thenReturn(otherResponse);
+        when(converter.toResponse(device)).thenReturn(response);
+
+        final DeviceLookupResponse result = service.lookupDevices(List.of(3L, 2L, 5L, 1L, 3L));
+
+        assertThat(result.devices()).containsExactly(otherResponse, pending, response);
+        assertThat(result.missing()).containsExactly(2L);
+    }
+
+    @Test
+    void lookupDevices_shouldReadSnapshot_whenSnapshotReady() {
+        when(writeBehind.pending(anyLong())).thenReturn(Optional.empty());
+        when(snapshotStore.isReady()).thenReturn(true);
+        when(snapshotStore.findById(1L)).thenReturn(Optional.of(response));
+        when(snapshotStore.findById(2L)).thenReturn(Optional.empty());
+
+        final DeviceLookupResponse result = service.lookupDevices(List.of(2L, 1L));
+
+        assertThat(result.devices()).containsExactly(response);
+        assertThat(result.missing()).containsExactly(2L);
+        verifyNoInteractions(lookupRepository);
+    }
+
+    @Test
+    void lookupDevices_shouldThrowIllegalArgument_whenIdsEmptyTooManyOrNull() {
+        final List<Long> tooMany = LongStream.rangeClosed(1, DeviceService.MAX_LOOKUP_IDS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> service.lookupDevices(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.lookupDevices(tooMany)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.lookupDevices(Arrays.asList(1L, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ids must not contain null");
+    }
+
+    @Test
+    void claimDevices_shouldMoveLockedDevicesToInUse_andSkipPendingWriteBehind() {
+        final Device pendingDevice = Device.builder().id(2L).name("Tablet").brand("Samsung")
+                .state(DeviceState.AVAILABLE).build();
+        when(claimRepository.lockAvailable("Samsung", 0L, 2)).thenReturn(List.of(device, pendingDevice));
+        when(claimRepository.lockAvailable("Samsung", 2L, 1)).thenReturn(List.of());
+        when(writeBehind.pending(1L)).thenReturn(Optional.empty());
+        when(writeBehind.pending(2L)).thenReturn(Optional.of(response));
+        when(converter.toResponse(device)).thenReturn(response);
+
+        final List<DeviceResponse> result = service.claimDevices("Samsung", 2);
+
+        assertThat(result).containsExactly(response);
+        assertThat(device.getState()).isEqualTo(DeviceState.IN_USE);
+        assertThat(pendingDevice.getState()).isEqualTo(DeviceState.AVAILABLE);
+        verify(historyService).recordStateChange(eq(1L), eq(DeviceState.AVAILABLE), eq(DeviceState.IN_USE),
+                any(OffsetDateTime.class));
+        verify(eventPublisher).publishEvent(any(DeviceChangedEvent.class));
+    }
+
+    @Test
+    void claimDevices_shouldClaimOne_whenCountOmitted() {
+        when(claimRepository.lockAvailable(null, 0L, 1)).thenReturn(List.of(device));
+        when(writeBehind.pending(1L)).thenReturn(Optional.empty());
+        when(converter.toResponse(device)).thenReturn(response);
+
+        assertThat(service.claimDevices(null, null)).containsExactly(response);
+        verify(claimRepository).lockAvailable(null, 0L, 1);
+    }
+
+    @Test
+    void claimDevices_shouldThrowIllegalArgument_whenCountOutOfRange() {
+        assertThatThrownBy(() -> service.claimDevices(null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("count must be between 1 and " + DeviceService.MAX_CLAIM_COUNT);
+        assertThatThrownBy(() -> service.claimDevices(null, DeviceService.MAX_CLAIM_COUNT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(claimRepository);
     }
 
     @Test
     void getDevice_shouldThrowDeviceNotFound_whenDeviceDoesNotExist() {
-        when(repository.findById(1L)).thenReturn(Optional.empty());
+        when(repository.findResponseById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.getDevice(1L))
                 .isInstanceOf(DeviceNotFoundException.class);
@@ -152,28 +429,53 @@ class DeviceServiceTest {
 
     @Test
     void getAllDevices_shouldReturnList_whenDevicesExist() {
-        when(repository.findAll()).thenReturn(List.of(device));
+        when(repository.findAllResponses()).thenReturn(List.of(response));
 
-        final List<Device> result = service.getAllDevices();
+        final List<DeviceResponse> result = service.getAllDevices();
 
-        assertThat(result).containsExactly(device);
+        assertThat(result).containsExactly(response);
     }
 
     @Test
     void getDevicesByBrand_shouldReturnList_whenDevicesExist() {
-        when(repository.findByBrand("Samsung")).thenReturn(List.of(device));
+        when(repository.findResponsesByBrand("Samsung")).thenReturn(List.of(response));
 
-        final List<Device> result = service.getDevicesByBrand("Samsung");
+        final List<DeviceResponse> result = service.getDevicesByBrand("Samsung");
 
-        assertThat(result).containsExactly(device);
+        assertThat(result).containsExactly(response);
     }
 
     @Test
     void getDevicesByState_shouldReturnList_whenDevicesExist() {
-        when(repository.findByState(DeviceState.AVAILABLE)).thenReturn(List.of(device));
+        when(repository.findResponsesByState(DeviceState.AVAILABLE)).thenReturn(List.of(response));
 
-        final List<Device> result = service.getDevicesByState(DeviceState.AVAILABLE);
+        final List<DeviceResponse> result = service.getDevicesByState(DeviceState.AVAILABLE);
+
+        assertThat(result).containsExactly(response);
+        verifyNoInteractions(converter);
+    }
+
+    @Test
+    void getDevicesChangedSince_shouldReturnList_whenLimitValid() {
+        final OffsetDateTime since = OffsetDateTime.now().minusHours(1);
+        when(repository.findResponsesChangedSince(since, Limit.of(100))).thenReturn(List.of(response));
+
+        final List<DeviceResponse> result = service.getDevicesChangedSince(since, 100);
+
+        assertThat(result).containsExactly(response);
+    }
+
+    @Test
+    void getDevicesChangedSince_shouldThrowIllegalArgument_whenLimitTooLarge() {
+        final OffsetDateTime since = OffsetDateTime.now();
+
+        assertThatThrownBy(() -> service.getDevicesChangedSince(since, DeviceService.MAX_CHANGED_SINCE_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 
-        assertThat(result).containsExactly(device);
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
     }
 }
@@ -0,0 +1,157 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.repository.DeviceRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeviceStateWriteBehindTest {
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DeviceHistoryService historyService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private DeviceStateWriteBehind writeBehind;
+    private Device device;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+        writeBehind = new DeviceStateWriteBehind(deviceRepository, jdbcTemplate, transactionManager,
+                entityManagerFactory, historyService, eventPublisher, true, 60_000, 10_000);
+        device = deviceRepository.save(Device.builder()
+                .name("Phone")
+                .brand("Acme")
+                .state(DeviceState.AVAILABLE)
+                .creationTime(OffsetDateTime.now())
+                .updateTime(OffsetDateTime.now())
+                .build());
+    }
+
+    @Test
+    void applyState_shouldCoalesceFlipsIntoOneWrite_untilFlushed() {
+        for (int i = 0; i < 10; i++) {
+            writeBehind.applyState(device.getId(), i % 2 == 0 ? DeviceState.IN_USE : DeviceState.AVAILABLE);
+        }
+        final DeviceResponse last = writeBehind.applyState(device.getId(), DeviceState.IN_USE);
+
+        assertThat(last.state()).isEqualTo("IN_USE");
+        assertThat(writeBehind.pendingCount()).isEqualTo(1);
+        assertThat(storedState()).isEqualTo("AVAILABLE");
+        assertThat(writeBehind.pending(device.getId())).contains(last);
+
+        writeBehind.flush();
+
+        assertThat(storedState()).isEqualTo("IN_USE");
+        assertThat(writeBehind.pendingCount()).isZero();
+        assertThat(deviceRepository.findById(device.getId()).orElseThrow().getState()).isEqualTo(DeviceState.IN_USE);
+    }
+
+    @Test
+    void flush_shouldWriteSingleDevice_beforeFullUpdateLoadsIt() {
+        writeBehind.applyState(device.getId(), DeviceState.INACTIVE);
+
+        writeBehind.flush(device.getId());
+
+        assertThat(storedState()).isEqualTo("INACTIVE");
+        assertThat(writeBehind.pending(device.getId())).isEmpty();
+    }
+
+    @Test
+    void onDevicesRemoved_shouldDropPendingState_ofPurgedDevices() {
+        writeBehind.applyState(device.getId(), DeviceState.IN_USE);
+
+        writeBehind.onDevicesRemoved(new DevicesRemovedEvent(List.of(device.getId())));
+
+        assertThat(writeBehind.pending(device.getId())).isEmpty();
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    void flush_shouldDropEntry_whenRowNoLongerExists() {
+        writeBehind.applyState(device.getId(), DeviceState.IN_USE);
+        jdbcTemplate.update("delete from devices where id = ?", device.getId());
+
+        writeBehind.flush();
+
+        assertThat(writeBehind.pendingCount()).isZero();
+    }
+
+    @Test
+    void applyState_shouldReadRowAgain_whenFlushCompletedWhileLoading() {
+        final Device other = deviceRepository.save(Device.builder()
+                .name("Tablet").brand("Acme").state(DeviceState.AVAILABLE)
+                .creationTime(OffsetDateTime.now()).updateTime(OffsetDateTime.now()).build());
+        final DeviceRepository repository = mock(DeviceRepository.class, delegatesTo(deviceRepository));
+        final DeviceStateWriteBehind racing = new DeviceStateWriteBehind(repository, jdbcTemplate, transactionManager,
+                entityManagerFactory, historyService, eventPublisher, true, 60_000, 10_000);
+        doAnswer(invocation -> {
+            final Optional<DeviceResponse> stale = deviceRepository.findResponseById(device.getId());
+            // another request renames the device and a flush commits before this load is used
+            jdbcTemplate.update("update devices set name = 'Renamed' where id = ?", device.getId());
+            racing.applyState(other.getId(), DeviceState.IN_USE);
+            racing.flush();
+            return stale;
+        }).doAnswer(invocation -> deviceRepository.findResponseById(device.getId()))
+                .when(repository).findResponseById(device.getId());
+
+        final DeviceResponse response = racing.applyState(device.getId(), DeviceState.IN_USE);
+
+        assertThat(response.name()).isEqualTo("Renamed");
+        verify(repository, times(2)).findResponseById(device.getId());
+    }
+
+    @Test
+    void applyState_shouldThrowIllegalArgument_whenDeviceMissing() {
+        assertThatThrownBy(() -> writeBehind.applyState(Long.MAX_VALUE, DeviceState.IN_USE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Device not found");
+    }
+
+    @Test
+    void accepts_shouldOnlyTakeStateOnlyPatches() {
+        assertThat(writeBehind.accepts(DeviceRequest.builder().state(DeviceState.IN_USE).build())).isTrue();
+        assertThat(writeBehind.accepts(DeviceRequest.builder().name("x").state(DeviceState.IN_USE).build())).isFalse();
+        assertThat(writeBehind.accepts(DeviceRequest.builder().build())).isFalse();
+    }
+
+    private String storedState() {
+        return jdbcTemplate.queryForObject("select state from devices where id = ?", String.class, device.getId());
+    }
+}
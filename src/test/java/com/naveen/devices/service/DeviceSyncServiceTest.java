@@ -0,0 +1,83 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.dto.DeviceSyncResponse;
+import com.naveen.devices.repository.DeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "devices.sync.commit-lag-ms=0")
+class DeviceSyncServiceTest {
+
+    @Autowired
+    private DeviceSyncService deviceSyncService;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @BeforeEach
+    void setUp() {
+        deviceRepository.deleteAll();
+    }
+
+    @Test
+    void sync_shouldResumeExactly_whenPagingThroughChangesWithEqualTimestamps() {
+        final OffsetDateTime sameInstant = OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1).truncatedTo(ChronoUnit.MICROS);
+        for (int i = 0; i < 5; i++) {
+            deviceRepository.save(device("D" + i, sameInstant));
+        }
+
+        final List<String> seen = new ArrayList<>();
+        String token = null;
+        DeviceSyncResponse page;
+        do {
+            page = deviceSyncService.sync(token, 2);
+            page.changed().stream().map(DeviceResponse::name).forEach(seen::add);
+            token = page.nextToken();
+        } while (page.hasMore());
+
+        assertThat(seen).containsExactlyInAnyOrder("D0", "D1", "D2", "D3", "D4");
+        assertThat(deviceSyncService.sync(token, 2).changed()).isEmpty();
+    }
+
+    @Test
+    void sync_shouldReturnTombstone_whenDeviceDeletedAfterToken() {
+        final Long id = deviceRepository.save(device("Doomed", OffsetDateTime.now().minusMinutes(1))).getId();
+        final String token = deviceSyncService.sync(null, 100).nextToken();
+
+        deviceService.deleteDevice(id);
+        final DeviceSyncResponse delta = deviceSyncService.sync(token, 100);
+
+        assertThat(delta.changed()).isEmpty();
+        assertThat(delta.deleted()).containsExactly(id);
+    }
+
+    private static Device device(final String name, final OffsetDateTime time) {
+        return Device.builder()
+                .name(name)
+                .brand("Sync")
+                .state(DeviceState.AVAILABLE)
+                .creationTime(time)
+                .updateTime(time)
+                .build();
+    }
+}
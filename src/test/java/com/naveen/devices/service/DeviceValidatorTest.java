@@ -3,6 +3,8 @@ package com.naveen.devices.service;
 import com.naveen.devices.domain.Device;
 import com.naveen.devices.domain.DeviceState;
 import com.naveen.devices.dto.DeviceRequest;
+import com.naveen.devices.exception.DeviceInUseException;
+import com.naveen.devices.exception.DeviceValidationException;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -28,6 +30,7 @@ class DeviceValidatorTest {
 
         assertThatThrownBy(() -> DeviceValidator.validateDelete(device))
                 .isInstanceOf(IllegalArgumentException.class)
+                .isInstanceOf(DeviceValidationException.class)
                 .hasMessage("Cannot delete a device in use");
     }
 
@@ -71,6 +74,7 @@ class DeviceValidatorTest {
 
         assertThatThrownBy(() -> DeviceValidator.validateUpdate(device, request))
                 .isInstanceOf(IllegalStateException.class)
+                .isInstanceOf(DeviceInUseException.class)
                 .hasMessage("Cannot update name/brand of a device in use");
     }
 
@@ -86,6 +90,42 @@ class DeviceValidatorTest {
 
         assertThatThrownBy(() -> DeviceValidator.validateUpdate(device, request))
                 .isInstanceOf(IllegalStateException.class)
+                .isInstanceOf(DeviceInUseException.class)
                 .hasMessage("Cannot update name/brand of a device in use");
     }
+
+    @Test
+    void validateCreate_shouldNotThrow_whenAllFieldsPresent() {
+        final DeviceRequest request = new DeviceRequest("Phone", "Samsung", DeviceState.AVAILABLE);
+
+        assertThatCode(() -> DeviceValidator.validateCreate(request))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void validateCreate_shouldThrowValidation_whenBrandBlank() {
+        final DeviceRequest request = new DeviceRequest("Phone", " ", DeviceState.AVAILABLE);
+
+        assertThatThrownBy(() -> DeviceValidator.validateCreate(request))
+                .isInstanceOf(DeviceValidationException.class)
+                .hasMessage("brand is required");
+    }
+
+    @Test
+    void validateCreate_shouldThrowValidation_whenNameTooLong() {
+        final DeviceRequest request = new DeviceRequest("x".repeat(256), "Samsung", DeviceState.AVAILABLE);
+
+        assertThatThrownBy(() -> DeviceValidator.validateCreate(request))
+                .isInstanceOf(DeviceValidationException.class)
+                .hasMessage("name must be at most 255 characters");
+    }
+
+    @Test
+    void validateCreate_shouldThrowValidation_whenStateMissing() {
+        final DeviceRequest request = new DeviceRequest("Phone", "Samsung", null);
+
+        assertThatThrownBy(() -> DeviceValidator.validateCreate(request))
+                .isInstanceOf(DeviceValidationException.class)
+                .hasMessage("state is required");
+    }
 }
@@ -0,0 +1,137 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.repository.CacheInvalidationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JdbcCacheInvalidationBusTest {
+
+    @Autowired
+    private CacheInvalidationRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcCacheInvalidationBus publisher;
+    private JdbcCacheInvalidationBus receiver;
+    private RecordingListener publisherListener;
+    private RecordingListener receiverListener;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from cache_invalidations");
+        // polled by hand; no lag so every row settles at once
+        publisher = new JdbcCacheInvalidationBus(repository, 0, 0, 600_000);
+        receiver = new JdbcCacheInvalidationBus(repository, 0, 0, 600_000);
+        publisherListener = new RecordingListener();
+        receiverListener = new RecordingListener();
+        publisher.subscribe(publisherListener);
+        receiver.subscribe(receiverListener);
+    }
+
+    @Test
+    void poll_shouldDeliverOtherInstancesMessagesOnce() {
+        publisher.publish(Set.of(1L, 2L));
+        publisher.publishAll();
+
+        receiver.poll();
+        receiver.poll();
+        publisher.poll();
+
+        assertThat(receiverListener.invalidated).containsExactly(Set.of(1L, 2L));
+        assertThat(receiverListener.invalidatedAll).isEqualTo(1);
+        assertThat(publisherListener.invalidated).isEmpty();
+        assertThat(publisherListener.invalidatedAll).isZero();
+    }
+
+    @Test
+    void publish_shouldSplitLargeBatchesIntoRows() {
+        final Set<Long> ids = LongStream.range(0, JdbcCacheInvalidationBus.IDS_PER_ROW * 2 + 1)
+                .map(i -> Long.MAX_VALUE - i)
+                .boxed()
+                .collect(Collectors.toSet());
+
+        publisher.publish(ids);
+        receiver.poll();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cache_invalidations", Integer.class)).isEqualTo(3);
+        final Set<Long> received = new HashSet<>();
+        receiverListener.invalidated.forEach(received::addAll);
+        assertThat(received).isEqualTo(ids);
+    }
+
+    @Test
+    void poll_shouldDeliverRowCommittedLate_behindUnsettledRows() {
+        final JdbcCacheInvalidationBus lagging = new JdbcCacheInvalidationBus(repository, 0, 60_000, 600_000);
+        final RecordingListener laggingListener = new RecordingListener();
+        lagging.subscribe(laggingListener);
+        publisher.publish(Set.of(1L));
+        lagging.poll();
+        final long first = repository.maxId();
+
+        // a concurrent publisher took the next id earlier but only commits now
+        publisher.publish(Set.of(2L));
+        jdbcTemplate.update("update cache_invalidations set id = ? where id = ?", first + 10, first + 1);
+        publisher.publish(Set.of(3L));
+        jdbcTemplate.update("update cache_invalidations set id = ? where id = ?", first + 1, first + 10);
+        lagging.poll();
+        lagging.poll();
+
+        assertThat(laggingListener.invalidated).containsExactlyInAnyOrder(Set.of(1L), Set.of(2L), Set.of(3L));
+    }
+
+    @Test
+    void poll_shouldDeleteRowsPastRetention() {
+        publisher.publish(Set.of(1L));
+        jdbcTemplate.update("update cache_invalidations set created_at = ?",
+                Timestamp.from(Instant.now().minusSeconds(3600)));
+
+        receiver.poll();
+
+        assertThat(receiverListener.invalidated).containsExactly(Set.of(1L));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cache_invalidations", Integer.class)).isZero();
+    }
+
+    @Test
+    void encode_shouldRoundTrip() {
+        final Set<Long> ids = Set.of(5L, 1L, 1_234_567_890_123L);
+
+        final List<String> rows = JdbcCacheInvalidationBus.encode(ids);
+
+        assertThat(rows).containsExactly("1,5,1234567890123");
+        assertThat(JdbcCacheInvalidationBus.decode(rows.getFirst())).isEqualTo(ids);
+    }
+
+    private static final class RecordingListener implements CacheInvalidationBus.Listener {
+
+        private final List<Set<Long>> invalidated = new ArrayList<>();
+        private int invalidatedAll;
+
+        @Override
+        public void invalidate(final Set<Long> deviceIds) {
+            invalidated.add(deviceIds);
+        }
+
+        @Override
+        public void invalidateAll() {
+            invalidatedAll++;
+        }
+    }
+}
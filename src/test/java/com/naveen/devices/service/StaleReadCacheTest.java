@@ -0,0 +1,93 @@
+package com.naveen.devices.service;
+
+import com.naveen.devices.domain.DeviceChangedEvent;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.domain.DevicesRemovedEvent;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.exception.DatabaseUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaleReadCacheTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.now();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaleReadCache cache = new StaleReadCache(meterRegistry, 2, 2);
+    private final DeviceResponse phone = new DeviceResponse(1L, "Phone", "Acme", "AVAILABLE", NOW, NOW);
+
+    @Test
+    void device_shouldServeLastCopy_whenDatabaseUnavailable() {
+        cache.device(1L, () -> Optional.of(phone));
+
+        final Optional<DeviceResponse> stale = cache.device(1L, () -> {
+            throw unavailable();
+        });
+
+        assertThat(stale).contains(phone);
+        assertThat(meterRegistry.get(StaleReadCache.STALE_READS_METRIC).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void device_shouldThrowDatabaseUnavailable_whenNoCopy() {
+        assertThatThrownBy(() -> cache.device(2L, () -> {
+            throw unavailable();
+        })).isInstanceOf(DatabaseUnavailableException.class);
+    }
+
+    @Test
+    void device_shouldRethrow_whenFailureIsNotAboutTheConnection() {
+        cache.device(1L, () -> Optional.of(phone));
+        final InvalidDataAccessApiUsageException failure = new InvalidDataAccessApiUsageException("bad query");
+
+        assertThatThrownBy(() -> cache.device(1L, () -> {
+            throw failure;
+        })).isSameAs(failure);
+    }
+
+    @Test
+    void list_shouldServeLastResult_andEvictLeastRecentlyUsed() {
+        cache.list("brand:Acme", () -> List.of(phone));
+        cache.list("brand:Other", List::of);
+        cache.list("brand:Acme", () -> List.of(phone));
+        cache.list("state:IN_USE", List::of);
+
+        assertThat(cache.list("brand:Acme", () -> {
+            throw unavailable();
+        })).containsExactly(phone);
+        assertThatThrownBy(() -> cache.list("brand:Other", () -> {
+            throw unavailable();
+        })).isInstanceOf(DatabaseUnavailableException.class);
+    }
+
+    @Test
+    void events_shouldKeepCachedDevicesCurrent() {
+        cache.device(1L, () -> Optional.of(phone));
+        cache.onDeviceChanged(new DeviceChangedEvent(1L, "Phone", "Acme", DeviceState.IN_USE, NOW, NOW));
+
+        assertThat(cache.device(1L, () -> {
+            throw unavailable();
+        })).map(DeviceResponse::state).contains("IN_USE");
+
+        cache.onDevicesRemoved(new DevicesRemovedEvent(List.of(1L)));
+
+        assertThatThrownBy(() -> cache.device(1L, () -> {
+            throw unavailable();
+        })).isInstanceOf(DatabaseUnavailableException.class);
+    }
+
+    private static RuntimeException unavailable() {
+        return new DataAccessResourceFailureException("Unable to acquire JDBC Connection",
+                new SQLTransientConnectionException("Database circuit open"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.naveen.devices.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naveen.devices.domain.BulkJob;
+import com.naveen.devices.domain.BulkJobStatus;
+import com.naveen.devices.domain.BulkJobType;
+import com.naveen.devices.domain.Device;
+import com.naveen.devices.domain.DeviceState;
+import com.naveen.devices.dto.DeviceResponse;
+import com.naveen.devices.repository.DeviceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StateChangeJobHandlerTest {
+
+    private static final String PARAMETERS = "{\"brand\":\"Acme\",\"fromState\":\"AVAILABLE\",\"toState\":\"INACTIVE\"}";
+
+    @Mock
+    private DeviceRepository repository;
+
+    @Mock
+    private DeviceHistoryService historyService;
+
+    @Mock
+    private DeviceStateWriteBehind writeBehind;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StateChangeJobHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new StateChangeJobHandler(repository, historyService, writeBehind, eventPublisher, new ObjectMapper());
+    }
+
+    @Test
+    void open_shouldFlushWriteBehindBeforeFirstChunk() {
+        when(repository.findChunkAfter(eq(0L), eq("Acme"), eq(DeviceState.AVAILABLE), any(Limit.class)))
+                .thenReturn(List.of());
+
+        assertThat(handler.open(job()).next(10)).isNull();
+        final InOrder order = inOrder(writeBehind, repository);
+        order.verify(writeBehind).flush();
+        order.verify(repository).findChunkAfter(anyLong(), any(), any(), any(Limit.class));
+    }
+
+    @Test
+    void next_shouldSkipDevice_whenWriteBehindHoldsLaterState() {
+        final Device flipped = device(1L);
+        final Device untouched = device(2L);
+        when(repository.findChunkAfter(eq(0L), eq("Acme"), eq(DeviceState.AVAILABLE), any(Limit.class)))
+                .thenReturn(List.of(flipped, untouched));
+        when(writeBehind.pending(1L)).thenReturn(Optional.of(
+                new DeviceResponse(1L, "D1", "Acme", DeviceState.IN_USE, OffsetDateTime.now(), OffsetDateTime.now())));
+        when(writeBehind.pending(2L)).thenReturn(Optional.empty());
+
+        final BulkJobChunk chunk = handler.open(job()).next(10);
+
+        assertThat(chunk.cursor()).isEqualTo("2");
+        assertThat(flipped.getState()).isEqualTo(DeviceState.AVAILABLE);
+        assertThat(untouched.getState()).isEqualTo(DeviceState.INACTIVE);
+        verify(repository).saveAll(List.of(untouched));
+        verify(historyService).recordStateChange(eq(2L), eq(DeviceState.AVAILABLE), eq(DeviceState.INACTIVE), any());
+        verify(historyService, never()).recordStateChange(eq(1L), any(), any(), any());
+    }
+
+    private static BulkJob job() {
+        return new BulkJob("job", BulkJobType.STATE_CHANGE, BulkJobStatus.RUNNING, PARAMETERS, null, 0, 0, null,
+                null, null, null, null);
+    }
+
+    private static Device device(final long id) {
+        return Device.builder().id(id).name("D" + id).brand("Acme").state(DeviceState.AVAILABLE).build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.naveen.devices.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyncTokenTest {
+
+    @Test
+    void decode_shouldRoundTrip_whenTokenEncoded() {
+        final SyncToken token = new SyncToken(1_700_000_000_123_456L, 42L, 1_700_000_000_000_001L, 7L);
+
+        assertThat(SyncToken.decode(token.encode())).isEqualTo(token);
+    }
+
+    @Test
+    void decode_shouldReturnInitial_whenTokenMissing() {
+        assertThat(SyncToken.decode(null)).isEqualTo(SyncToken.INITIAL);
+        assertThat(SyncToken.decode("")).isEqualTo(SyncToken.INITIAL);
+    }
+
+    @Test
+    void decode_shouldThrowIllegalArgument_whenTokenMalformed() {
+        assertThatThrownBy(() -> SyncToken.decode("not-a-token!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid sync token");
+    }
+
+    @Test
+    void toMicros_shouldKeepMicrosecondPrecision() {
+        final Instant instant = Instant.parse("2026-01-01T00:00:00.123456Z");
+
+        assertThat(SyncToken.fromMicros(SyncToken.toMicros(instant))).isEqualTo(instant);
+    }
+}